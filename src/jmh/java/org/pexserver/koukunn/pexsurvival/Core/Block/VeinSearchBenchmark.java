@@ -0,0 +1,65 @@
+package org.pexserver.koukunn.pexsurvival.Core.Block;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TreeMine / MineOre の連結探索
+ * ワールドの代わりに 64x64x64 の真偽値の格子を使う（シード固定）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VeinSearchBenchmark {
+
+    private static final int SIZE = 64;
+
+    /**
+     * tree: 幹と枝の木（数十ブロック）、vein: 密な鉱脈（上限 300 に達する）、sparse: 散らばった鉱石
+     */
+    @Param({"tree", "vein", "sparse"})
+    public String shape;
+
+    private boolean[] grid;
+
+    @Setup
+    public void setup() {
+        grid = new boolean[SIZE * SIZE * SIZE];
+        Random random = new Random(42);
+        int c = SIZE / 2;
+        switch (shape) {
+            case "tree" -> {
+                for (int y = c; y < c + 12; y++) set(c, y, c);
+                for (int i = 0; i < 30; i++) {
+                    set(c + random.nextInt(5) - 2, c + 6 + random.nextInt(6), c + random.nextInt(5) - 2);
+                }
+            }
+            case "vein" -> {
+                for (int x = c - 5; x <= c + 5; x++) for (int y = c - 5; y <= c + 5; y++) for (int z = c - 5; z <= c + 5; z++) {
+                    if (random.nextDouble() < 0.6) set(x, y, z);
+                }
+            }
+            default -> {
+                for (int i = 0; i < grid.length / 20; i++) grid[random.nextInt(grid.length)] = true;
+            }
+        }
+        set(c, c, c);
+    }
+
+    private void set(int x, int y, int z) {
+        grid[(x * SIZE + y) * SIZE + z] = true;
+    }
+
+    private boolean get(int x, int y, int z) {
+        if (x < 0 || y < 0 || z < 0 || x >= SIZE || y >= SIZE || z >= SIZE) return false;
+        return grid[(x * SIZE + y) * SIZE + z];
+    }
+
+    @Benchmark
+    public long[] search() {
+        int c = SIZE / 2;
+        return VeinSearch.search(c, c, c, 300, this::get);
+    }
+}
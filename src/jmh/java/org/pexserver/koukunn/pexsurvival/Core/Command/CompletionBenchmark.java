@@ -0,0 +1,58 @@
+package org.pexserver.koukunn.pexsurvival.Core.Command;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tab補完の類似度フィルタとトライ木の比較
+ * 候補はマテリアル名に似た形式の文字列をシード固定で生成する
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompletionBenchmark {
+
+    private static final String[] PARTS = {
+            "oak", "birch", "spruce", "stone", "deepslate", "iron", "gold", "diamond", "red", "blue",
+            "log", "planks", "ore", "block", "slab", "stairs", "wall", "door", "glass", "wool"
+    };
+
+    @Param({"50", "1000"})
+    public int size;
+
+    @Param({"", "d", "deep", "deepslate_i"})
+    public String input;
+
+    private List<String> candidates;
+    private CompletionTrie trie;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        candidates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int words = 1 + random.nextInt(3);
+            StringBuilder sb = new StringBuilder();
+            for (int w = 0; w < words; w++) {
+                if (w > 0) sb.append('_');
+                sb.append(PARTS[random.nextInt(PARTS.length)]);
+            }
+            candidates.add(sb.append('_').append(i).toString());
+        }
+        trie = CompletionTrie.of(candidates);
+    }
+
+    @Benchmark
+    public List<String> filterBySimilarity() {
+        return CompletionUtils.filterBySimilarity(input, candidates);
+    }
+
+    @Benchmark
+    public List<String> trieComplete() {
+        return trie.complete(input);
+    }
+}
@@ -0,0 +1,74 @@
+package org.pexserver.koukunn.pexsurvival.Core.Config;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * ConfigManager の保存と読み込み
+ * 一時ディレクトリに書き出すので、ディスク I/O と JSON の解析を含めた往復の時間になる
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConfigRoundTripBenchmark {
+
+    private static final String PATH = "bench/config.json";
+
+    @Param({"10", "500"})
+    public int entries;
+
+    private File dir;
+    private ConfigManager config;
+    private PEXConfig payload;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("pex-config-bench").toFile();
+        config = new ConfigManager(dir, Logger.getLogger("ConfigRoundTripBenchmark"));
+        Random random = new Random(42);
+        payload = new PEXConfig();
+        for (int i = 0; i < entries; i++) {
+            payload.put("key" + i, random.nextInt(1000));
+        }
+        // ベンチマークごとに作り直されるので、cachedLoad がファイル無し（空）を返さないよう先に書いておく
+        config.saveConfig(PATH, payload);
+        config.flush();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        config.close();
+        try (Stream<Path> files = Files.walk(dir.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * 保存してファイルへ書き出し、キャッシュを捨ててファイルから読み直す
+     */
+    @Benchmark
+    public Optional<PEXConfig> saveFlushLoad() {
+        config.saveConfig(PATH, payload);
+        config.flush();
+        config.invalidate(PATH);
+        return config.loadConfig(PATH);
+    }
+
+    /**
+     * キャッシュ済みの内容からの読み込み
+     */
+    @Benchmark
+    public Optional<PEXConfig> cachedLoad() {
+        return config.loadConfig(PATH);
+    }
+}
@@ -0,0 +1,35 @@
+package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Disasters;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 災害の抽選（エイリアス表）
+ * 登録される災害は本番と同じ（災害の作成はサーバー無しでもできる）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DisasterRegistryBenchmark {
+
+    private Random random;
+
+    @Setup
+    public void setup() {
+        DisasterRegistry.clear();
+        DisasterRegistry.initialize();
+        random = new Random(42);
+    }
+
+    @TearDown
+    public void tearDown() {
+        DisasterRegistry.clear();
+    }
+
+    @Benchmark
+    public Disaster pick() {
+        return DisasterRegistry.getRandomDisaster(random);
+    }
+}
@@ -0,0 +1,52 @@
+package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Disasters;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SinkholeDisaster の予定キューのキーの作成と分解
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SinkholeKeyBenchmark {
+
+    private static final int COUNT = 1024;
+
+    private final int[] xs = new int[COUNT];
+    private final int[] ys = new int[COUNT];
+    private final int[] zs = new int[COUNT];
+    private final String[] keys = new String[COUNT];
+    private int i;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int n = 0; n < COUNT; n++) {
+            xs[n] = random.nextInt(60_000) - 30_000;
+            ys[n] = random.nextInt(380) - 64;
+            zs[n] = random.nextInt(60_000) - 30_000;
+            keys[n] = SinkholeDisaster.blockKey("world", xs[n], ys[n], zs[n]);
+        }
+    }
+
+    @Benchmark
+    public String encode() {
+        int n = i++ & (COUNT - 1);
+        return SinkholeDisaster.blockKey("world", xs[n], ys[n], zs[n]);
+    }
+
+    @Benchmark
+    public Object parse() {
+        return SinkholeDisaster.parseKey(keys[i++ & (COUNT - 1)]);
+    }
+
+    @Benchmark
+    public void roundTrip(Blackhole bh) {
+        int n = i++ & (COUNT - 1);
+        bh.consume(SinkholeDisaster.parseKey(SinkholeDisaster.blockKey("world", xs[n], ys[n], zs[n])));
+    }
+}
@@ -0,0 +1,53 @@
+package org.pexserver.koukunn.pexsurvival.LoadTest;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 負荷試験 1 シナリオ分の結果（JSON にそのまま書き出す）
+ * @param players プレイヤー数
+ * @param worlds ワールド数
+ * @param ticks 計測したティック数（ウォームアップを除く）
+ * @param pluginMicros ティックごとのプラグインの処理時間（FeatureProfiler の計測区間の合計）
+ * @param tickMicros ティックごとの全体の時間（MockBukkit 自体の処理を含む）
+ * @param allocatedBytes ティックごとのプラグインのメモリ確保量
+ * @param features 機能ごとの集計
+ * @param unsupported MockBukkit が未実装で失敗した操作の回数（多い場合は結果が実際より軽く出ている）
+ */
+public record LoadResult(int players, int worlds, int ticks,
+                         Stats pluginMicros, Stats tickMicros, Stats allocatedBytes,
+                         Map<String, FeatureResult> features, int unsupported) {
+
+    /**
+     * 機能ごとの集計
+     * @param microsPerTick 1 ティックあたりの平均処理時間
+     * @param bytesPerTick 1 ティックあたりの平均メモリ確保量
+     * @param peakState getStateSize() の最大値
+     */
+    public record FeatureResult(double microsPerTick, double bytesPerTick, int peakState) {
+    }
+
+    /**
+     * ティックごとの値の分布
+     */
+    public record Stats(double mean, double p50, double p95, double p99, double max) {
+
+        static Stats of(long[] values, double scale) {
+            if (values.length == 0) return new Stats(0, 0, 0, 0, 0);
+            long[] sorted = values.clone();
+            Arrays.sort(sorted);
+            double sum = 0;
+            for (long v : sorted) sum += v;
+            return new Stats(sum / sorted.length * scale,
+                    percentile(sorted, 0.50) * scale,
+                    percentile(sorted, 0.95) * scale,
+                    percentile(sorted, 0.99) * scale,
+                    sorted[sorted.length - 1] * scale);
+        }
+
+        private static long percentile(long[] sorted, double q) {
+            int index = (int) Math.ceil(q * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+}
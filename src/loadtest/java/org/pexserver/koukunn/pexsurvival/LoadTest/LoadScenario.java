@@ -0,0 +1,135 @@
+package org.pexserver.koukunn.pexsurvival.LoadTest;
+
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.EntityType;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.mockbukkit.mockbukkit.exception.UnimplementedOperationException;
+import org.pexserver.koukunn.pexsurvival.Loader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * MockBukkit 上でプラグインを起動し、決まった経路で動くプレイヤーを使って数ティック分の負荷をかける
+ * 経路・ブロック破壊・モブの配置はシードから決まるので、同じ引数なら同じ操作が再現される
+ */
+final class LoadScenario {
+
+    /** 計測対象の機能（それ以外は無効にする） */
+    static final List<String> FEATURES = List.of("naturaldisaster", "mobboom", "nojump", "shuffle");
+
+    // ブロックを壊す間隔（ティック）
+    private static final int BREAK_INTERVAL = 20;
+    // ジャンプ（上昇する移動）を混ぜる間隔（ティック）
+    private static final int JUMP_INTERVAL = 10;
+
+    private final int playerCount;
+    private final int worldCount;
+    private final int ticks;
+    private final int warmup;
+    private final long seed;
+
+    private int unsupported = 0;
+
+    LoadScenario(int playerCount, int worldCount, int ticks, int warmup, long seed) {
+        this.playerCount = playerCount;
+        this.worldCount = worldCount;
+        this.ticks = ticks;
+        this.warmup = warmup;
+        this.seed = seed;
+    }
+
+    LoadResult run() {
+        ServerMock server = MockBukkit.mock();
+        try {
+            Loader plugin = MockBukkit.load(Loader.class);
+            TickMeter meter = new TickMeter(server, plugin, FEATURES, warmup);
+
+            Random random = new Random(seed);
+            List<World> worlds = new ArrayList<>();
+            for (int w = 0; w < worldCount; w++) {
+                worlds.add(server.addSimpleWorld("loadtest_" + w));
+            }
+            List<Walker> walkers = new ArrayList<>();
+            for (int i = 0; i < playerCount; i++) {
+                PlayerMock player = server.addPlayer("loadtest" + i);
+                player.setGameMode(GameMode.SURVIVAL);
+                World world = worlds.get(i % worldCount);
+                Walker walker = new Walker(player, world, random);
+                player.teleport(walker.position(0));
+                walkers.add(walker);
+                // 経路上にモブを置き、MobBoom が反応するようにする
+                attempt(() -> world.spawnEntity(walker.position(random.nextInt(360)), EntityType.ZOMBIE));
+            }
+
+            for (int tick = 0; tick < warmup + ticks; tick++) {
+                int current = tick;
+                meter.tick(() -> {
+                    for (Walker walker : walkers) {
+                        walker.step(current);
+                    }
+                });
+            }
+            return meter.result(playerCount, worldCount, unsupported);
+        } finally {
+            MockBukkit.unmock();
+        }
+    }
+
+    /**
+     * MockBukkit が未実装の操作は数えるだけにして続行する
+     */
+    private void attempt(Runnable action) {
+        try {
+            action.run();
+        } catch (UnimplementedOperationException e) {
+            unsupported++;
+        }
+    }
+
+    /**
+     * 円周上を一定の速さで歩くプレイヤー
+     */
+    private final class Walker {
+        private final PlayerMock player;
+        private final World world;
+        private final double centerX;
+        private final double centerZ;
+        private final double radius;
+        private final int phase;
+
+        Walker(PlayerMock player, World world, Random random) {
+            this.player = player;
+            this.world = world;
+            this.centerX = random.nextInt(512) - 256;
+            this.centerZ = random.nextInt(512) - 256;
+            this.radius = 6 + random.nextInt(10);
+            this.phase = random.nextInt(360);
+        }
+
+        Location position(int tick) {
+            double angle = Math.toRadians((phase + tick * 2) % 360);
+            return new Location(world, centerX + Math.cos(angle) * radius, 65, centerZ + Math.sin(angle) * radius);
+        }
+
+        void step(int tick) {
+            Location to = position(tick + 1);
+            if (tick % JUMP_INTERVAL == 0) to.add(0, 0.42, 0);
+            attempt(() -> player.simulatePlayerMove(to));
+            if (tick % BREAK_INTERVAL == phase % BREAK_INTERVAL) {
+                Block block = to.clone().add(0, -1, 0).getBlock();
+                attempt(() -> {
+                    block.setType(Material.STONE);
+                    player.simulateBlockBreak(block);
+                });
+            }
+        }
+    }
+}
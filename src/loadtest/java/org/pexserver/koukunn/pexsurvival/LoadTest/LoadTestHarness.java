@@ -0,0 +1,91 @@
+package org.pexserver.koukunn.pexsurvival.LoadTest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 負荷試験の起動クラス（./gradlew loadTest から実行）
+ * プレイヤー数ごとにサーバーを作り直してシナリオを実行し、結果を JSON に書き出します
+ *
+ * 引数（すべて省略可）:
+ *   --players=10,50,100,200  プレイヤー数（カンマ区切りで複数）
+ *   --worlds=3               ワールド数
+ *   --ticks=1200             計測するティック数
+ *   --warmup=200             計測前に捨てるティック数
+ *   --seed=42                経路などの乱数のシード
+ *   --out=build/results/loadtest/results.json
+ */
+public final class LoadTestHarness {
+
+    private LoadTestHarness() {}
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parse(args);
+        int worlds = Integer.parseInt(options.getOrDefault("worlds", "3"));
+        int ticks = Integer.parseInt(options.getOrDefault("ticks", "1200"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "200"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        File out = new File(options.getOrDefault("out", "build/results/loadtest/results.json"));
+        if (worlds < 1 || ticks < 1 || warmup < 0) {
+            throw new IllegalArgumentException("worlds >= 1, ticks >= 1, warmup >= 0 にしてください");
+        }
+
+        List<LoadResult> results = new ArrayList<>();
+        for (String value : options.getOrDefault("players", "10,50,100,200").split(",")) {
+            int players = Integer.parseInt(value.trim());
+            System.out.printf("負荷試験: %d 人 / %d ワールド / %d ティック%n", players, worlds, ticks);
+            LoadResult result = new LoadScenario(players, worlds, ticks, warmup, seed).run();
+            results.add(result);
+            print(result);
+        }
+
+        write(out, results);
+    }
+
+    /**
+     * 引数を --名前=値 の形で読む
+     */
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("不明な引数: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    static void write(File out, Object results) throws IOException {
+        File parent = out.getAbsoluteFile().getParentFile();
+        if (parent != null) Files.createDirectories(parent.toPath());
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        try (Writer writer = Files.newBufferedWriter(out.toPath(), StandardCharsets.UTF_8)) {
+            gson.toJson(results, writer);
+        }
+        System.out.println("結果: " + out.getPath());
+    }
+
+    static void print(LoadResult r) {
+        System.out.printf("  プラグイン  平均 %.1fµs / p95 %.1fµs / p99 %.1fµs / 最大 %.1fµs%n",
+                r.pluginMicros().mean(), r.pluginMicros().p95(), r.pluginMicros().p99(), r.pluginMicros().max());
+        System.out.printf("  ティック全体 平均 %.1fµs / p95 %.1fµs（MockBukkit を含む）%n",
+                r.tickMicros().mean(), r.tickMicros().p95());
+        System.out.printf("  メモリ確保  平均 %.0fB / 最大 %.0fB%n", r.allocatedBytes().mean(), r.allocatedBytes().max());
+        r.features().forEach((name, f) -> System.out.printf("  %-16s %.1fµs/tick  %.0fB/tick  状態 最大 %d%n",
+                name, f.microsPerTick(), f.bytesPerTick(), f.peakState()));
+        if (r.unsupported() > 0) {
+            System.out.printf("  MockBukkit 未実装の操作: %d 回%n", r.unsupported());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.pexserver.koukunn.pexsurvival.LoadTest;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.mockbukkit.mockbukkit.exception.UnimplementedOperationException;
+import org.pexserver.koukunn.pexsurvival.Core.Replay.ReplayReader;
+import org.pexserver.koukunn.pexsurvival.Loader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * /pex record で記録したリプレイログを MockBukkit 上のプラグインに流し直す（./gradlew replay から実行）
+ * 記録と同じティックの区切りでイベントを発火し、機能ごとのハンドラ時間を負荷試験と同じ形式で書き出します。
+ * 同じログを新旧のビルドで流して結果を比べれば、実際の負荷での差がわかります。
+ *
+ * 引数:
+ *   --log=replay/pexsurvival-20250101-200000.pexr  リプレイログ（必須）
+ *   --features=naturaldisaster,mobboom,nojump,shuffle  有効にする機能
+ *   --warmup=0               計測前に捨てるティック数
+ *   --out=build/results/loadtest/replay.json
+ */
+public final class ReplayHarness {
+
+    private ReplayHarness() {}
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = LoadTestHarness.parse(args);
+        String log = options.get("log");
+        if (log == null) throw new IllegalArgumentException("--log=<リプレイログ> を指定してください");
+        List<String> features = options.containsKey("features")
+                ? Arrays.asList(options.get("features").split(","))
+                : LoadScenario.FEATURES;
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "0"));
+        File out = new File(options.getOrDefault("out", "build/results/loadtest/replay.json"));
+
+        ServerMock server = MockBukkit.mock();
+        LoadResult result;
+        try {
+            Loader plugin = MockBukkit.load(Loader.class);
+            Driver replay = new Driver(server, new TickMeter(server, plugin, features, warmup));
+            ReplayReader.Summary summary = ReplayReader.read(new File(log), replay);
+            replay.finish();
+            System.out.printf("リプレイ: %s（%d ティック / %d 件%s）%n", log, summary.ticks(), summary.records(),
+                    summary.truncated() ? " / 末尾が欠けています" : "");
+            result = replay.result();
+        } finally {
+            MockBukkit.unmock();
+        }
+        LoadTestHarness.print(result);
+        LoadTestHarness.write(out, result);
+    }
+
+    /**
+     * ログのレコードを MockBukkit の操作に変換する
+     * 同じティックのレコードはまとめておき、ティックが進んだときに 1 ティック分として実行する
+     */
+    private static final class Driver implements ReplayReader.Handler {
+        private final ServerMock server;
+        private final TickMeter meter;
+        private final Map<Integer, PlayerMock> players = new HashMap<>();
+        private final Map<String, World> worlds = new HashMap<>();
+        private List<Runnable> pending = new ArrayList<>();
+        private long tick = 0;
+        private int joined = 0;
+        private int unsupported = 0;
+
+        Driver(ServerMock server, TickMeter meter) {
+            this.server = server;
+            this.meter = meter;
+        }
+
+        @Override
+        public void tick(long next) {
+            flush();
+            // 何も起きなかったティックも進める（タスクの実行間隔を記録と揃える）
+            for (long t = tick + 1; t < next; t++) meter.tick(() -> {});
+            tick = next;
+        }
+
+        @Override
+        public void join(int player, UUID uuid, String name, String world, double x, double y, double z, float yaw, float pitch) {
+            Location loc = new Location(world(world), x, y, z, yaw, pitch);
+            joined++;
+            pending.add(() -> {
+                PlayerMock mock = new PlayerMock(server, name, uuid);
+                server.addPlayer(mock);
+                mock.teleport(loc);
+                players.put(player, mock);
+            });
+        }
+
+        @Override
+        public void quit(int player) {
+            pending.add(() -> {
+                PlayerMock mock = players.remove(player);
+                if (mock != null) attempt(mock::disconnect);
+            });
+        }
+
+        @Override
+        public void move(int player, String world, double x, double y, double z, float yaw, float pitch) {
+            Location loc = new Location(world(world), x, y, z, yaw, pitch);
+            pending.add(() -> {
+                PlayerMock mock = players.get(player);
+                if (mock != null) attempt(() -> mock.simulatePlayerMove(loc));
+            });
+        }
+
+        @Override
+        public void blockBreak(int player, String world, int x, int y, int z, String material) {
+            World w = world(world);
+            Material type = Material.matchMaterial(material);
+            pending.add(() -> {
+                PlayerMock mock = players.get(player);
+                if (mock == null) return;
+                Block block = w.getBlockAt(x, y, z);
+                attempt(() -> {
+                    if (type != null) block.setType(type);
+                    mock.simulateBlockBreak(block);
+                });
+            });
+        }
+
+        void finish() {
+            flush();
+        }
+
+        LoadResult result() {
+            return meter.result(joined, worlds.size(), unsupported);
+        }
+
+        private void flush() {
+            List<Runnable> actions = pending;
+            pending = new ArrayList<>();
+            meter.tick(() -> actions.forEach(Runnable::run));
+        }
+
+        private World world(String name) {
+            return worlds.computeIfAbsent(name, n -> {
+                World existing = server.getWorld(n);
+                return existing != null ? existing : server.addSimpleWorld(n);
+            });
+        }
+
+        private void attempt(Runnable action) {
+            try {
+                action.run();
+            } catch (UnimplementedOperationException e) {
+                unsupported++;
+            }
+        }
+    }
+}
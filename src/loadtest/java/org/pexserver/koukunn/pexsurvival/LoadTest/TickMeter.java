@@ -0,0 +1,109 @@
+package org.pexserver.koukunn.pexsurvival.LoadTest;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.pexserver.koukunn.pexsurvival.Core.Feature.Feature;
+import org.pexserver.koukunn.pexsurvival.Core.Feature.FeatureManager;
+import org.pexserver.koukunn.pexsurvival.Core.Profiler.FeatureProfiler;
+import org.pexserver.koukunn.pexsurvival.Loader;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MockBukkit のティックを 1 つずつ進めて、プラグインの処理時間・メモリ確保量・状態数を記録する
+ * 負荷試験とリプレイで共通の計測部分
+ */
+final class TickMeter {
+
+    private final ServerMock server;
+    private final FeatureManager features;
+    private final FeatureProfiler profiler;
+    private final List<String> names;
+    private final int warmup;
+
+    private final Map<String, Integer> peakState = new LinkedHashMap<>();
+    private Map<String, FeatureProfiler.Entry> before = Map.of();
+    private long[] pluginNanos = new long[1024];
+    private long[] tickNanos = new long[1024];
+    private long[] bytes = new long[1024];
+    private int tick = 0;
+    private int measured = 0;
+
+    /**
+     * 指定した機能だけを有効にして計測を準備する
+     * @param warmup 計測前に捨てるティック数
+     */
+    TickMeter(ServerMock server, Loader plugin, List<String> names, int warmup) {
+        this.server = server;
+        this.features = plugin.getFeatureManager();
+        this.profiler = plugin.getProfiler();
+        this.names = names;
+        this.warmup = warmup;
+        for (String name : features.getFeatures().keySet()) {
+            if (names.contains(name)) features.enableFeature(name);
+            else features.disableFeature(name);
+        }
+        for (String name : names) peakState.put(name, 0);
+    }
+
+    /**
+     * 1 ティック進める
+     * @param actions このティックに行うプレイヤーの操作（イベントの発火）
+     */
+    void tick(Runnable actions) {
+        if (tick == warmup) before = snapshot();
+        long start = System.nanoTime();
+        actions.run();
+        server.getScheduler().performOneTick();
+        long pluginTime = profiler.currentTickNanos();
+        long allocated = profiler.currentTickBytes();
+        long elapsed = System.nanoTime() - start;
+        // FeatureProfiler のティック単位の集計を締める（実サーバーでは Paper が発火する）
+        server.getPluginManager().callEvent(new ServerTickEndEvent(tick, elapsed / 1e6, 0));
+
+        if (tick++ < warmup) return;
+        if (measured == pluginNanos.length) {
+            pluginNanos = Arrays.copyOf(pluginNanos, measured * 2);
+            tickNanos = Arrays.copyOf(tickNanos, measured * 2);
+            bytes = Arrays.copyOf(bytes, measured * 2);
+        }
+        pluginNanos[measured] = pluginTime;
+        tickNanos[measured] = elapsed;
+        bytes[measured] = allocated;
+        measured++;
+        for (String name : names) {
+            Feature feature = features.getFeature(name);
+            if (feature != null) peakState.merge(name, feature.getStateSize(), Math::max);
+        }
+    }
+
+    LoadResult result(int players, int worlds, int unsupported) {
+        Map<String, FeatureProfiler.Entry> after = snapshot();
+        int ticks = Math.max(1, measured);
+        Map<String, LoadResult.FeatureResult> perFeature = new LinkedHashMap<>();
+        for (String name : names) {
+            FeatureProfiler.Entry a = after.get(name);
+            FeatureProfiler.Entry b = before.get(name);
+            long nanos = (a != null ? a.nanos() : 0) - (b != null ? b.nanos() : 0);
+            long allocated = (a != null ? a.bytes() : 0) - (b != null ? b.bytes() : 0);
+            perFeature.put(name, new LoadResult.FeatureResult(nanos / 1e3 / ticks, (double) allocated / ticks, peakState.get(name)));
+        }
+        return new LoadResult(players, worlds, measured,
+                LoadResult.Stats.of(Arrays.copyOf(pluginNanos, measured), 1e-3),
+                LoadResult.Stats.of(Arrays.copyOf(tickNanos, measured), 1e-3),
+                LoadResult.Stats.of(Arrays.copyOf(bytes, measured), 1.0),
+                perFeature, unsupported);
+    }
+
+    private Map<String, FeatureProfiler.Entry> snapshot() {
+        Map<String, FeatureProfiler.Entry> map = new HashMap<>();
+        for (FeatureProfiler.Entry entry : profiler.totals().entries()) {
+            map.put(entry.name(), entry);
+        }
+        return map;
+    }
+}
@@ -1,25 +1,72 @@
 package org.pexserver.koukunn.pexsurvival.Commands.Pex;
 
+import org.pexserver.koukunn.pexsurvival.Core.Bench.BenchRunner;
 import org.pexserver.koukunn.pexsurvival.Core.Command.BaseCommand;
 import org.pexserver.koukunn.pexsurvival.Core.Command.PermissionLevel;
-import org.pexserver.koukunn.pexsurvival.Core.Command.CompletionUtils;
+import org.pexserver.koukunn.pexsurvival.Core.Command.CompletionTrie;
+import org.pexserver.koukunn.pexsurvival.Core.Feature.Feature;
 import org.pexserver.koukunn.pexsurvival.Core.Feature.FeatureManager;
+import org.pexserver.koukunn.pexsurvival.Core.Feature.FeatureRegistry;
+import org.pexserver.koukunn.pexsurvival.Core.Jfr.JfrRecorder;
+import org.pexserver.koukunn.pexsurvival.Core.Message.Message;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.MetricsRegistry;
+import org.pexserver.koukunn.pexsurvival.Core.Profiler.FeatureProfiler;
+import org.pexserver.koukunn.pexsurvival.Core.Profiler.StallWatchdog;
+import org.pexserver.koukunn.pexsurvival.Core.Replay.EventRecorder;
 import org.bukkit.command.CommandSender;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.entity.Player;
+import net.kyori.adventure.text.Component;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * /pex メインコマンド
- * サブコマンド: toggle, list, reload
+ * サブコマンド: toggle, list, reload, metrics, profile, jfr, stalls, record, bench
  */
 public class PexCommand extends BaseCommand {
 
+    // 補完候補（固定なので起動時に一度だけ索引化する）
+    private static final CompletionTrie SUB_COMMANDS =
+            CompletionTrie.of("toggle", "list", "reload", "metrics", "profile", "jfr", "stalls", "record", "bench");
+    private static final CompletionTrie PROFILE_WINDOWS = CompletionTrie.of("1m", "5m");
+    private static final CompletionTrie JFR_ACTIONS = CompletionTrie.of("start", "stop");
+    private static final CompletionTrie RECORD_ACTIONS = CompletionTrie.of("start", "stop", "status");
+
+    // ヘルプの行（この順に表示する）
+    private static final String[] HELP_LINES = {
+            "pex.help.toggle", "pex.help.list", "pex.help.reload", "pex.help.metrics",
+            "pex.help.profile", "pex.help.jfr", "pex.help.stalls", "pex.help.record", "pex.help.bench"
+    };
+
+    // /pex bench の既定値と上限
+    private static final int BENCH_DEFAULT_TICKS = 200;
+    private static final int BENCH_MAX_TICKS = 6000;
+    private static final int BENCH_DEFAULT_INTENSITY = 10;
+    private static final int BENCH_MAX_INTENSITY = 10000;
+
     private final FeatureManager featureManager;
+    private final MetricsRegistry metrics;
+    private final FeatureProfiler profiler;
+    private final JfrRecorder jfr;
+    private final StallWatchdog watchdog;
+    private final EventRecorder recorder;
+    private final BenchRunner bench;
 
     public PexCommand(FeatureManager featureManager) {
+        this(featureManager, featureManager.getMetrics(), featureManager.getProfiler(), null, null, null, null);
+    }
+
+    public PexCommand(FeatureManager featureManager, MetricsRegistry metrics, FeatureProfiler profiler,
+                      JfrRecorder jfr, StallWatchdog watchdog, EventRecorder recorder, BenchRunner bench) {
         this.featureManager = featureManager;
+        this.metrics = metrics;
+        this.profiler = profiler;
+        this.jfr = jfr;
+        this.watchdog = watchdog;
+        this.recorder = recorder;
+        this.bench = bench;
     }
 
     @Override
@@ -56,6 +103,24 @@ public class PexCommand extends BaseCommand {
             case "reload":
                 return handleReload(sender, args);
 
+            case "metrics":
+                return handleMetrics(sender, args);
+
+            case "profile":
+                return handleProfile(sender, args);
+
+            case "jfr":
+                return handleJfr(sender, args);
+
+            case "stalls":
+                return handleStalls(sender, args);
+
+            case "record":
+                return handleRecord(sender, args);
+
+            case "bench":
+                return handleBench(sender, args);
+
             default:
                 sendError(sender, "不明なサブコマンド: " + subCommand);
                 showHelp(sender);
@@ -83,8 +148,7 @@ public class PexCommand extends BaseCommand {
         // 無効な機能が設定ファイルに残っている場合は自動で削除
         featureManager.cleanupConfig();
 
-        String status = enabled ? "§a有効" : "§c無効";
-        sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§b[PEX] " + featureName + " を " + status + "§b に切り替えました"));
+        send(sender, "pex.toggled", featureName, status(sender, enabled));
         return true;
     }
 
@@ -92,22 +156,25 @@ public class PexCommand extends BaseCommand {
      * list サブコマンド処理
      */
     private boolean handleList(CommandSender sender, String[] args) {
-    sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§b========== 登録済み機能一覧 =========="));
+        send(sender, "pex.list.header");
 
-        if (featureManager.getFeatures().isEmpty()) {
-            sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§c登録済みの機能がありません"));
-            sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§b========================================"));
+        FeatureRegistry registry = featureManager.getRegistry();
+        if (registry.isEmpty()) {
+            send(sender, "pex.list.empty");
+            send(sender, "pex.list.footer");
             return true;
         }
 
-        for (String name : featureManager.getFeatures().keySet()) {
-            var feature = featureManager.getFeature(name);
-            String status = feature.isEnabled() ? "§a有効" : "§c無効";
-            sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§e• " + name + " " + status + 
-                                             "§f - " + feature.getDescription()));
+        // テンプレートと状態表示はループの前に一度だけ引く
+        Message line = messages().get("pex.list.entry", sender);
+        Component on = status(sender, true);
+        Component off = status(sender, false);
+        for (Map.Entry<String, Feature> entry : registry.asMap().entrySet()) {
+            Feature feature = entry.getValue();
+            sender.sendMessage(line.render(entry.getKey(), feature.isEnabled() ? on : off, feature.getDescription()));
         }
 
-    sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§b========================================"));
+        send(sender, "pex.list.footer");
         return true;
     }
 
@@ -136,20 +203,367 @@ public class PexCommand extends BaseCommand {
         }
     }
 
+    /**
+     * metrics サブコマンド処理
+     * 引数を指定した場合はその文字列を含む系列のみ表示（例: /pex metrics mobboom）
+     */
+    private boolean handleMetrics(CommandSender sender, String[] args) {
+        String filter = args.length >= 2 ? args[1].toLowerCase() : null;
+        send(sender, "pex.metrics.header");
+        Message entry = messages().get("pex.metrics.entry", sender);
+        int shown = 0;
+        for (String line : metrics.summary()) {
+            if (filter != null && !line.toLowerCase().contains(filter)) continue;
+            sender.sendMessage(entry.render(line));
+            shown++;
+        }
+        if (shown == 0) {
+            send(sender, "pex.metrics.empty");
+        }
+        send(sender, "pex.footer");
+        return true;
+    }
+
+    /**
+     * profile サブコマンド処理
+     * 直近 1 分（または 5 分）の MSPT に占める割合が大きい順に機能を表示
+     */
+    private boolean handleProfile(CommandSender sender, String[] args) {
+        String window = args.length >= 2 ? args[1].toLowerCase() : "1m";
+        int seconds;
+        switch (window) {
+            case "1m" -> seconds = 60;
+            case "5m" -> seconds = 300;
+            default -> {
+                sendError(sender, "使用法: /pex profile [1m|5m]");
+                return false;
+            }
+        }
+
+        FeatureProfiler.Report report = profiler.report(seconds);
+        send(sender, "pex.profile.header", window, String.format("%.2f", report.averageMspt()));
+        if (report.entries().isEmpty() || report.ticks() == 0) {
+            send(sender, "pex.profile.empty");
+        } else {
+            Message line = messages().get("pex.profile.entry", sender);
+            Message allocLine = messages().get("pex.profile.alloc", sender);
+            double total = 0;
+            for (FeatureProfiler.Entry e : report.entries()) {
+                double msPerTick = e.nanos() / 1_000_000.0 / report.ticks();
+                Object alloc = report.allocationSupported()
+                        ? allocLine.render(String.format("%.1f", e.bytes() / 1024.0 / report.ticks()))
+                        : "";
+                sender.sendMessage(line.render(e.name(), String.format("%.1f", e.share() * 100.0),
+                        String.format("%.3f", msPerTick), alloc));
+                total += e.share();
+            }
+            send(sender, "pex.profile.total", String.format("%.1f", total * 100.0));
+        }
+        send(sender, "pex.footer");
+        return true;
+    }
+
+    /**
+     * jfr サブコマンド処理
+     * start で JFR の記録を開始し、stop でデータフォルダ/jfr に書き出す
+     */
+    private boolean handleJfr(CommandSender sender, String[] args) {
+        if (jfr == null) {
+            sendError(sender, "JFR の記録は利用できません");
+            return false;
+        }
+        String action = args.length >= 2 ? args[1].toLowerCase() : "";
+        switch (action) {
+            case "start" -> {
+                if (jfr.isRecording()) {
+                    sendError(sender, "既に JFR を記録中です");
+                    return false;
+                }
+                try {
+                    jfr.start();
+                } catch (Exception e) {
+                    sendError(sender, "JFR の記録を開始できませんでした: " + e.getMessage());
+                    return false;
+                }
+                sendSuccess(sender, "JFR の記録を開始しました（/pex jfr stop で書き出し）");
+                return true;
+            }
+            case "stop" -> {
+                if (!jfr.isRecording()) {
+                    sendError(sender, "JFR を記録していません");
+                    return false;
+                }
+                sendInfo(sender, "JFR の記録を停止しました。書き出し中...");
+                jfr.stop(file -> {
+                    if (file != null) {
+                        sendSuccess(sender, "JFR を書き出しました: " + file.getPath());
+                    } else {
+                        sendError(sender, "JFR の書き出しに失敗しました（ログを確認してください）");
+                    }
+                });
+                return true;
+            }
+            default -> {
+                sendError(sender, "使用法: /pex jfr <start|stop>");
+                return false;
+            }
+        }
+    }
+
+    /**
+     * record サブコマンド処理
+     * start で移動・ブロック破壊・参加/退出の記録を開始し、stop でデータフォルダ/replay に書き出す
+     */
+    private boolean handleRecord(CommandSender sender, String[] args) {
+        if (recorder == null) {
+            sendError(sender, "イベントの記録は利用できません");
+            return false;
+        }
+        String action = args.length >= 2 ? args[1].toLowerCase() : "";
+        switch (action) {
+            case "start" -> {
+                if (recorder.isRecording()) {
+                    sendError(sender, "既にイベントを記録中です");
+                    return false;
+                }
+                try {
+                    recorder.start();
+                } catch (Exception e) {
+                    sendError(sender, "イベントの記録を開始できませんでした: " + e.getMessage());
+                    return false;
+                }
+                sendSuccess(sender, "イベントの記録を開始しました（/pex record stop で書き出し）");
+                return true;
+            }
+            case "stop" -> {
+                if (!recorder.isRecording()) {
+                    sendError(sender, "イベントを記録していません");
+                    return false;
+                }
+                long records = recorder.getRecords();
+                sendInfo(sender, "イベントの記録を停止しました。書き出し中...");
+                recorder.stop(file -> {
+                    if (file != null) {
+                        sendSuccess(sender, "リプレイログを書き出しました: " + file.getPath() + "（" + records + " 件）");
+                    } else {
+                        sendError(sender, "リプレイログの書き出しに失敗しました（ログを確認してください）");
+                    }
+                });
+                return true;
+            }
+            case "status" -> {
+                if (!recorder.isRecording()) {
+                    sendInfo(sender, "イベントを記録していません");
+                } else {
+                    sendInfo(sender, String.format("記録中: %s（%d 件 / %.1fKB）",
+                            recorder.getFile().getName(), recorder.getRecords(), recorder.getBytes() / 1024.0));
+                }
+                return true;
+            }
+            default -> {
+                sendError(sender, "使用法: /pex record <start|stop|status>");
+                return false;
+            }
+        }
+    }
+
+    /**
+     * bench サブコマンド処理
+     * 専用ワールドで機能に負荷をかけ、1 ティックあたりの操作数と MSPT の増え方を表示する
+     * 例: /pex bench treemine 400 20
+     */
+    private boolean handleBench(CommandSender sender, String[] args) {
+        if (bench == null) {
+            sendError(sender, "ベンチマークは利用できません");
+            return false;
+        }
+        if (args.length < 2) {
+            sendError(sender, "使用法: /pex bench <機能名> [ティック数] [1ティックあたりの操作数]");
+            return false;
+        }
+        if (bench.isRunning()) {
+            sendError(sender, "既にベンチマークを実行中です");
+            return false;
+        }
+        Feature feature = featureManager.getFeature(args[1].toLowerCase());
+        if (feature == null) {
+            sendError(sender, "機能が見つかりません: " + args[1]);
+            return false;
+        }
+        int ticks;
+        int intensity;
+        try {
+            ticks = args.length >= 3 ? Integer.parseInt(args[2]) : BENCH_DEFAULT_TICKS;
+            intensity = args.length >= 4 ? Integer.parseInt(args[3]) : BENCH_DEFAULT_INTENSITY;
+        } catch (NumberFormatException e) {
+            sendError(sender, "数値を指定してください");
+            return false;
+        }
+        if (ticks < 20 || ticks > BENCH_MAX_TICKS || intensity < 1 || intensity > BENCH_MAX_INTENSITY) {
+            sendError(sender, "ティック数は 20～" + BENCH_MAX_TICKS + "、操作数は 1～" + BENCH_MAX_INTENSITY + " で指定してください");
+            return false;
+        }
+
+        try {
+            bench.start(feature, ticks, intensity, sender instanceof Player p ? p : null, result -> showBench(sender, result));
+        } catch (IllegalStateException e) {
+            sendError(sender, e.getMessage());
+            return false;
+        }
+        sendInfo(sender, "ベンチマークを開始しました（負荷なしで 5 秒計測した後、" + ticks + " ティック負荷をかけます）");
+        return true;
+    }
+
+    private void showBench(CommandSender sender, BenchRunner.Result result) {
+        send(sender, "pex.bench.header", result.feature(), result.ticks());
+        send(sender, "pex.bench.ops", String.format("%.1f", result.operationsPerTick()), result.intensity());
+        send(sender, "pex.bench.mspt",
+                String.format("%.2f", result.baseline().mean()), String.format("%.2f", result.loaded().mean()),
+                String.format("%+.2f", result.loaded().mean() - result.baseline().mean()),
+                String.format("%.2f", result.baseline().p95()), String.format("%.2f", result.loaded().p95()));
+        send(sender, "pex.bench.feature", String.format("%.3f", result.featureMicrosPerTick() / 1000.0));
+        Message line = messages().get("pex.bench.entry", sender);
+        for (BenchRunner.Breakdown b : result.breakdown()) {
+            sender.sendMessage(line.render(b.name(), String.format("%.3f", b.microsPerTick() / 1000.0),
+                    String.format("%.1f", b.bytesPerTick() / 1024.0)));
+        }
+        send(sender, "pex.footer");
+    }
+
+    /**
+     * stalls サブコマンド処理
+     * 引数なしで直近の停滞一覧、番号を指定するとその停滞のスタックを表示
+     */
+    private boolean handleStalls(CommandSender sender, String[] args) {
+        if (watchdog == null) {
+            sendError(sender, "停滞の監視は利用できません");
+            return false;
+        }
+
+        if (args.length >= 2) {
+            StallWatchdog.Stall stall;
+            try {
+                stall = watchdog.get(Integer.parseInt(args[1]));
+            } catch (NumberFormatException e) {
+                sendError(sender, "使用法: /pex stalls [番号]");
+                return false;
+            }
+            if (stall == null) {
+                sendError(sender, "停滞が見つかりません: " + args[1]);
+                return false;
+            }
+            send(sender, "pex.stall.header", stall.id(), stall.time(), stall.owner(),
+                    String.format("%.1f", stall.durationNanos() / 1_000_000.0),
+                    stall.finished() ? "" : messages().render(sender, "pex.stall.unfinished"));
+            send(sender, "pex.stall.hottest", stall.hottestFrame());
+            send(sender, "pex.stall.caller", stall.pluginFrame());
+            if (!stall.samples().isEmpty()) {
+                Message frameLine = messages().get("pex.stall.frame", sender);
+                StackTraceElement[] first = stall.samples().get(0);
+                for (int i = 0; i < Math.min(first.length, 20); i++) {
+                    sender.sendMessage(frameLine.render(first[i]));
+                }
+            }
+            send(sender, "pex.footer");
+            return true;
+        }
+
+        send(sender, "pex.stalls.header");
+        var stalls = watchdog.recent();
+        if (stalls.isEmpty()) {
+            send(sender, "pex.stalls.empty");
+        }
+        Message line = messages().get("pex.stalls.entry", sender);
+        for (StallWatchdog.Stall stall : stalls) {
+            StackTraceElement frame = stall.pluginFrame();
+            sender.sendMessage(line.render(stall.id(), stall.time(), stall.owner(),
+                    String.format("%.1f", stall.durationNanos() / 1_000_000.0), stall.finished() ? "" : "+",
+                    frame != null ? "@ " + frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                            + "." + frame.getMethodName() + ":" + frame.getLineNumber() : ""));
+        }
+        send(sender, "pex.footer");
+        return true;
+    }
+
     /**
      * ヘルプを表示
      */
     private void showHelp(CommandSender sender) {
-        sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§b========== /pex コマンドヘルプ =========="));
-        sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§e/pex toggle <機能名>§f - 機能を切り替え（有効/無効）"));
-        sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§e/pex list§f - 登録済み機能一覧を表示"));
-        sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§e/pex reload <機能名>§f - 機能をリロード"));
-        sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§b======================================"));
+        send(sender, "pex.help.header");
+        for (String key : HELP_LINES) {
+            send(sender, key);
+        }
+        send(sender, "pex.help.footer");
+    }
+
+    /**
+     * 有効/無効の表示（解析済みの Component）
+     */
+    private Component status(CommandSender sender, boolean enabled) {
+        return messages().render(sender, enabled ? "pex.status.enabled" : "pex.status.disabled");
+    }
+
+    @Override
+    public Map<String, String> getMessages() {
+        Map<String, String> m = new LinkedHashMap<>();
+        m.put("pex.status.enabled", "§a有効");
+        m.put("pex.status.disabled", "§c無効");
+        m.put("pex.toggled", "§b[PEX] {0} を {1}§b に切り替えました");
+        m.put("pex.list.header", "§b========== 登録済み機能一覧 ==========");
+        m.put("pex.list.empty", "§c登録済みの機能がありません");
+        m.put("pex.list.entry", "§e• {0} {1}§f - {2}");
+        m.put("pex.list.footer", "§b========================================");
+        m.put("pex.footer", "§b================================");
+        m.put("pex.metrics.header", "§b========== メトリクス ==========");
+        m.put("pex.metrics.entry", "§e• §f{0}");
+        m.put("pex.metrics.empty", "§c記録されたメトリクスがありません");
+        m.put("pex.profile.header", "§b========== プロファイル（直近{0} / 平均 MSPT {1}ms）==========");
+        m.put("pex.profile.empty", "§c計測データがありません");
+        m.put("pex.profile.entry", "§e• {0} §f{1}% §7({2}ms/tick){3}");
+        m.put("pex.profile.alloc", " §7{0}KB/tick");
+        m.put("pex.profile.total", "§f合計: §e{0}%§f（pexsurvival が MSPT に占める割合）");
+        m.put("pex.stall.header", "§b========== 停滞 #{0}（{1} {2} {3}ms{4}）==========");
+        m.put("pex.stall.unfinished", " 以上");
+        m.put("pex.stall.hottest", "§f最多フレーム: §e{0}");
+        m.put("pex.stall.caller", "§f呼び出し元: §e{0}");
+        m.put("pex.stall.frame", "§7  at {0}");
+        m.put("pex.bench.header", "§b========== ベンチマーク: {0}（{1} ティック）==========");
+        m.put("pex.bench.ops", "§f操作数: §e{0}/tick §7(指定 {1})");
+        m.put("pex.bench.mspt", "§fMSPT: §e{0}ms → {1}ms §7({2}ms, p95 {3}ms → {4}ms)");
+        m.put("pex.bench.feature", "§f機能の処理時間: §e{0}ms/tick");
+        m.put("pex.bench.entry", "§e• {0} §f{1}ms/tick §7{2}KB/tick");
+        m.put("pex.stalls.header", "§b========== メインスレッドの停滞 ==========");
+        m.put("pex.stalls.empty", "§a停滞は記録されていません");
+        m.put("pex.stalls.entry", "§e#{0} §7{1} §f{2} §c{3}ms{4} §7{5}");
+        m.put("pex.help.header", "§b========== /pex コマンドヘルプ ==========");
+        m.put("pex.help.toggle", "§e/pex toggle <機能名>§f - 機能を切り替え（有効/無効）");
+        m.put("pex.help.list", "§e/pex list§f - 登録済み機能一覧を表示");
+        m.put("pex.help.reload", "§e/pex reload <機能名>§f - 機能をリロード");
+        m.put("pex.help.metrics", "§e/pex metrics [絞り込み]§f - メトリクスを表示");
+        m.put("pex.help.profile", "§e/pex profile [1m|5m]§f - 機能ごとの MSPT 占有率を表示");
+        m.put("pex.help.jfr", "§e/pex jfr <start|stop>§f - JFR の記録を開始/書き出し");
+        m.put("pex.help.stalls", "§e/pex stalls [番号]§f - メインスレッドの停滞を表示");
+        m.put("pex.help.record", "§e/pex record <start|stop|status>§f - リプレイ用にイベントを記録");
+        m.put("pex.help.bench", "§e/pex bench <機能名> [ティック数] [操作数]§f - 専用ワールドで機能の負荷を計測");
+        m.put("pex.help.footer", "§b======================================");
+        return m;
     }
 
     @Override
     public String getUsage() {
-        return "/pex <toggle|list|reload>";
+        return "/pex <toggle|list|reload|metrics|profile|jfr|stalls|record|bench>";
+    }
+
+    // 補完はトライ木と FeatureRegistry（不変スナップショット）を読むだけなので非同期でも安全
+    @Override
+    public boolean isTabCompletionThreadSafe() {
+        return true;
+    }
+
+    // 候補は実行者によらないため、短時間キャッシュする
+    @Override
+    public long getTabCompletionCacheMillis() {
+        return 5000;
     }
 
     @Override
@@ -160,17 +574,26 @@ public class PexCommand extends BaseCommand {
 
         // サブコマンドの補完
         if (args.length == 1) {
-            List<String> subCommands = Arrays.asList("toggle", "list", "reload");
-            return CompletionUtils.filterBySimilarity(args[0], subCommands);
+            return SUB_COMMANDS.complete(args[0]);
         }
 
         // 機能名の補完（toggle と reload の第2引数）
         if (args.length == 2) {
             String subCommand = args[0].toLowerCase();
             
-            if ("toggle".equals(subCommand) || "reload".equals(subCommand)) {
-                List<String> featureNames = new ArrayList<>(featureManager.getFeatures().keySet());
-                return CompletionUtils.filterBySimilarity(args[1], featureNames);
+            if ("toggle".equals(subCommand) || "reload".equals(subCommand) || "metrics".equals(subCommand)
+                    || "bench".equals(subCommand)) {
+                // 前方一致の索引から引くだけ（コピーや類似度計算は行わない）
+                return featureManager.getRegistry().complete(args[1]);
+            }
+            if ("profile".equals(subCommand)) {
+                return PROFILE_WINDOWS.complete(args[1]);
+            }
+            if ("jfr".equals(subCommand)) {
+                return JFR_ACTIONS.complete(args[1]);
+            }
+            if ("record".equals(subCommand)) {
+                return RECORD_ACTIONS.complete(args[1]);
             }
         }
 
@@ -4,8 +4,10 @@ import org.bukkit.command.CommandSender;
 import org.pexserver.koukunn.pexsurvival.Core.Command.BaseCommand;
 import org.pexserver.koukunn.pexsurvival.Core.Command.CommandManager;
 import org.pexserver.koukunn.pexsurvival.Core.Command.PermissionLevel;
+import org.pexserver.koukunn.pexsurvival.Core.Message.Message;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -37,27 +39,48 @@ public class HelpCommand extends BaseCommand {
 
     @Override
     public boolean execute(CommandSender sender, String[] args) {
-        sender.sendMessage("§b========== PEX Survival コマンド一覧 ==========");
+        send(sender, "help.header");
 
+        // テンプレートはループの前に一度だけ引く
+        Message line = messages().get("help.entry", sender);
         for (BaseCommand cmd : commandManager.getCommands().values()) {
             // 実行者がそのコマンドを実行できるか確認（カスタム権限 or PermissionLevel）
             boolean canUse = cmd.getPermissionLevel().hasAccess(sender, cmd.getPermission());
             if (!canUse) continue; // 権限がなければ表示しない
 
             PermissionLevel permLevel = cmd.getPermissionLevel();
-            String permText = "§e[" + permLevel.getDescription() + "]";
-            sender.sendMessage("§f/" + cmd.getName() + " " + permText + " - " + cmd.getDescription());
+            sender.sendMessage(line.render(cmd.getName(), permLevel.getDescription(), cmd.getDescription()));
         }
 
-        sender.sendMessage("§b==========================================");
+        send(sender, "help.footer");
         return true;
     }
 
+    @Override
+    public Map<String, String> getMessages() {
+        return Map.of(
+                "help.header", "§b========== PEX Survival コマンド一覧 ==========",
+                "help.entry", "§f/{0} §e[{1}]§f - {2}",
+                "help.footer", "§b=========================================="
+        );
+    }
+
     @Override
     public String getUsage() {
         return "/pexhelp [ページ番号]";
     }
 
+    // ページ数はコマンド数から求めるだけなので非同期でも安全
+    @Override
+    public boolean isTabCompletionThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public long getTabCompletionCacheMillis() {
+        return 5000;
+    }
+
     @Override
     public List<String> getTabCompletions(CommandSender sender, String[] args) {
         if (args.length == 0) {
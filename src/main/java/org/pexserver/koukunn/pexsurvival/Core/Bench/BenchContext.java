@@ -0,0 +1,37 @@
+package org.pexserver.koukunn.pexsurvival.Core.Bench;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Random;
+
+/**
+ * 負荷を作るときに機能へ渡す情報
+ * @param world ベンチマーク専用のワールド（本番のワールドには触れないこと）
+ * @param origin 負荷をかける領域の起点（ワールドの地表。ここから size ブロック四方のチャンクは読み込み済み）
+ * @param size 負荷をかける領域の一辺（ブロック）
+ * @param intensity 1 ティックあたりの操作数の目安
+ * @param random シード固定の乱数
+ * @param player 実行したプレイヤー（コンソールから実行した場合は null）
+ */
+public record BenchContext(World world, Location origin, int size, int intensity, Random random, Player player) {
+
+    /**
+     * 領域内の i 番目の区画の地表の位置（区画は spacing ブロック間隔の格子で、一周したら先頭に戻る）
+     */
+    public Location cell(int i, int spacing) {
+        int perRow = Math.max(1, size / spacing);
+        int index = Math.floorMod(i, perRow * perRow);
+        return origin.clone().add((index % perRow) * spacing, 0, (index / perRow) * spacing);
+    }
+
+    /**
+     * プレイヤーとして実行されていることを要求します
+     * @throws IllegalStateException コンソールから実行された場合
+     */
+    public Player requirePlayer() {
+        if (player == null) throw new IllegalStateException("この機能のベンチマークはプレイヤーとして実行してください");
+        return player;
+    }
+}
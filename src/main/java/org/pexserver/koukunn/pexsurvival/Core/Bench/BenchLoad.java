@@ -0,0 +1,22 @@
+package org.pexserver.koukunn.pexsurvival.Core.Bench;
+
+/**
+ * /pex bench で機能にかける負荷
+ * Feature#createBenchLoad が返し、BenchRunner が計測中の毎ティック tick() を呼び出します
+ */
+public interface BenchLoad {
+
+    /**
+     * 1 ティック分の負荷をかけます
+     * @param tick 計測開始からのティック数
+     * @return 行った操作の数（伐採の起点・災害の実行・移動イベントなど）
+     */
+    int tick(int tick);
+
+    /**
+     * 計測終了時、ベンチマーク用ワールドを閉じる前に呼ばれます（生成したエンティティの削除や、プレイヤーの状態の復元など）
+     * そのワールドに対して登録したタスク（drain など）はここで止めてください
+     */
+    default void close() {
+    }
+}
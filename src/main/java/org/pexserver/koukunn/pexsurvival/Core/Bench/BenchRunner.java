@@ -0,0 +1,267 @@
+package org.pexserver.koukunn.pexsurvival.Core.Bench;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.GameRule;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldCreator;
+import org.bukkit.WorldType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.pexserver.koukunn.pexsurvival.Core.Feature.Feature;
+import org.pexserver.koukunn.pexsurvival.Core.Profiler.FeatureProfiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * /pex bench の実行
+ * 専用のワールド（pex_bench）で機能に一定の負荷をかけ、負荷をかける前後の MSPT と機能の処理時間を比べます。
+ * 本番のハードウェアと JVM の設定で計測するためのもので、同時に実行できるのは 1 つだけです。
+ *
+ * 流れ: ワールドとチャンクの準備 → 負荷の作成 → 負荷なしで BASELINE_TICKS 計測 → 負荷ありで指定ティック計測 → 後片付け
+ */
+public class BenchRunner implements Listener {
+
+    public static final String WORLD_NAME = "pex_bench";
+    /** 負荷をかける領域の一辺（ブロック） */
+    private static final int AREA = 128;
+    /** 負荷なしで計測するティック数 */
+    private static final int BASELINE_TICKS = 100;
+
+    private final Plugin plugin;
+    private final FeatureProfiler profiler;
+    private Run current;
+
+    public BenchRunner(Plugin plugin, FeatureProfiler profiler) {
+        this.plugin = plugin;
+        this.profiler = profiler;
+    }
+
+    /**
+     * 実行中かどうか
+     */
+    public boolean isRunning() {
+        return current != null;
+    }
+
+    /**
+     * ベンチマークを開始します（メインスレッドから呼び出してください）
+     * @param feature 対象の機能
+     * @param ticks 負荷をかけるティック数
+     * @param intensity 1 ティックあたりの操作数の目安
+     * @param player 実行したプレイヤー（コンソールなら null）
+     * @param done 完了時にメインスレッドで呼ばれる
+     * @throws IllegalStateException 実行中の場合、機能が対応していない場合、負荷を作れなかった場合
+     */
+    public void start(Feature feature, int ticks, int intensity, Player player, Consumer<Result> done) {
+        if (current != null) throw new IllegalStateException("既にベンチマークを実行中です");
+        World world = prepareWorld();
+        Location origin = new Location(world, 0, world.getHighestBlockYAt(0, 0) + 1, 0);
+        BenchContext context = new BenchContext(world, origin, AREA, intensity, new Random(42), player);
+        BenchLoad load;
+        try {
+            load = feature.createBenchLoad(context);
+        } catch (RuntimeException e) {
+            releaseWorld(world);
+            throw e;
+        }
+        if (load == null) {
+            releaseWorld(world);
+            throw new IllegalStateException(feature.getFeatureName() + " はベンチマークに対応していません");
+        }
+        Run run = new Run(feature.getFeatureName().toLowerCase(), world, load, ticks, intensity, done);
+        current = run;
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        run.task = Bukkit.getScheduler().runTaskTimer(plugin, run::tick, 1L, 1L);
+    }
+
+    /**
+     * 実行中であれば結果を出さずに中止します（プラグイン無効化時）
+     */
+    public void cancel() {
+        Run run = current;
+        if (run == null) return;
+        finish(run);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(ServerTickEndEvent event) {
+        Run run = current;
+        if (run == null || run.phaseTick < 0) return;
+        // このティックで run.tick() が実行済みのときだけ記録する
+        if (run.measuring) {
+            run.record(event.getTickDuration());
+            run.measuring = false;
+        }
+        if (run.done()) {
+            Result result = run.result();
+            finish(run);
+            run.done.accept(result);
+        }
+    }
+
+    private void finish(Run run) {
+        current = null;
+        HandlerList.unregisterAll(this);
+        if (run.task != null) run.task.cancel();
+        try {
+            run.load.close();
+        } catch (RuntimeException e) {
+            plugin.getLogger().warning("ベンチマークの後片付けに失敗しました: " + e.getMessage());
+        }
+        releaseWorld(run.world);
+    }
+
+    /**
+     * 専用ワールドを用意し、負荷をかける領域のチャンクを読み込んでおく（計測中に生成が走らないように）
+     */
+    private World prepareWorld() {
+        World world = Bukkit.getWorld(WORLD_NAME);
+        if (world == null) {
+            world = new WorldCreator(WORLD_NAME).type(WorldType.FLAT).generateStructures(false).createWorld();
+            if (world == null) throw new IllegalStateException("ベンチマーク用のワールドを作成できませんでした");
+            world.setGameRule(GameRule.DO_MOB_SPAWNING, false);
+            world.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, false);
+            world.setGameRule(GameRule.DO_WEATHER_CYCLE, false);
+        }
+        for (int cx = -1; cx <= AREA / 16; cx++) {
+            for (int cz = -1; cz <= AREA / 16; cz++) {
+                world.getChunkAt(cx, cz).addPluginChunkTicket(plugin);
+            }
+        }
+        return world;
+    }
+
+    private void releaseWorld(World world) {
+        world.removePluginChunkTickets(plugin);
+        // 誰もいなければ保存せずに閉じる（ブロックの変更は破棄される）
+        if (world.getPlayers().isEmpty()) {
+            Bukkit.unloadWorld(world, false);
+        }
+    }
+
+    /**
+     * 実行中のベンチマーク
+     */
+    private final class Run {
+        final String feature;
+        final World world;
+        final BenchLoad load;
+        final int ticks;
+        final int intensity;
+        final Consumer<Result> done;
+        BukkitTask task;
+
+        // 負の値は開始前、0..BASELINE_TICKS-1 は負荷なし、以降は負荷あり
+        int phaseTick = -1;
+        boolean measuring = false;
+        long operations = 0;
+        final double[] baseline = new double[BASELINE_TICKS];
+        final double[] loaded;
+        Map<String, FeatureProfiler.Entry> before = Map.of();
+
+        Run(String feature, World world, BenchLoad load, int ticks, int intensity, Consumer<Result> done) {
+            this.feature = feature;
+            this.world = world;
+            this.load = load;
+            this.ticks = ticks;
+            this.intensity = intensity;
+            this.done = done;
+            this.loaded = new double[ticks];
+        }
+
+        void tick() {
+            phaseTick++;
+            if (phaseTick == BASELINE_TICKS) before = snapshot();
+            if (phaseTick >= BASELINE_TICKS && phaseTick < BASELINE_TICKS + ticks) {
+                operations += load.tick(phaseTick - BASELINE_TICKS);
+            }
+            measuring = true;
+        }
+
+        void record(double mspt) {
+            if (phaseTick < BASELINE_TICKS) baseline[phaseTick] = mspt;
+            else if (phaseTick < BASELINE_TICKS + ticks) loaded[phaseTick - BASELINE_TICKS] = mspt;
+        }
+
+        boolean done() {
+            return phaseTick >= BASELINE_TICKS + ticks - 1;
+        }
+
+        Result result() {
+            Map<String, FeatureProfiler.Entry> after = snapshot();
+            List<Breakdown> breakdown = new ArrayList<>();
+            double featureMicros = 0;
+            for (Map.Entry<String, FeatureProfiler.Entry> entry : after.entrySet()) {
+                String name = entry.getKey();
+                if (!name.equals(feature) && !name.startsWith(feature + "/")) continue;
+                FeatureProfiler.Entry prev = before.get(name);
+                long nanos = entry.getValue().nanos() - (prev != null ? prev.nanos() : 0);
+                long bytes = entry.getValue().bytes() - (prev != null ? prev.bytes() : 0);
+                if (nanos <= 0) continue;
+                featureMicros += nanos / 1e3 / ticks;
+                breakdown.add(new Breakdown(name, nanos / 1e3 / ticks, (double) bytes / ticks));
+            }
+            breakdown.sort((a, b) -> Double.compare(b.microsPerTick(), a.microsPerTick()));
+            return new Result(feature, ticks, intensity, (double) operations / ticks,
+                    Mspt.of(baseline), Mspt.of(loaded), featureMicros, List.copyOf(breakdown));
+        }
+
+        private Map<String, FeatureProfiler.Entry> snapshot() {
+            Map<String, FeatureProfiler.Entry> map = new HashMap<>();
+            for (FeatureProfiler.Entry entry : profiler.totals().entries()) {
+                map.put(entry.name(), entry);
+            }
+            return map;
+        }
+    }
+
+    /**
+     * ベンチマークの結果
+     * @param feature 機能名
+     * @param ticks 負荷をかけたティック数
+     * @param intensity 指定した 1 ティックあたりの操作数
+     * @param operationsPerTick 実際に行った 1 ティックあたりの操作数
+     * @param baseline 負荷なしの MSPT
+     * @param loaded 負荷ありの MSPT
+     * @param featureMicrosPerTick 機能の 1 ティックあたりの処理時間（FeatureProfiler の自己時間）
+     * @param breakdown 計測区間ごとの内訳（災害の種類など）
+     */
+    public record Result(String feature, int ticks, int intensity, double operationsPerTick,
+                         Mspt baseline, Mspt loaded, double featureMicrosPerTick, List<Breakdown> breakdown) {
+    }
+
+    /**
+     * 計測区間ごとの内訳
+     */
+    public record Breakdown(String name, double microsPerTick, double bytesPerTick) {
+    }
+
+    /**
+     * MSPT の分布（ミリ秒）
+     */
+    public record Mspt(double mean, double p95, double max) {
+
+        static Mspt of(double[] values) {
+            if (values.length == 0) return new Mspt(0, 0, 0);
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            double sum = 0;
+            for (double v : sorted) sum += v;
+            int p95 = Math.max(0, (int) Math.ceil(sorted.length * 0.95) - 1);
+            return new Mspt(sum / sorted.length, sorted[p95], sorted[sorted.length - 1]);
+        }
+    }
+}
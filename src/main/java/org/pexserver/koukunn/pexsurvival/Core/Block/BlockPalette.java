@@ -0,0 +1,74 @@
+package org.pexserver.koukunn.pexsurvival.Core.Block;
+
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * ブロックの候補と、あらかじめ作成した BlockData の組
+ * Material#createBlockData を設置のたびに呼ばずに済むよう、作成時に一度だけ作っておきます
+ * 返す BlockData は共有されるため、変更しないでください（setBlockData に渡すのは問題ありません）
+ */
+public final class BlockPalette {
+
+    private final Material[] materials;
+    private final BlockData[] data;
+
+    private BlockPalette(Material[] materials, BlockData[] data) {
+        this.materials = materials;
+        this.data = data;
+    }
+
+    /**
+     * 指定したブロックのパレットを作成します（BlockData を作れないものは除く）
+     */
+    public static BlockPalette of(Material... materials) {
+        return of(List.of(materials));
+    }
+
+    /**
+     * 指定したブロックのパレットを作成します（BlockData を作れないものは除く）
+     */
+    public static BlockPalette of(List<Material> materials) {
+        List<Material> kept = new ArrayList<>(materials.size());
+        List<BlockData> data = new ArrayList<>(materials.size());
+        for (Material m : materials) {
+            try {
+                data.add(m.createBlockData());
+                kept.add(m);
+            } catch (RuntimeException ignored) {
+                // ブロックとして設置できないものは除外
+            }
+        }
+        return new BlockPalette(kept.toArray(new Material[0]), data.toArray(new BlockData[0]));
+    }
+
+    public int size() {
+        return materials.length;
+    }
+
+    public boolean isEmpty() {
+        return materials.length == 0;
+    }
+
+    public Material material(int index) {
+        return materials[index];
+    }
+
+    /**
+     * 共有の BlockData（変更しないこと）
+     */
+    public BlockData data(int index) {
+        return data[index];
+    }
+
+    /**
+     * ランダムに選んだ BlockData（変更しないこと）
+     */
+    public BlockData random(Random random) {
+        return data[random.nextInt(data.length)];
+    }
+}
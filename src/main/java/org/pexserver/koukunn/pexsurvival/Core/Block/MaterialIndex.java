@@ -0,0 +1,173 @@
+package org.pexserver.koukunn.pexsurvival.Core.Block;
+
+import org.bukkit.Material;
+import org.bukkit.Tag;
+import org.bukkit.block.data.BlockData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ブロック・アイテムの分類表（全機能で共有）
+ * 初回使用時に Tag と Material から一度だけ作成し、Material の ordinal を添字にしたビット列で持ちます
+ * 判定は配列の読み出し 1 回で済むため、ホットなリスナーからそのまま呼び出せます
+ */
+public final class MaterialIndex {
+
+    public static final int LOG = 1;
+    public static final int ORE = 1 << 1;
+    // 災害などで壊したり置き換えたりしないブロック（岩盤・ポータル・黒曜石など）
+    public static final int UNBREAKABLE = 1 << 2;
+    public static final int FLAMMABLE = 1 << 3;
+    public static final int REPLACEABLE = 1 << 4;
+    // チェスト・シュルカーボックス・ホッパーなど中身を持つブロック
+    public static final int CONTAINER = 1 << 5;
+    public static final int AXE = 1 << 6;
+    public static final int PICKAXE = 1 << 7;
+    // 輪郭の無いブロック（空気・液体）。視線判定（getTargetBlockExact）で素通りする
+    public static final int NO_OUTLINE = 1 << 8;
+
+    private MaterialIndex() {}
+
+    // 初回アクセス時に一度だけ作成される
+    private static final class Holder {
+        static final short[] FLAGS = buildFlags();
+    }
+
+    // BlockData の作成を伴うので分類表とは別に遅延させる
+    private static final class RandomBlocks {
+        static final BlockPalette PALETTE = buildRandomBlocks();
+    }
+
+    /**
+     * 指定した分類のいずれかに当てはまるか
+     * @param material 対象（null は false）
+     * @param flags LOG | ORE などの組み合わせ
+     */
+    public static boolean is(Material material, int flags) {
+        return material != null && (Holder.FLAGS[material.ordinal()] & flags) != 0;
+    }
+
+    public static boolean isLog(Material material) {
+        return is(material, LOG);
+    }
+
+    public static boolean isOre(Material material) {
+        return is(material, ORE);
+    }
+
+    public static boolean isUnbreakable(Material material) {
+        return is(material, UNBREAKABLE);
+    }
+
+    public static boolean isFlammable(Material material) {
+        return is(material, FLAMMABLE);
+    }
+
+    public static boolean isReplaceable(Material material) {
+        return is(material, REPLACEABLE);
+    }
+
+    public static boolean isContainer(Material material) {
+        return is(material, CONTAINER);
+    }
+
+    public static boolean isAxe(Material material) {
+        return is(material, AXE);
+    }
+
+    public static boolean isPickaxe(Material material) {
+        return is(material, PICKAXE);
+    }
+
+    public static boolean isNoOutline(Material material) {
+        return is(material, NO_OUTLINE);
+    }
+
+    /**
+     * ランダムに置き換えてよいブロックのパレット
+     * （液体・ポータル・岩盤・コンテナ・バリアなどを除いたすべてのブロック）
+     */
+    public static BlockPalette randomBlocks() {
+        return RandomBlocks.PALETTE;
+    }
+
+    private static short[] buildFlags() {
+        Material[] all = Material.values();
+        short[] flags = new short[all.length];
+        mark(flags, Tag.LOGS, LOG);
+        mark(flags, Tag.COAL_ORES, ORE);
+        mark(flags, Tag.IRON_ORES, ORE);
+        mark(flags, Tag.COPPER_ORES, ORE);
+        mark(flags, Tag.GOLD_ORES, ORE);
+        mark(flags, Tag.DIAMOND_ORES, ORE);
+        mark(flags, Tag.EMERALD_ORES, ORE);
+        mark(flags, Tag.LAPIS_ORES, ORE);
+        mark(flags, Tag.REDSTONE_ORES, ORE);
+        flags[Material.NETHER_QUARTZ_ORE.ordinal()] |= ORE;
+        mark(flags, Tag.REPLACEABLE, REPLACEABLE);
+        mark(flags, Tag.SHULKER_BOXES, CONTAINER);
+        mark(flags, Tag.ITEMS_AXES, AXE);
+        mark(flags, Tag.ITEMS_PICKAXES, PICKAXE);
+        for (Material m : new Material[] {Material.BEDROCK, Material.END_PORTAL, Material.END_PORTAL_FRAME,
+                Material.END_GATEWAY, Material.NETHER_PORTAL, Material.OBSIDIAN, Material.CRYING_OBSIDIAN, Material.BARRIER}) {
+            flags[m.ordinal()] |= UNBREAKABLE;
+        }
+        for (Material m : new Material[] {Material.WATER, Material.LAVA, Material.BUBBLE_COLUMN}) {
+            flags[m.ordinal()] |= NO_OUTLINE;
+        }
+
+        for (Material m : all) {
+            if (m.isLegacy() || !m.isBlock()) continue;
+            int i = m.ordinal();
+            if (m.isAir()) flags[i] |= REPLACEABLE | NO_OUTLINE;
+            if (m.isBurnable()) flags[i] |= FLAMMABLE;
+            // コマンドブロックやストラクチャーブロックなど、サバイバルで壊せないもの
+            if (m.getHardness() < 0) flags[i] |= UNBREAKABLE;
+            String name = m.name();
+            if (name.contains("CHEST") || name.contains("HOPPER") || name.contains("BARREL")) flags[i] |= CONTAINER;
+        }
+        return flags;
+    }
+
+    private static void mark(short[] flags, Tag<Material> tag, int flag) {
+        for (Material m : tag.getValues()) {
+            flags[m.ordinal()] |= flag;
+        }
+    }
+
+    private static BlockPalette buildRandomBlocks() {
+        List<Material> list = new ArrayList<>();
+        for (Material m : Material.values()) {
+            if (m.isLegacy() || !m.isBlock() || m.isAir()) continue;
+            if (is(m, UNBREAKABLE | CONTAINER)) continue;
+            String name = m.name();
+            if (name.contains("PORTAL") || name.contains("WATER") || name.contains("LAVA")) continue;
+            list.add(m);
+        }
+        return BlockPalette.of(list);
+    }
+
+    /**
+     * 単体のブロックの共有 BlockData（初回のみ作成）
+     * 共有インスタンスなので変更しないこと
+     */
+    public static BlockData data(Material material) {
+        return Palettes.data(material);
+    }
+
+    // 単体の BlockData の遅延キャッシュ（必要になったものだけ作る）
+    private static final class Palettes {
+        private static final BlockData[] DATA = new BlockData[Material.values().length];
+
+        static BlockData data(Material material) {
+            BlockData cached = DATA[material.ordinal()];
+            if (cached == null) {
+                // メインスレッドから使う前提なので同期しない
+                cached = material.createBlockData();
+                DATA[material.ordinal()] = cached;
+            }
+            return cached;
+        }
+    }
+}
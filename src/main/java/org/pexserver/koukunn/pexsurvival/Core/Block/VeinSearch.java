@@ -0,0 +1,154 @@
+package org.pexserver.koukunn.pexsurvival.Core.Block;
+
+import java.util.Arrays;
+
+/**
+ * 連結したブロックの探索（一括伐採・鉱脈破壊用）
+ * 座標は long 1 個に詰めて扱い、訪問済みの集合も long のオープンアドレス法で持つため、
+ * Block オブジェクトや HashSet のエントリを探索ブロックごとに作りません。
+ * ワールドに依存しないので、サーバー無しでもベンチマークできます。
+ */
+public final class VeinSearch {
+
+    /**
+     * 座標のブロックが探索対象かを判定する
+     */
+    @FunctionalInterface
+    public interface Matcher {
+        boolean test(int x, int y, int z);
+    }
+
+    private VeinSearch() {}
+
+    /**
+     * 起点から 26 近傍で連結した対象ブロックを深さ優先で探します
+     * @param x 起点 X
+     * @param y 起点 Y
+     * @param z 起点 Z
+     * @param limit 探索するブロック数の上限（起点を含む）
+     * @param matcher 対象ブロックの判定
+     * @return 見つかったブロックの座標（pack 済み、探索順、起点は含まない）
+     */
+    public static long[] search(int x, int y, int z, int limit, Matcher matcher) {
+        LongSet seen = new LongSet(Math.max(16, limit * 2));
+        long[] stack = new long[64];
+        int top = 0;
+        long[] found = new long[Math.min(limit, 64)];
+        int count = 0;
+
+        long origin = pack(x, y, z);
+        stack[top++] = origin;
+        seen.add(origin);
+        int visited = 0;
+
+        while (top > 0 && visited < limit) {
+            long cur = stack[--top];
+            visited++;
+            if (cur != origin) {
+                if (count == found.length) found = Arrays.copyOf(found, Math.min(limit, found.length * 2));
+                found[count++] = cur;
+            }
+            int cx = unpackX(cur);
+            int cy = unpackY(cur);
+            int cz = unpackZ(cur);
+            for (int dx = -1; dx <= 1; dx++) for (int dy = -1; dy <= 1; dy++) for (int dz = -1; dz <= 1; dz++) {
+                if (dx == 0 && dy == 0 && dz == 0) continue;
+                int nx = cx + dx;
+                int ny = cy + dy;
+                int nz = cz + dz;
+                long next = pack(nx, ny, nz);
+                if (seen.contains(next)) continue;
+                if (matcher.test(nx, ny, nz)) {
+                    seen.add(next);
+                    if (top == stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                    stack[top++] = next;
+                }
+            }
+        }
+        return count == found.length ? found : Arrays.copyOf(found, count);
+    }
+
+    /**
+     * 座標を long に詰める（X/Z は 26 ビット、Y は 12 ビット。バニラの BlockPos と同じ配置）
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    public static int unpackX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    public static int unpackY(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+
+    public static int unpackZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+
+    /**
+     * long のオープンアドレス法のハッシュ集合（探索 1 回分だけ使う）
+     */
+    private static final class LongSet {
+        // 空きを表す値（この値になる座標もありうるので、その有無は別に持つ）
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] table;
+        private int size;
+        private boolean hasEmptyKey;
+
+        LongSet(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(4, expected) - 1) << 1;
+            table = new long[capacity];
+            Arrays.fill(table, EMPTY);
+        }
+
+        boolean contains(long key) {
+            if (key == EMPTY) return hasEmptyKey;
+            int mask = table.length - 1;
+            int i = mix(key) & mask;
+            while (true) {
+                long v = table[i];
+                if (v == EMPTY) return false;
+                if (v == key) return true;
+                i = (i + 1) & mask;
+            }
+        }
+
+        void add(long key) {
+            if (key == EMPTY) {
+                hasEmptyKey = true;
+                return;
+            }
+            if ((size + 1) * 2 > table.length) grow();
+            int mask = table.length - 1;
+            int i = mix(key) & mask;
+            while (true) {
+                long v = table[i];
+                if (v == EMPTY) {
+                    table[i] = key;
+                    size++;
+                    return;
+                }
+                if (v == key) return;
+                i = (i + 1) & mask;
+            }
+        }
+
+        private void grow() {
+            long[] old = table;
+            table = new long[old.length * 2];
+            Arrays.fill(table, EMPTY);
+            size = 0;
+            for (long v : old) {
+                if (v != EMPTY) add(v);
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -1,8 +1,7 @@
 package org.pexserver.koukunn.pexsurvival.Core.Command;
 
-// Component is not used directly; use LegacyComponentSerializer for legacy-formatted messages
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.command.CommandSender;
+import org.pexserver.koukunn.pexsurvival.Core.Message.MessageCatalog;
 import java.util.*;
 
 /**
@@ -11,6 +10,9 @@ import java.util.*;
  */
 public abstract class BaseCommand {
 
+    // CommandManager への登録時に設定される（未登録の場合は初回使用時に既定のみのカタログを作る）
+    private volatile MessageCatalog messages;
+
     /**
      * コマンド名を返します
      * @return コマンド名
@@ -67,6 +69,69 @@ public abstract class BaseCommand {
         return new ArrayList<>();
     }
 
+    /**
+     * getTabCompletions をメインスレッド以外から呼び出してよいかを返します
+     * true を返す場合、getTabCompletions は次の条件を満たす必要があります:
+     * - ワールド・エンティティ・ブロックなど Bukkit のゲーム状態に触れない
+     * - 読み取るのは不変のオブジェクトか volatile で公開されたスナップショットのみ
+     * - 共有する可変状態を書き換えない
+     * true の場合、プレイヤーの補完は AsyncTabCompleteEvent で非同期に処理されます
+     * @return 非同期で補完してよい場合true（デフォルトは false = メインスレッドで補完）
+     */
+    public boolean isTabCompletionThreadSafe() {
+        return false;
+    }
+
+    /**
+     * Tab補完の結果をキャッシュする期間を返します
+     * キャッシュは（コマンド, 引数の位置, 入力済みの引数）ごとに共有されるため、
+     * 結果が実行者によって変わる場合は 0 を返してください（権限チェックはキャッシュより前に行われます）
+     * @return キャッシュ期間（ミリ秒）、0 以下ならキャッシュしない
+     */
+    public long getTabCompletionCacheMillis() {
+        return 0;
+    }
+
+    /**
+     * このコマンドが使うメッセージの既定テンプレートを返します
+     * 登録時にカタログへ定義され、PEXConfig/messages で上書きできます
+     * テンプレートは § 書式コードと {0} {1} ... のプレースホルダを使えます
+     * @return キー -> テンプレート
+     */
+    public Map<String, String> getMessages() {
+        return Map.of();
+    }
+
+    /**
+     * メッセージカタログを設定します（CommandManager が登録時に呼び出す）
+     */
+    void setMessageCatalog(MessageCatalog messages) {
+        this.messages = messages;
+    }
+
+    /**
+     * メッセージカタログを取得
+     */
+    protected MessageCatalog messages() {
+        MessageCatalog current = messages;
+        if (current == null) {
+            current = new MessageCatalog();
+            current.defineAll(getMessages());
+            messages = current;
+        }
+        return current;
+    }
+
+    /**
+     * カタログのメッセージを送信
+     * @param sender 送信先
+     * @param key メッセージキー
+     * @param args プレースホルダに埋め込む値
+     */
+    protected void send(CommandSender sender, String key, Object... args) {
+        messages().send(sender, key, args);
+    }
+
     /**
      * 権限を持っているかチェック
      * カスタム権限 → 権限レベル の順で確認します
@@ -83,7 +148,7 @@ public abstract class BaseCommand {
      * @param message メッセージ
      */
     protected void sendError(CommandSender sender, String message) {
-        sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§c[エラー] " + message));
+        send(sender, "command.error", message);
     }
 
     /**
@@ -92,7 +157,7 @@ public abstract class BaseCommand {
      * @param message メッセージ
      */
     protected void sendSuccess(CommandSender sender, String message) {
-        sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§a[成功] " + message));
+        send(sender, "command.success", message);
     }
 
     /**
@@ -101,6 +166,6 @@ public abstract class BaseCommand {
      * @param message メッセージ
      */
     protected void sendInfo(CommandSender sender, String message) {
-        sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§b[情報] " + message));
+        send(sender, "command.info", message);
     }
 }
@@ -107,6 +107,17 @@ package org.pexserver.koukunn.pexsurvival.Core.Command;
  * protected void sendInfo(CommandSender sender, String message)
  *   - 情報メッセージ送信（青色）
  * 
+ * ===== Tab補完（非同期・キャッシュ） =====
+ * 
+ * public boolean isTabCompletionThreadSafe()
+ *   - true にするとプレイヤーの補完を AsyncTabCompleteEvent で非同期に処理（メインスレッドを使わない）
+ *   - getTabCompletions では不変のデータ（CompletionTrie・FeatureRegistry など）だけを読むこと
+ *   - ワールド・エンティティ・ブロックに触れる補完は false のままにする
+ * 
+ * public long getTabCompletionCacheMillis()
+ *   - 0 より大きいと（コマンド, 引数の位置, 入力済みの引数）ごとに結果をキャッシュ
+ *   - 実行者によって候補が変わる場合は 0 のままにする
+ * 
  * ===== 完全な実装例 =====
  * 
  * public class StatusCommand extends BaseCommand {
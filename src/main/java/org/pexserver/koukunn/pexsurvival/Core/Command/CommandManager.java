@@ -1,44 +1,69 @@
 package org.pexserver.koukunn.pexsurvival.Core.Command;
 
-import org.bukkit.Bukkit;
-import org.bukkit.command.Command;
-import org.bukkit.command.CommandMap;
+import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import io.papermc.paper.command.brigadier.CommandSourceStack;
+import io.papermc.paper.command.brigadier.Commands;
+import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
-// Component import not required; using LegacyComponentSerializer for legacy-formatted messages
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.pexserver.koukunn.pexsurvival.Core.Message.MessageCatalog;
 
-import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * コマンドを動的に登録・管理するマネージャー
  * Paper 1.21+ 対応
+ * コマンドは Paper の Brigadier API（LifecycleEvents.COMMANDS）で登録します
+ * スレッドセーフなコマンドの Tab補完は AsyncTabCompleteEvent で非同期に処理し、メインスレッドを使いません
  */
-public class CommandManager {
+public class CommandManager implements Listener {
+
+    // 引数全体を受け取る Brigadier 引数の名前
+    private static final String ARGS = "args";
 
     private final Plugin plugin;
-    private final Map<String, BaseCommand> commands = new HashMap<>();
-    private final CommandMap commandMap;
+    // 非同期の補完スレッドからも参照するため ConcurrentHashMap
+    private final Map<String, BaseCommand> commands = new ConcurrentHashMap<>();
+    // 登録時に一度だけ組み立てた Brigadier ノード（COMMANDS イベントのたびに使い回す）
+    private final Map<String, LiteralCommandNode<CommandSourceStack>> nodes = new ConcurrentHashMap<>();
+    private final CompletionCache completionCache = new CompletionCache();
+    private final PermissionCache permissionCache = new PermissionCache();
+    private final MessageCatalog messages;
+    // 名前空間付きのラベル（例: pexsurvival:pex）の接頭辞
+    private final String namespacePrefix;
 
     public CommandManager(Plugin plugin) {
-        this.plugin = plugin;
-        this.commandMap = getCommandMap();
+        this(plugin, new MessageCatalog());
     }
 
     /**
-     * Bukkit の CommandMap を取得
-     * @return CommandMap インスタンス
+     * コマンドの登録は onEnable 中に行ってください（COMMANDS イベントはサーバー起動完了時と /reload 時に発火します）
+     * @param messages コマンドが使うメッセージカタログ
      */
-    private CommandMap getCommandMap() {
-        try {
-            Field field = Bukkit.getServer().getClass().getDeclaredField("commandMap");
-            field.setAccessible(true);
-            return (CommandMap) field.get(Bukkit.getServer());
-        } catch (Exception e) {
-            plugin.getLogger().warning("CommandMap の取得に失敗しました: " + e.getMessage());
-            return null;
-        }
+    public CommandManager(Plugin plugin, MessageCatalog messages) {
+        this.plugin = plugin;
+        this.messages = messages;
+        this.namespacePrefix = plugin.getName().toLowerCase() + ":";
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        plugin.getServer().getPluginManager().registerEvents(permissionCache, plugin);
+        plugin.getLifecycleManager().registerEventHandler(LifecycleEvents.COMMANDS, event -> {
+            Commands registrar = event.registrar();
+            for (Map.Entry<String, LiteralCommandNode<CommandSourceStack>> entry : nodes.entrySet()) {
+                registrar.register(entry.getValue(), commands.get(entry.getKey()).getDescription());
+            }
+        });
     }
 
     /**
@@ -90,11 +115,13 @@ public class CommandManager {
     private void registerCommand(BaseCommand command) {
         String commandName = command.getName();
         commands.put(commandName.toLowerCase(), command);
+        // メッセージの既定テンプレートをここで一度だけ解析する
+        messages.defineAll(command.getMessages());
+        command.setMessageCatalog(messages);
 
-        // Bukkit CommandMap に登録
-        if (commandMap != null) {
-            commandMap.register(plugin.getName(), new CommandWrapper(commandName, command, plugin));
-        }
+        // Brigadier ノードを組み立てておく（登録自体は COMMANDS イベントで行う）
+        nodes.put(commandName.toLowerCase(), buildNode(command));
+        completionCache.clear();
 
         plugin.getLogger().info("コマンド登録: /" + commandName);
     }
@@ -117,58 +144,131 @@ public class CommandManager {
     }
 
     /**
-     * Bukkit Command のラッパークラス
+     * メッセージカタログを取得
+     */
+    public MessageCatalog getMessages() {
+        return messages;
+    }
+
+    /**
+     * Tab補完のキャッシュを破棄します（候補の元になる状態が変わったときに呼び出す）
+     */
+    public void invalidateCompletions() {
+        completionCache.clear();
+    }
+
+    /**
+     * 指定プレイヤーの権限チェック結果のキャッシュを破棄します
+     * 権限を変更した後に呼び出し、必要なら Player#updateCommands でコマンドツリーを再送信してください
      */
-    private static class CommandWrapper extends Command {
-        private final BaseCommand command;
-        private final Plugin plugin;
+    public void invalidatePermissions(Player player) {
+        permissionCache.invalidate(player.getUniqueId());
+    }
 
-        public CommandWrapper(String name, BaseCommand command, Plugin plugin) {
-            super(name);
-            this.command = command;
-            this.plugin = plugin;
-            this.setDescription(command.getDescription());
-            this.setUsage(command.getUsage());
+    /**
+     * すべてのプレイヤーの権限チェック結果のキャッシュを破棄します
+     */
+    public void invalidatePermissions() {
+        permissionCache.invalidateAll();
+    }
+
+    /**
+     * プレイヤーの Tab補完を非同期スレッドで処理します
+     * スレッドセーフと宣言されたコマンドのみ対象。それ以外は従来どおりメインスレッドの tabComplete に任せます
+     */
+    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
+    public void onAsyncTabComplete(AsyncTabCompleteEvent event) {
+        if (event.isHandled() || !event.isCommand()) return;
+
+        String buffer = event.getBuffer();
+        int start = buffer.startsWith("/") ? 1 : 0;
+        int space = buffer.indexOf(' ', start);
+        // コマンド名自体の補完はサーバーに任せる
+        if (space < 0) return;
+
+        String label = buffer.substring(start, space).toLowerCase();
+        if (label.startsWith(namespacePrefix)) {
+            label = label.substring(namespacePrefix.length());
         }
+        BaseCommand command = commands.get(label);
+        if (command == null || !command.isTabCompletionThreadSafe()) return;
 
-        @Override
-        public boolean testPermissionSilent(org.bukkit.command.CommandSender sender) {
-            // Brigadier / Bukkit の候補表示などはこのメソッドで権限チェックされることがあるため
-            // カスタム権限 (getPermission) がある場合はそれを優先し、無ければ PermissionLevel を利用する
-            PermissionLevel permLevel = command.getPermissionLevel();
-            return permLevel.hasAccess(sender, command.getPermission());
+        // Bukkit の引数分割と同じ（末尾の空引数を残す）
+        String[] args = buffer.substring(space + 1).split(" ", -1);
+        try {
+            event.setCompletions(new ArrayList<>(complete(command, event.getSender(), args)));
+            event.setHandled(true);
+        } catch (Exception e) {
+            // 失敗した場合は未処理のままにしてメインスレッドの補完に任せる
+            plugin.getLogger().warning("非同期Tab補完エラー: " + command.getName() + " (" + e.getMessage() + ")");
         }
+    }
 
-        @Override
-        public boolean execute(CommandSender sender, String commandLabel, String[] args) {
-            // 権限チェック（PermissionLevel + カスタム権限）
-            PermissionLevel permLevel = command.getPermissionLevel();
-            if (!permLevel.hasAccess(sender, command.getPermission())) {
-                sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§c権限がありません: " + permLevel.getDescription()));
-                return true;
-            }
+    /**
+     * 権限を確認してから補完候補を返します（キャッシュ可能なコマンドはキャッシュを使う）
+     * @return 補完候補（変更不可の場合がある）
+     */
+    private List<String> complete(BaseCommand command, CommandSender sender, String[] args) {
+        if (!permissionCache.test(sender, command)) {
+            return List.of();
+        }
 
-            // コマンド実行
-            try {
-                return command.execute(sender, args);
-            } catch (Exception e) {
-                plugin.getLogger().warning("コマンド実行エラー: " + command.getName());
-                e.printStackTrace();
-                sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize("§cコマンド実行中にエラーが発生しました"));
-                return true;
-            }
+        long ttl = command.getTabCompletionCacheMillis();
+        if (ttl <= 0) {
+            return command.getTabCompletions(sender, args);
+        }
+        String key = CompletionCache.key(command, args);
+        List<String> cached = completionCache.get(key);
+        if (cached != null) {
+            return cached;
         }
+        return completionCache.put(key, command.getTabCompletions(sender, args), ttl);
+    }
 
-        @Override
-        public List<String> tabComplete(CommandSender sender, String alias, String[] args) {
-            // 権限チェック
-            PermissionLevel permLevel = command.getPermissionLevel();
-            if (!permLevel.hasAccess(sender, command.getPermission())) {
-                return new ArrayList<>();
-            }
+    /**
+     * コマンドの Brigadier ノードを組み立てます
+     * /name と /name <引数...> の 2 段で、権限は requires（キャッシュ付き）で判定します
+     * 権限の無いコマンドはクライアントに送られるツリーから除かれます
+     */
+    private LiteralCommandNode<CommandSourceStack> buildNode(BaseCommand command) {
+        return Commands.literal(command.getName().toLowerCase())
+                .requires(source -> permissionCache.test(source.getSender(), command))
+                .executes(ctx -> execute(command, ctx.getSource().getSender(), new String[0]))
+                .then(Commands.argument(ARGS, StringArgumentType.greedyString())
+                        .suggests((ctx, builder) -> suggest(command, ctx, builder))
+                        .executes(ctx -> execute(command, ctx.getSource().getSender(),
+                                // Bukkit の実行時の分割と同じ（末尾の空引数は捨てる）
+                                StringArgumentType.getString(ctx, ARGS).split(" "))))
+                .build();
+    }
 
-            // コマンドのTab補完を呼び出し
-            return command.getTabCompletions(sender, args);
+    /**
+     * コマンドを実行します（権限は requires で確認済み）
+     * execute の戻り値は見ない（false を返すコマンドは自分でエラーや使用法を表示している）
+     */
+    private int execute(BaseCommand command, CommandSender sender, String[] args) {
+        try {
+            command.execute(sender, args);
+        } catch (Exception e) {
+            plugin.getLogger().warning("コマンド実行エラー: " + command.getName());
+            e.printStackTrace();
+            messages.send(sender, "command.failed");
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Brigadier の候補を返します（AsyncTabCompleteEvent で処理されなかった補完がここに来る）
+     * 候補は最後の引数の位置から提示する
+     */
+    private CompletableFuture<Suggestions> suggest(BaseCommand command, CommandContext<CommandSourceStack> ctx,
+                                                   SuggestionsBuilder builder) {
+        String remaining = builder.getRemaining();
+        String[] args = remaining.split(" ", -1);
+        SuggestionsBuilder last = builder.createOffset(builder.getStart() + remaining.lastIndexOf(' ') + 1);
+        for (String completion : complete(command, ctx.getSource().getSender(), args)) {
+            last.suggest(completion);
         }
+        return last.buildFuture();
     }
 }
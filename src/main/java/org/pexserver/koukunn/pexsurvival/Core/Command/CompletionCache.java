@@ -0,0 +1,69 @@
+package org.pexserver.koukunn.pexsurvival.Core.Command;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tab補完結果のキャッシュ
+ * キーは（コマンド名, 引数の位置, 入力済みの引数）で、有効期限と件数の上限を持ちます
+ * 非同期の補完スレッドとメインスレッドの両方から呼ばれるため、スレッドセーフです
+ */
+final class CompletionCache {
+
+    // これを超えたら期限切れを掃除し、それでも多ければ全消去する
+    private static final int MAX_ENTRIES = 1024;
+
+    private record Entry(List<String> completions, long expiresAt) {}
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * キャッシュキーを作成（引数の位置は引数の個数で表す）
+     */
+    static String key(BaseCommand command, String[] args) {
+        StringBuilder sb = new StringBuilder(command.getName().length() + 16);
+        sb.append(command.getName().toLowerCase()).append('\u0000').append(args.length);
+        for (String arg : args) {
+            sb.append('\u0000').append(arg.toLowerCase());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * キャッシュされた補完候補を取得
+     * @return 有効期限内の候補（変更不可）、無い場合は null
+     */
+    List<String> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) return null;
+        if (entry.expiresAt() - System.nanoTime() < 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.completions();
+    }
+
+    /**
+     * 補完候補をキャッシュする
+     * @param ttlMillis 有効期間（ミリ秒）
+     * @return 保存した候補（変更不可）
+     */
+    List<String> put(String key, List<String> completions, long ttlMillis) {
+        List<String> copy = List.copyOf(completions);
+        if (entries.size() >= MAX_ENTRIES) {
+            long now = System.nanoTime();
+            entries.values().removeIf(e -> e.expiresAt() - now < 0);
+            if (entries.size() >= MAX_ENTRIES) entries.clear();
+        }
+        entries.put(key, new Entry(copy, System.nanoTime() + ttlMillis * 1_000_000L));
+        return copy;
+    }
+
+    /**
+     * すべてのキャッシュを破棄
+     */
+    void clear() {
+        entries.clear();
+    }
+}
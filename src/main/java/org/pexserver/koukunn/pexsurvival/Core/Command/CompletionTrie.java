@@ -0,0 +1,108 @@
+package org.pexserver.koukunn.pexsurvival.Core.Command;
+
+import java.util.*;
+
+/**
+ * 変化の少ない候補（機能名・サブコマンド・マテリアル名など）の前方一致用トライ木
+ * 構築時に各ノードへ「その接頭辞に一致する候補（類似度の高い順）」を持たせておくため、
+ * 検索は入力の文字数ぶんノードを辿るだけで、類似度の計算もリストの確保も行いません。
+ * 構築後は不変なので、どのスレッドからでも安全に使えます。
+ */
+public final class CompletionTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root;
+    // 渡された順の候補（入力が空の場合に返す）
+    private final List<String> all;
+
+    private CompletionTrie(Node root, List<String> all) {
+        this.root = root;
+        this.all = all;
+    }
+
+    /**
+     * 候補からトライ木を作成します（大文字小文字は区別しない）
+     * 同じ接頭辞に一致する候補は短い順（= filterBySimilarity と同じ類似度順）、同じ長さなら渡した順に並びます
+     * @param candidates 候補
+     */
+    public static CompletionTrie of(Collection<String> candidates) {
+        List<String> all = List.copyOf(new LinkedHashSet<>(candidates));
+        List<String> ordered = new ArrayList<>(all);
+        // 前方一致した候補の類似度は長さの差だけで決まるので、長さ順に並べてから追加する（安定ソート）
+        ordered.sort(Comparator.comparingInt(String::length));
+
+        Builder root = new Builder();
+        for (String candidate : ordered) {
+            Builder node = root;
+            node.matches.add(candidate);
+            String lower = candidate.toLowerCase();
+            for (int i = 0; i < lower.length(); i++) {
+                node = node.children.computeIfAbsent(lower.charAt(i), c -> new Builder());
+                node.matches.add(candidate);
+            }
+        }
+        return new CompletionTrie(root.freeze(), all);
+    }
+
+    public static CompletionTrie of(String... candidates) {
+        return of(Arrays.asList(candidates));
+    }
+
+    /**
+     * 入力に前方一致する候補を類似度の高い順に返します
+     * @param input ユーザー入力（空の場合はすべてを渡された順で返す）
+     * @return 変更不可のリスト
+     */
+    public List<String> complete(String input) {
+        if (input == null || input.isEmpty()) return all;
+        Node node = root;
+        for (int i = 0; i < input.length() && node != null; i++) {
+            node = node.child(Character.toLowerCase(input.charAt(i)));
+        }
+        return node != null ? node.matches : List.of();
+    }
+
+    /**
+     * 登録されている候補（渡された順）
+     */
+    public List<String> all() {
+        return all;
+    }
+
+    private static final class Node {
+        final char[] keys;
+        final Node[] children;
+        final List<String> matches;
+
+        Node(char[] keys, Node[] children, List<String> matches) {
+            this.keys = keys;
+            this.children = children;
+            this.matches = matches;
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+    }
+
+    private static final class Builder {
+        final TreeMap<Character, Builder> children = new TreeMap<>();
+        final List<String> matches = new ArrayList<>();
+
+        Node freeze() {
+            if (children.isEmpty()) return new Node(NO_KEYS, NO_CHILDREN, List.copyOf(matches));
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Builder> e : children.entrySet()) {
+                keys[i] = e.getKey();
+                nodes[i] = e.getValue().freeze();
+                i++;
+            }
+            return new Node(keys, nodes, List.copyOf(matches));
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package org.pexserver.koukunn.pexsurvival.Core.Command;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Tab補完のユーティリティクラス
  * 類似度判定やフィルタリング機能を提供します
+ * 候補が固定の場合は CompletionTrie を使うと、入力ごとの計算が不要になります
  */
 public class CompletionUtils {
 
+    // レーベンシュタイン距離の計算用に使い回す 2 行ぶんのバッファ（スレッドごと）
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[2][32]);
+
     /**
      * リストから類似度の高い順にフィルタリングしたリストを返す
+     * 類似度は候補ごとに 1 回だけ計算し、同じ類似度の候補は元の順序を保つ
      * @param input ユーザー入力
      * @param candidates 候補リスト
      * @return 類似度でソートされた補完候補
@@ -21,15 +25,60 @@ public class CompletionUtils {
         }
 
         String inputLower = input.toLowerCase();
-        
-        return candidates.stream()
-                .filter(c -> c.toLowerCase().startsWith(inputLower))
-                .sorted((a, b) -> {
-                    double scoreA = calculateSimilarity(inputLower, a.toLowerCase());
-                    double scoreB = calculateSimilarity(inputLower, b.toLowerCase());
-                    return Double.compare(scoreB, scoreA);  // 高い順
-                })
-                .collect(Collectors.toList());
+        int size = candidates.size();
+        int[] index = new int[size];
+        double[] scores = new double[size];
+        int matched = 0;
+
+        for (int i = 0; i < size; i++) {
+            String lower = candidates.get(i).toLowerCase();
+            if (!lower.startsWith(inputLower)) continue;
+            index[matched] = i;
+            scores[i] = calculateSimilarity(inputLower, lower);
+            matched++;
+        }
+
+        sortByScore(index, matched, scores);
+
+        List<String> result = new ArrayList<>(matched);
+        for (int i = 0; i < matched; i++) {
+            result.add(candidates.get(index[i]));
+        }
+        return result;
+    }
+
+    /**
+     * 添字の配列を類似度の高い順に並べ替える（安定な挿入ソート + マージソート。ボクシングなし）
+     */
+    private static void sortByScore(int[] index, int length, double[] scores) {
+        if (length < 2) return;
+        if (length <= 16) {
+            for (int i = 1; i < length; i++) {
+                int v = index[i];
+                int j = i - 1;
+                while (j >= 0 && scores[index[j]] < scores[v]) {
+                    index[j + 1] = index[j];
+                    j--;
+                }
+                index[j + 1] = v;
+            }
+            return;
+        }
+        int[] tmp = new int[length];
+        for (int width = 1; width < length; width <<= 1) {
+            for (int lo = 0; lo < length - width; lo += width << 1) {
+                int mid = lo + width;
+                int hi = Math.min(lo + (width << 1), length);
+                int a = lo, b = mid, k = lo;
+                while (a < mid && b < hi) {
+                    // 同じ類似度なら左側（元の順序で先のもの）を優先
+                    tmp[k++] = scores[index[b]] > scores[index[a]] ? index[b++] : index[a++];
+                }
+                while (a < mid) tmp[k++] = index[a++];
+                while (b < hi) tmp[k++] = index[b++];
+                System.arraycopy(tmp, lo, index, lo, hi - lo);
+            }
+        }
     }
 
     /**
@@ -51,34 +100,41 @@ public class CompletionUtils {
 
     /**
      * レーベンシュタイン距離を計算
+     * 行列全体ではなく直前の 1 行だけを保持し、バッファはスレッドごとに使い回す
      * @param a 文字列1
      * @param b 文字列2
      * @return 編集距離
      */
     private static int levenshteinDistance(String a, String b) {
-        int[][] dp = new int[a.length() + 1][b.length() + 1];
-
-        for (int i = 0; i <= a.length(); i++) {
-            dp[i][0] = i;
+        int n = b.length();
+        int[][] rows = ROWS.get();
+        if (rows[0].length < n + 1) {
+            rows[0] = new int[n + 1];
+            rows[1] = new int[n + 1];
         }
-        for (int j = 0; j <= b.length(); j++) {
-            dp[0][j] = j;
+        int[] prev = rows[0];
+        int[] cur = rows[1];
+
+        for (int j = 0; j <= n; j++) {
+            prev[j] = j;
         }
 
         for (int i = 1; i <= a.length(); i++) {
-            for (int j = 1; j <= b.length(); j++) {
-                if (a.charAt(i - 1) == b.charAt(j - 1)) {
-                    dp[i][j] = dp[i - 1][j - 1];
+            cur[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= n; j++) {
+                if (ca == b.charAt(j - 1)) {
+                    cur[j] = prev[j - 1];
                 } else {
-                    dp[i][j] = 1 + Math.min(
-                        Math.min(dp[i - 1][j], dp[i][j - 1]),
-                        dp[i - 1][j - 1]
-                    );
+                    cur[j] = 1 + Math.min(Math.min(prev[j], cur[j - 1]), prev[j - 1]);
                 }
             }
+            int[] swap = prev;
+            prev = cur;
+            cur = swap;
         }
 
-        return dp[a.length()][b.length()];
+        return prev[n];
     }
 
     /**
@@ -94,9 +150,7 @@ public class CompletionUtils {
         int totalPages = (int) Math.ceil((double) filtered.size() / pageSize);
         int currentPage = 1;
         
-        List<String> pagedResults = filtered.stream()
-                .limit(pageSize)
-                .collect(Collectors.toList());
+        List<String> pagedResults = new ArrayList<>(filtered.subList(0, Math.min(pageSize, filtered.size())));
         
         Map<String, Object> result = new HashMap<>();
         result.put("items", pagedResults);
@@ -0,0 +1,91 @@
+package org.pexserver.koukunn.pexsurvival.Core.Command;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * プレイヤーごとのコマンド権限チェック結果のキャッシュ
+ * Brigadier はコマンドツリーの再送信や候補表示のたびに全コマンドの requires を評価するため、
+ * 結果を短時間キャッシュして PermissionLevel#hasAccess の呼び出しを減らします
+ * 参加・退出・ワールド移動時と invalidate 呼び出し時に破棄し、そうでなくても TTL で期限切れになります
+ */
+final class PermissionCache implements Listener {
+
+    // 権限プラグインからの変更通知が無い場合でも、この時間で反映される
+    private static final long TTL_NANOS = 2_000_000_000L;
+
+    private record Entry(boolean allowed, long expiresAt) {}
+
+    private final Map<UUID, Map<BaseCommand, Entry>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 実行者がコマンドを使えるかを返します
+     * プレイヤー以外（コンソール・コマンドブロックなど）は毎回そのまま判定します
+     */
+    boolean test(CommandSender sender, BaseCommand command) {
+        if (!(sender instanceof Player player)) {
+            return check(sender, command);
+        }
+
+        // 権限の指定が無いコマンドは判定が型チェックだけなので、キャッシュしない
+        PermissionLevel level = command.getPermissionLevel();
+        String permission = command.getPermission();
+        if ((permission == null || permission.isEmpty()) && level != PermissionLevel.ADMIN && level != PermissionLevel.ADMIN_OR_CONSOLE) {
+            return level.hasAccess(sender, null);
+        }
+
+        Map<BaseCommand, Entry> perPlayer = entries.computeIfAbsent(player.getUniqueId(), k -> new ConcurrentHashMap<>());
+        long now = System.nanoTime();
+        Entry entry = perPlayer.get(command);
+        if (entry != null && entry.expiresAt() - now > 0) {
+            return entry.allowed();
+        }
+        boolean allowed = check(sender, command);
+        perPlayer.put(command, new Entry(allowed, now + TTL_NANOS));
+        return allowed;
+    }
+
+    private static boolean check(CommandSender sender, BaseCommand command) {
+        return command.getPermissionLevel().hasAccess(sender, command.getPermission());
+    }
+
+    /**
+     * 指定プレイヤーのキャッシュを破棄
+     */
+    void invalidate(UUID playerId) {
+        entries.remove(playerId);
+    }
+
+    /**
+     * すべてのキャッシュを破棄
+     */
+    void invalidateAll() {
+        entries.clear();
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    // ワールドごとに権限を変える権限プラグインのため
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+}
@@ -0,0 +1,61 @@
+package org.pexserver.koukunn.pexsurvival.Core.Config;
+
+import com.google.gson.JsonElement;
+
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * 設定ファイルを不変の型付きオブジェクトに束縛したもの
+ * ファイルが保存・外部編集されるたびに ConfigManager が再束縛し、volatile 参照で公開します。
+ * get() はロックも解析も行わないため、メインスレッドのホットパスや非同期スレッドから自由に呼び出せます。
+ */
+public final class ConfigBinding<T> {
+
+    private final String path;
+    private final Function<JsonElement, T> binder;
+    private final T defaults;
+    private final Logger logger;
+    private volatile T value;
+
+    ConfigBinding(String path, Function<JsonElement, T> binder, T defaults, Logger logger) {
+        this.path = path;
+        this.binder = binder;
+        this.defaults = defaults;
+        this.logger = logger;
+        this.value = defaults;
+    }
+
+    /**
+     * 現在の設定を返します
+     * @return 不変の設定オブジェクト（ファイルが無い場合はデフォルト）
+     */
+    public T get() {
+        return value;
+    }
+
+    /**
+     * 束縛している設定ファイルの相対パス
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * 解析済みの JSON から設定を作り直して公開します
+     * 変換に失敗した場合は直前の値を保持します
+     * @param tree JSON（ファイルが無い場合は null）
+     */
+    void update(JsonElement tree) {
+        if (tree == null) {
+            value = defaults;
+            return;
+        }
+        try {
+            T bound = binder.apply(tree);
+            value = bound != null ? bound : defaults;
+        } catch (RuntimeException e) {
+            logger.warning("PEXConfig の変換に失敗しました（以前の値を使用します）: " + path + " - " + e.getMessage());
+        }
+    }
+}
@@ -1,25 +1,78 @@
 package org.pexserver.koukunn.pexsurvival.Core.Config;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParseException;
 import org.bukkit.plugin.Plugin;
+import org.pexserver.koukunn.pexsurvival.Core.Jfr.ConfigIoEvent;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.*;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 /**
  * PEXConfig フォルダ配下の JSON ファイルを管理するシンプルなマネージャ
  * - ベースフォルダ: plugin.getDataFolder()/PEXConfig
  * - サブフォルダやネストした JSON を扱える
+ * - 一度読み込んだ設定はメモリにキャッシュし、ファイルが外部で編集されたら WatchService で検知して破棄する
+ * - 保存は専用スレッドで遅延書き込みし、短時間の連続保存は 1 回の書き込みにまとめる
+ * - bind() で型付きの不変オブジェクトに束縛でき、保存・外部編集のたびに自動で作り直される
  */
 public class ConfigManager {
 
+    // ファイルが存在しないことを表すキャッシュ値
+    private static final JsonElement MISSING = JsonNull.INSTANCE;
+    // 連続した保存をまとめるための待ち時間（ミリ秒）
+    private static final long WRITE_DELAY_MILLIS = 250;
+
     private final File baseDir;
-    private final Plugin plugin;
+    private final Logger logger;
+    // 相対パス -> 解析済みの JSON（外部に渡さないので不変として扱う）
+    private final Map<String, JsonElement> cache = new ConcurrentHashMap<>();
+    // 相対パス -> 束縛された型付き設定
+    private final Map<String, List<ConfigBinding<?>>> bindings = new ConcurrentHashMap<>();
+    // 相対パス -> 自分で最後に書き込んだ内容（変更通知が来たときにファイルの内容と比べ、同じなら自分の書き込みとして無視する）
+    // 最終更新時刻は精度がファイルシステム次第で、外部編集と同じ時刻になりうるので使わない
+    private final Map<String, JsonElement> selfWrites = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Path> watchedDirs = new ConcurrentHashMap<>();
+    // 相対パス -> 書き込み待ちの内容（同じファイルへの保存が続いた場合は最新のもので上書き）
+    private final Map<String, JsonElement> pendingWrites = new ConcurrentHashMap<>();
+    // 書き込み中の相対パス
+    private final Set<String> writing = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService writer;
+    // 外部変更を検知するたびに進める世代番号（読み込み中に変更された古い内容をキャッシュしないため）
+    private final AtomicLong generation = new AtomicLong();
+    private WatchService watchService;
+    private Thread watcherThread;
 
     public ConfigManager(Plugin plugin) {
-        this.plugin = plugin;
-        this.baseDir = new File(plugin.getDataFolder(), "PEXConfig");
+        this(new File(plugin.getDataFolder(), "PEXConfig"), plugin.getLogger());
+    }
+
+    /**
+     * 任意のフォルダを扱うマネージャ（サーバー無しで使う場合やベンチマーク用）
+     * @param baseDir ベースフォルダ（無ければ作成）
+     * @param logger ログの出力先
+     */
+    public ConfigManager(File baseDir, Logger logger) {
+        this.logger = logger;
+        this.baseDir = baseDir;
         if (!baseDir.exists()) baseDir.mkdirs();
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "PEXConfig-Writer");
+            t.setDaemon(true);
+            return t;
+        });
+        startWatcher();
     }
 
     public File getBaseDir() {
@@ -28,32 +81,189 @@ public class ConfigManager {
 
     /**
      * 指定された相対パスにある JSON ファイルを読み込み、PEXConfig にデシリアライズする
+     * 2 回目以降はキャッシュから返す（返り値は毎回新しく作られるので自由に変更してよい）
      * @param relativePath 例: "sample.json" または "nested/example.json"
      */
     public Optional<PEXConfig> loadConfig(String relativePath) {
-        File target = new File(baseDir, relativePath);
-        if (!target.exists()) return Optional.empty();
+        return load(relativePath, PEXConfig.class);
+    }
 
+    /**
+     * 指定された相対パスにある JSON ファイルを任意の型にデシリアライズする
+     * ファイルの読み込みと解析はキャッシュされ、2 回目以降は解析済みの JSON から変換するだけになる
+     * @param relativePath 相対パス
+     * @param type 変換先の型（record も可）
+     */
+    public <T> Optional<T> load(String relativePath, Class<T> type) {
+        JsonElement tree = tree(key(relativePath));
+        if (tree == null) return Optional.empty();
         try {
-            PEXConfig cfg = JsonUtils.fromJson(target, PEXConfig.class);
-            return Optional.ofNullable(cfg);
-        } catch (IOException e) {
-            plugin.getLogger().warning("PEXConfig 読み込み失敗: " + target.getPath() + " - " + e.getMessage());
+            return Optional.ofNullable(JsonUtils.fromTree(tree, type));
+        } catch (JsonParseException e) {
+            logger.warning("PEXConfig 変換失敗: " + relativePath + " - " + e.getMessage());
             return Optional.empty();
         }
     }
 
     /**
-     * 指定された相対パスへ PEXConfig をシリアライズして保存する
+     * 設定ファイルを型付きの不変オブジェクトに束縛する
+     * 返り値の get() は常に最新の内容を返し、保存や外部編集のたびに自動で作り直される
+     * @param relativePath 相対パス
+     * @param type ファイルの内容をデシリアライズする型
+     * @param mapper デシリアライズした内容から設定オブジェクトを作る関数
+     * @param defaults ファイルが無い場合の値
+     */
+    public <S, T> ConfigBinding<T> bind(String relativePath, Class<S> type, Function<? super S, ? extends T> mapper, T defaults) {
+        String key = key(relativePath);
+        ConfigBinding<T> binding = new ConfigBinding<>(key,
+                tree -> mapper.apply(JsonUtils.fromTree(tree, type)), defaults, logger);
+        bindings.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(binding);
+        binding.update(tree(key));
+        return binding;
+    }
+
+    /**
+     * 設定ファイルを型付きの不変オブジェクトに束縛する（record などをそのまま使う場合）
+     */
+    public <T> ConfigBinding<T> bind(String relativePath, Class<T> type, T defaults) {
+        return bind(relativePath, type, Function.identity(), defaults);
+    }
+
+    /**
+     * 束縛を解除します（以後は更新されません）
+     */
+    public void unbind(ConfigBinding<?> binding) {
+        List<ConfigBinding<?>> list = bindings.get(binding.getPath());
+        if (list != null) list.remove(binding);
+    }
+
+    /**
+     * 解析済みの JSON を返す（キャッシュが無ければファイルから読み込む）
+     * @return ファイルが無い場合や読み込めなかった場合は null
+     */
+    private JsonElement tree(String key) {
+        JsonElement cached = cache.get(key);
+        if (cached == null) {
+            long gen = generation.get();
+            cached = readFromDisk(key);
+            // 一時的な I/O エラーはキャッシュせず、次回に読み直す
+            if (cached == null) return null;
+            if (generation.get() == gen) cache.put(key, cached);
+        }
+        return cached == MISSING ? null : cached;
+    }
+
+    /**
+     * @return 解析済みの JSON（ファイルが無い・中身が壊れている場合は MISSING、読み込みに失敗した場合は null）
+     */
+    private JsonElement readFromDisk(String key) {
+        File target = new File(baseDir, key);
+        if (!target.exists()) return MISSING;
+
+        ConfigIoEvent event = new ConfigIoEvent();
+        event.begin();
+        try {
+            JsonElement tree = JsonUtils.parse(target);
+            event.success = true;
+            return tree != null ? tree : MISSING;
+        } catch (IOException e) {
+            logger.warning("PEXConfig 読み込み失敗: " + target.getPath() + " - " + e.getMessage());
+            return null;
+        } catch (JsonParseException e) {
+            // 壊れた内容は編集されるまで変わらないのでキャッシュしてよい（編集は監視で検知する）
+            logger.warning("PEXConfig 読み込み失敗: " + target.getPath() + " - " + e.getMessage());
+            return MISSING;
+        } finally {
+            commit(event, key, "load", target);
+        }
+    }
+
+    private void refreshBindings(String key, JsonElement tree) {
+        List<ConfigBinding<?>> list = bindings.get(key);
+        if (list == null) return;
+        for (ConfigBinding<?> binding : list) binding.update(tree);
+    }
+
+    /**
+     * 指定された相対パスへオブジェクトをシリアライズして保存する
+     * キャッシュは即座に更新し、ファイルへの書き込みは専用スレッドで行う（メインスレッドでディスク I/O を待たない）
+     * @param cfg PEXConfig または Gson でシリアライズできる任意のオブジェクト
+     * @return 保存を受け付けた場合 true（シリアライズできなかった場合や、停止処理中の書き込みに失敗した場合は false）
+     */
+    public boolean saveConfig(String relativePath, Object cfg) {
+        String key = key(relativePath);
+        // 呼び出し時点の内容で確定させる（以後 cfg が変更されても影響しない）
+        JsonElement snapshot;
+        try {
+            snapshot = JsonUtils.toTree(cfg);
+        } catch (JsonParseException e) {
+            logger.warning("PEXConfig 保存失敗: " + key + " - " + e.getMessage());
+            return false;
+        }
+        cache.put(key, snapshot);
+        refreshBindings(key, snapshot);
+        // 既に書き込み待ちがあれば内容を差し替えるだけ（まとめて 1 回で書く）
+        if (pendingWrites.put(key, snapshot) == null) {
+            try {
+                writer.schedule(() -> writePending(key), WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // 停止処理中は呼び出し元のスレッドで書き込む
+                return writePending(key);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 書き込み待ちの内容をファイルへ書き出す（書き込みスレッドで実行）
+     * @return 書き込めた場合（書き込み待ちが無かった場合を含む）true
      */
-    public boolean saveConfig(String relativePath, PEXConfig cfg) {
-        File target = new File(baseDir, relativePath);
+    private boolean writePending(String key) {
+        JsonElement snapshot = pendingWrites.remove(key);
+        if (snapshot == null) return true;
+
+        File target = new File(baseDir, key);
+        ConfigIoEvent event = new ConfigIoEvent();
+        event.begin();
+        writing.add(key);
         try {
-            JsonUtils.toJson(target, cfg);
+            JsonUtils.toJson(target, snapshot);
+            selfWrites.put(key, snapshot);
+            event.success = true;
             return true;
         } catch (IOException e) {
-            plugin.getLogger().warning("PEXConfig 保存失敗: " + target.getPath() + " - " + e.getMessage());
+            logger.warning("PEXConfig 保存失敗: " + target.getPath() + " - " + e.getMessage());
             return false;
+        } finally {
+            writing.remove(key);
+            commit(event, key, "save", target);
+        }
+    }
+
+    private static void commit(ConfigIoEvent event, String key, String operation, File target) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.path = key;
+        event.operation = operation;
+        event.bytes = target.length();
+        event.commit();
+    }
+
+    /**
+     * 書き込み待ちの内容をすべてファイルへ書き出し、完了まで待機します
+     */
+    public void flush() {
+        if (pendingWrites.isEmpty()) return;
+        try {
+            writer.submit(() -> {
+                for (String key : pendingWrites.keySet()) writePending(key);
+            }).get(10, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            for (String key : pendingWrites.keySet()) writePending(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warning("PEXConfig の書き込み待ちをフラッシュできませんでした: " + e);
         }
     }
 
@@ -63,4 +273,146 @@ public class ConfigManager {
     public boolean exists(String relativePath) {
         return new File(baseDir, relativePath).exists();
     }
+
+    /**
+     * キャッシュを破棄します（次回の読み込みでファイルから再解析）
+     * @param relativePath 相対パス
+     */
+    public void invalidate(String relativePath) {
+        cache.remove(key(relativePath));
+    }
+
+    /**
+     * 書き込み待ちをフラッシュし、書き込みスレッドとファイル監視スレッドを停止します（プラグイン無効化時に呼び出す）
+     */
+    public void close() {
+        flush();
+        writer.shutdown();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+            }
+            watchService = null;
+        }
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+            watcherThread = null;
+        }
+        cache.clear();
+    }
+
+    /**
+     * 相対パスをキャッシュのキーに正規化する
+     */
+    private static String key(String relativePath) {
+        String k = relativePath.replace('\\', '/');
+        while (k.startsWith("./")) k = k.substring(2);
+        while (k.startsWith("/")) k = k.substring(1);
+        return k;
+    }
+
+    // ===== ファイル監視 =====
+
+    private void startWatcher() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            registerTree(baseDir.toPath());
+        } catch (IOException e) {
+            logger.warning("PEXConfig の監視を開始できませんでした（外部編集は再起動まで反映されません）: " + e.getMessage());
+            watchService = null;
+            return;
+        }
+
+        WatchService ws = watchService;
+        watcherThread = new Thread(() -> watchLoop(ws), "PEXConfig-Watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private void registerTree(Path root) throws IOException {
+        try (Stream<Path> dirs = Files.walk(root)) {
+            for (Path dir : (Iterable<Path>) dirs.filter(Files::isDirectory)::iterator) {
+                WatchKey watchKey = dir.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+                watchedDirs.put(watchKey, dir);
+            }
+        }
+    }
+
+    private void watchLoop(WatchService ws) {
+        Path root = baseDir.toPath();
+        while (true) {
+            WatchKey watchKey;
+            try {
+                watchKey = ws.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path dir = watchedDirs.get(watchKey);
+            for (WatchEvent<?> event : watchKey.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                    // 取りこぼしがあった場合は全体を破棄する
+                    generation.incrementAndGet();
+                    cache.clear();
+                    continue;
+                }
+
+                Path changed = dir.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changed)) {
+                    try {
+                        registerTree(changed);
+                    } catch (IOException | ClosedWatchServiceException ignored) {
+                    }
+                }
+                onFileChanged(key(root.relativize(changed).toString()), changed.toFile());
+            }
+
+            if (!watchKey.reset()) {
+                watchedDirs.remove(watchKey);
+            }
+        }
+    }
+
+    private void onFileChanged(String key, File file) {
+        // 書き込み用の一時ファイルは無視する
+        if (key.endsWith(".tmp")) return;
+        // 自分の書き込み（書き込み待ち・書き込み中を含む）による通知は無視する
+        if (pendingWrites.containsKey(key) || writing.contains(key)) return;
+        JsonElement written = selfWrites.get(key);
+        if (written != null && written.equals(readQuietly(file))) {
+            return;
+        }
+        selfWrites.remove(key);
+        generation.incrementAndGet();
+
+        // ディレクトリの変更であれば配下をまとめて破棄
+        String prefix = key + "/";
+        if (cache.keySet().removeIf(k -> k.equals(key) || k.startsWith(prefix))) {
+            logger.info("PEXConfig の変更を検知しました: " + key);
+        }
+        // 束縛された設定を読み直して公開する（監視スレッドで解析するのでメインスレッドは止まらない）
+        for (String bound : bindings.keySet()) {
+            if (!bound.equals(key) && !bound.startsWith(prefix)) continue;
+            JsonElement tree = tree(bound);
+            // 読み込みに失敗した場合（キャッシュされていない）は以前の値のままにする
+            if (tree == null && !cache.containsKey(bound)) continue;
+            refreshBindings(bound, tree);
+        }
+    }
+
+    /**
+     * 自分の書き込みかどうかの判定用に読む（読めなければ null）
+     */
+    private static JsonElement readQuietly(File file) {
+        if (!file.isFile()) return null;
+        try {
+            return JsonUtils.parse(file);
+        } catch (IOException | JsonParseException e) {
+            return null;
+        }
+    }
 }
@@ -2,9 +2,20 @@ package org.pexserver.koukunn.pexsurvival.Core.Config;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
 
 public final class JsonUtils {
 
@@ -18,13 +29,76 @@ public final class JsonUtils {
         }
     }
 
+    /**
+     * ファイルを JSON ツリーとして読み込みます
+     */
+    public static JsonElement parse(File file) throws IOException {
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            return JsonParser.parseReader(reader);
+        }
+    }
+
+    /**
+     * 解析済みの JSON ツリーをオブジェクトに変換します（ファイル I/O や文字列解析は行いません）
+     */
+    public static <T> T fromTree(JsonElement tree, Class<T> clazz) {
+        return GSON.fromJson(tree, clazz);
+    }
+
+    /**
+     * オブジェクトを JSON ツリーに変換します
+     */
+    public static JsonElement toTree(Object obj) {
+        return GSON.toJsonTree(obj);
+    }
+
+    /**
+     * JSON を一時ファイルに書き込んでから置き換えます
+     * 書き込み途中でクラッシュしても、元のファイルが壊れた状態で残ることはありません
+     * 一時ファイルは通常の umask で作り、既存のファイルがあればそのパーミッションを引き継ぎます
+     */
     public static void toJson(File file, Object obj) throws IOException {
         // ensure parent dirs
         File parent = file.getParentFile();
         if (parent != null && !parent.exists()) parent.mkdirs();
 
-        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
-            GSON.toJson(obj, writer);
+        Path target = file.toPath();
+        Path dir = target.toAbsolutePath().getParent();
+        // Files.createTempFile は所有者のみ（0600）で作るので使わない（置き換え後に元の権限が失われる）
+        Path tmp = null;
+        FileChannel channel = null;
+        for (int attempt = 0; channel == null; attempt++) {
+            tmp = dir.resolve(file.getName() + "." + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp");
+            try {
+                channel = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            } catch (FileAlreadyExistsException e) {
+                if (attempt >= 8) throw e;
+            }
+        }
+        try {
+            try (FileChannel out = channel;
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(out), StandardCharsets.UTF_8))) {
+                GSON.toJson(obj, writer);
+                writer.flush();
+                out.force(true);
+            }
+            copyPermissions(target, tmp);
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // 既存のファイルのパーミッションを一時ファイルへ写す（POSIX でないファイルシステムでは何もしない）
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        if (!Files.exists(from)) return;
+        try {
+            Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+        } catch (UnsupportedOperationException ignored) {
         }
     }
 }
@@ -1,6 +1,9 @@
 package org.pexserver.koukunn.pexsurvival.Core.Feature;
 
 import org.bukkit.event.Listener;
+import org.pexserver.koukunn.pexsurvival.Core.Bench.BenchContext;
+import org.pexserver.koukunn.pexsurvival.Core.Bench.BenchLoad;
+import org.pexserver.koukunn.pexsurvival.Core.Scheduler.TickScheduler;
 
 /**
  * プラグイン機能の基底インターフェース
@@ -26,6 +29,14 @@ public interface Feature extends Listener {
      */
     boolean isEnabled();
 
+    /**
+     * 重い状態（設定の束縛・テーブルの構築・子オブジェクトの生成など）を作成します
+     * FeatureManager が初回の enable() / reload() の直前に一度だけ呼び出すため、
+     * 無効なままの機能は起動時にこのコストを払いません。コンストラクタは軽く保ってください。
+     */
+    default void initialize() {
+    }
+
     /**
      * 機能を有効にします
      */
@@ -50,4 +61,30 @@ public interface Feature extends Listener {
     default boolean getDefaultEnabled() {
         return false;
     }
+
+    /**
+     * TickScheduler で 1 ティックあたりに使える処理時間の予算（マイクロ秒）を返します。
+     * 予算を超えたタスクは次のティックへ持ち越されます。
+     */
+    default long getTickBudgetMicros() {
+        return TickScheduler.DEFAULT_BUDGET_MICROS;
+    }
+
+    /**
+     * 機能が保持している状態の件数を返します（予約中の処理・追跡中のエンティティ・ボスバーなど）
+     * 負荷試験でプレイヤー数に対する状態の増え方を確認するために使います
+     */
+    default int getStateSize() {
+        return 0;
+    }
+
+    /**
+     * /pex bench で使う負荷を作成します
+     * 負荷は context のワールド（ベンチマーク専用）の中だけでかけてください
+     * @return 負荷（ベンチマークに対応しない機能は null）
+     * @throws IllegalStateException 負荷を作れない場合（メッセージは実行者に表示される）
+     */
+    default BenchLoad createBenchLoad(BenchContext context) {
+        return null;
+    }
 }
@@ -84,14 +84,46 @@ package org.pexserver.koukunn.pexsurvival.Core.Feature;
  * 2. すべてのイベントハンドルで enabled チェック
  * 3. reload() で設定や状態を再初期化
  * 4. 機能名は小文字のみ使用
+ * 5. ハンドラには priority と ignoreCancelled を明示する
+ *    （ワールドを変える処理（ブロック破壊・爆発・スポーンなど）は HIGHEST + ignoreCancelled = true で保護プラグインの後に動かす。
+ *     MONITOR は結果を見るだけで何も変えないハンドラ専用）
+ * 
+ * リスナーは FeatureManager が有効化時に登録し、無効化時に HandlerList.unregisterAll で解除します。
+ * 無効な機能のハンドラはイベントバスに残りません。
  * 
  * 例:
- * @EventHandler
+ * @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
  * public void onSomeEvent(SomeEvent event) {
  *     if (!enabled) return;  // 必須！
  *     // イベント処理
  * }
  * 
+ * ===== 定期処理 =====
+ * 
+ * BukkitRunnable を直接使わず、Loader の TickScheduler に機能名で登録します。
+ * 機能ごとに 1 ティックあたりの予算（getTickBudgetMicros）があり、
+ * 超過した処理は次のティックへ持ち越されます。
+ * 
+ * var scheduler = JavaPlugin.getPlugin(Loader.class).getTickScheduler();
+ * scheduler.runTimer(getFeatureName(), 20, () -> { ... });          // 周期実行
+ * scheduler.drain(getFeatureName(), blocks.iterator(), 8, b -> ...); // 分割処理
+ * scheduler.cancelAll(getFeatureName());                            // disable() で停止
+ * 
+ * ===== メトリクス =====
+ * 
+ * イベントの処理件数と処理時間は FeatureManager が自動で記録します。
+ * ブロック変更・エンティティのスポーン・パーティクルは機能側で記録します（/pex metrics で確認）。
+ * 
+ * メトリクスは初回の記録時に取得します（フィールドの初期化子で取得すると、プラグインの起動前に機能を作れなくなります）。
+ * 
+ * private FeatureMetrics metrics;
+ * private FeatureMetrics metrics() {
+ *     if (metrics == null) metrics = JavaPlugin.getPlugin(Loader.class).getMetrics().feature(getFeatureName());
+ *     return metrics;
+ * }
+ * block.setType(Material.AIR);
+ * metrics().blocksChanged.inc();
+ * 
  * ===== Feature インターフェース =====
  * 
  * String getFeatureName()
@@ -103,6 +135,10 @@ package org.pexserver.koukunn.pexsurvival.Core.Feature;
  * boolean isEnabled()
  *   - 機能が有効かどうかを返す
  * 
+ * void initialize()（任意）
+ *   - 重い状態を作る（初回の有効化の直前に一度だけ呼ばれる。無効な機能では呼ばれない）
+ *   - コンストラクタは軽く保ち、設定の束縛やテーブルの構築はここで行う
+ * 
  * void enable()
  *   - 機能を有効にする
  * 
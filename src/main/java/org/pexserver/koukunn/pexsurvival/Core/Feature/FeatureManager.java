@@ -1,8 +1,20 @@
 package org.pexserver.koukunn.pexsurvival.Core.Feature;
 
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.EventExecutor;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.Plugin;
+import org.pexserver.koukunn.pexsurvival.Core.Config.ConfigBinding;
+import org.pexserver.koukunn.pexsurvival.Core.Config.ConfigManager;
+import org.pexserver.koukunn.pexsurvival.Core.Config.PEXConfig;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.FeatureMetrics;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.MetricsRegistry;
+import org.pexserver.koukunn.pexsurvival.Core.Profiler.FeatureProfiler;
+import org.pexserver.koukunn.pexsurvival.Core.Scheduler.TickScheduler;
 
+import java.lang.reflect.Method;
 import java.util.*;
 
 /**
@@ -10,19 +22,46 @@ import java.util.*;
  */
 public class FeatureManager {
 
+    private static final String STATES_PATH = "features.json";
+
     private final Plugin plugin;
     private final PluginManager pluginManager;
-    private final org.pexserver.koukunn.pexsurvival.Core.Config.ConfigManager configManager;
-    private final Map<String, Feature> features = new HashMap<>();
+    private final ConfigManager configManager;
+    private final TickScheduler tickScheduler;
+    private final MetricsRegistry metrics;
+    private final FeatureProfiler profiler;
+    // features.json の有効/無効状態（保存・外部編集のたびに自動で更新される）
+    private final ConfigBinding<FeatureStates> states;
+    // 登録済み機能の不変スナップショット（登録のたびに差し替える）
+    private volatile FeatureRegistry registry = FeatureRegistry.EMPTY;
+    // 現在イベントバスに登録されている機能（有効な機能のみ）
+    private final Set<Feature> listening = Collections.newSetFromMap(new IdentityHashMap<>());
+    // initialize() 済みの機能
+    private final Set<Feature> initialized = Collections.newSetFromMap(new IdentityHashMap<>());
+    // 起動時の機能ごとの所要時間（登録順）
+    private final Map<String, StartupTiming> startupTimings = new LinkedHashMap<>();
 
     public FeatureManager(Plugin plugin) {
-        this(plugin, new org.pexserver.koukunn.pexsurvival.Core.Config.ConfigManager(plugin));
+        this(plugin, new ConfigManager(plugin));
+    }
+
+    public FeatureManager(Plugin plugin, ConfigManager configManager) {
+        this(plugin, configManager, null);
+    }
+
+    public FeatureManager(Plugin plugin, ConfigManager configManager, TickScheduler tickScheduler) {
+        this(plugin, configManager, tickScheduler, new MetricsRegistry(), new FeatureProfiler());
     }
 
-    public FeatureManager(Plugin plugin, org.pexserver.koukunn.pexsurvival.Core.Config.ConfigManager configManager) {
+    public FeatureManager(Plugin plugin, ConfigManager configManager, TickScheduler tickScheduler,
+                          MetricsRegistry metrics, FeatureProfiler profiler) {
         this.plugin = plugin;
         this.pluginManager = plugin.getServer().getPluginManager();
         this.configManager = configManager;
+        this.tickScheduler = tickScheduler;
+        this.metrics = metrics;
+        this.profiler = profiler;
+        this.states = configManager.bind(STATES_PATH, PEXConfig.class, FeatureStates::from, FeatureStates.EMPTY);
         // NOTE: do not clean or mutate config here — features are not yet registered.
     }
 
@@ -31,51 +70,87 @@ public class FeatureManager {
      * @param feature 登録する機能
      */
     public void registerFeature(Feature feature) {
+        long start = System.nanoTime();
         String name = feature.getFeatureName().toLowerCase();
-        features.put(name, feature);
-        
-        // イベントリスナーとして登録
-        pluginManager.registerEvents(feature, plugin);
+        StartupTiming timing = new StartupTiming();
+        startupTimings.put(name, timing);
+        registry = registry.with(name, feature);
+
+        // ティックスケジューラ上の予算を設定
+        if (tickScheduler != null) {
+            tickScheduler.setBudgetMicros(name, feature.getTickBudgetMicros());
+        }
         
         // コンフィグの優先ルール:
         // 1) features.json に "states" が存在する -> その中にキーがあればその値を採用
         //    その中にキーが無ければ "無効"
         // 2) "states" が存在しない -> feature.getDefaultEnabled() を採用
+        // 無効な機能は initialize() も enable() も呼ばない
+        boolean enable;
         try {
-            var opt = configManager.loadConfig("features.json");
-            if (opt.isPresent()) {
-                var cfg = opt.get();
-                Object o = cfg.get("states");
-                if (o instanceof java.util.Map<?, ?>) {
-                    var map = (java.util.Map<?, ?>) o;
-                    if (map.containsKey(name)) {
-                        Object v = map.get(name);
-                        if (v instanceof Boolean && (Boolean) v) {
-                            feature.enable();
-                        } else {
-                            feature.disable();
-                        }
-                    } else {
-                        // states は存在するがキーがなければ無効とみなす
-                        feature.disable();
-                    }
-                } else {
-                    // states キー自体が無ければデフォルトに従う
-                    if (feature.getDefaultEnabled()) feature.enable(); else feature.disable();
-                }
-            } else {
-                // 設定ファイルが無ければデフォルト
-                if (feature.getDefaultEnabled()) feature.enable(); else feature.disable();
-            }
+            enable = states.get().isEnabled(name, feature.getDefaultEnabled());
         } catch (Exception e) {
             plugin.getLogger().warning("設定読み込み中に例外: " + e.getMessage());
-            if (feature.getDefaultEnabled()) feature.enable(); else feature.disable();
+            enable = feature.getDefaultEnabled();
+        }
+        if (enable) {
+            timing.initNanos = ensureInitialized(feature);
+            long enableStart = System.nanoTime();
+            feature.enable();
+            timing.enableNanos = System.nanoTime() - enableStart;
         }
+
+        // 有効な場合のみイベントリスナーとして登録
+        long listenerStart = System.nanoTime();
+        syncListeners(feature);
+        timing.listenerNanos = System.nanoTime() - listenerStart;
+        timing.enabled = feature.isEnabled();
+        timing.totalNanos = System.nanoTime() - start;
         
         plugin.getLogger().info("機能登録: " + feature.getFeatureName() + 
                               " (" + feature.getDescription() + ")");
     }
 
+    /**
+     * 初回のみ initialize() を呼び出します
+     * @return initialize() にかかった時間（ナノ秒、初期化済みなら 0）
+     */
+    private long ensureInitialized(Feature feature) {
+        if (!initialized.add(feature)) return 0;
+        long start = System.nanoTime();
+        feature.initialize();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * 起動時の機能ごとの所要時間をログに出力します（所要時間の長い順）
+     */
+    public void logStartupReport() {
+        List<Map.Entry<String, StartupTiming>> entries = new ArrayList<>(startupTimings.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().totalNanos, a.getValue().totalNanos));
+        long total = 0;
+        int enabledCount = 0;
+        for (Map.Entry<String, StartupTiming> entry : entries) {
+            StartupTiming t = entry.getValue();
+            total += t.totalNanos;
+            if (t.enabled) enabledCount++;
+            plugin.getLogger().info(String.format("起動時間: %s %.2fms（%s / 初期化 %.2fms / 有効化 %.2fms / リスナー %.2fms）",
+                    entry.getKey(), t.totalNanos / 1e6, t.enabled ? "有効" : "無効",
+                    t.initNanos / 1e6, t.enableNanos / 1e6, t.listenerNanos / 1e6));
+        }
+        plugin.getLogger().info(String.format("起動時間: 機能の登録 合計 %.2fms（%d 件中 %d 件が有効）",
+                total / 1e6, entries.size(), enabledCount));
+    }
+
+    // 起動時の所要時間（ナノ秒）
+    private static final class StartupTiming {
+        long totalNanos;
+        long initNanos;
+        long enableNanos;
+        long listenerNanos;
+        boolean enabled;
+    }
+
     /**
      * 複数の機能を一括登録
      * @param features 登録する機能の配列
@@ -92,15 +167,23 @@ public class FeatureManager {
      * @return 機能またはnull
      */
     public Feature getFeature(String name) {
-        return features.get(name.toLowerCase());
+        return registry.get(name.toLowerCase());
     }
 
     /**
      * すべての機能を取得
-     * @return 機能マップ
+     * @return 機能マップ（名前順・変更不可。コピーしないのでどのスレッドからでも安価に呼び出せる）
      */
     public Map<String, Feature> getFeatures() {
-        return new HashMap<>(features);
+        return registry.asMap();
+    }
+
+    /**
+     * 登録済み機能のスナップショットを取得
+     * @return 現時点のスナップショット（以後の登録の影響を受けない）
+     */
+    public FeatureRegistry getRegistry() {
+        return registry;
     }
 
     /**
@@ -118,7 +201,9 @@ public class FeatureManager {
             return true;  // すでに有効
         }
         
+        ensureInitialized(feature);
         feature.enable();
+        syncListeners(feature);
         plugin.getLogger().info("機能有効化: " + feature.getFeatureName());
         saveFeatureState(name, true);
         return true;
@@ -140,6 +225,7 @@ public class FeatureManager {
         }
         
         feature.disable();
+        syncListeners(feature);
         plugin.getLogger().info("機能無効化: " + feature.getFeatureName());
         saveFeatureState(name, false);
         return true;
@@ -160,9 +246,11 @@ public class FeatureManager {
             feature.disable();
             plugin.getLogger().info("機能無効化: " + feature.getFeatureName());
         } else {
+            ensureInitialized(feature);
             feature.enable();
             plugin.getLogger().info("機能有効化: " + feature.getFeatureName());
         }
+        syncListeners(feature);
         // トグル後の状態を保存
         saveFeatureState(name, feature.isEnabled());
         return feature.isEnabled();
@@ -177,54 +265,31 @@ public class FeatureManager {
 
     private void saveFeatureState(String featureName, boolean enabled) {
         try {
-            var cfg = configManager.loadConfig("features.json").orElseGet(() -> new org.pexserver.koukunn.pexsurvival.Core.Config.PEXConfig());
-            Object o = cfg.get("states");
-            java.util.Map<String, Object> map = new java.util.HashMap<>();
-            if (o instanceof java.util.Map<?, ?>) {
-                for (java.util.Map.Entry<?, ?> e : ((java.util.Map<?, ?>) o).entrySet()) {
-                    if (e.getKey() instanceof String) {
-                        map.put((String) e.getKey(), e.getValue());
-                    }
-                }
-            }
-            map.put(featureName.toLowerCase(), enabled);
-            cfg.put("states", map);
-            configManager.saveConfig("features.json", cfg);
+            writeStates(states.get().with(featureName, enabled));
         } catch (Exception e) {
             plugin.getLogger().warning("設定の保存に失敗しました: " + e.getMessage());
         }
     }
 
+    /**
+     * features.json の "states" を書き換えて保存する（他のキーはそのまま残す）
+     */
+    private void writeStates(FeatureStates next) {
+        PEXConfig cfg = configManager.loadConfig(STATES_PATH).orElseGet(PEXConfig::new);
+        cfg.put("states", new TreeMap<>(next.states()));
+        configManager.saveConfig(STATES_PATH, cfg);
+    }
+
     /**
      * 設定内に存在するが現在の登録リストにない（無効/古い）機能を削除して永続化する
      */
     private void cleanupInternalConfig() {
         try {
-            var opt = configManager.loadConfig("features.json");
-            if (opt.isEmpty()) return;
-            var cfg = opt.get();
-            Object o = cfg.get("states");
-            if (!(o instanceof java.util.Map)) return;
-            java.util.Map<String, Object> map = new java.util.HashMap<>();
-            if (o instanceof java.util.Map<?, ?>) {
-                for (java.util.Map.Entry<?, ?> e : ((java.util.Map<?, ?>) o).entrySet()) {
-                    if (e.getKey() instanceof String) {
-                        map.put(((String) e.getKey()).toLowerCase(), e.getValue());
-                    }
-                }
-            }
-            boolean changed = false;
-            java.util.List<String> keys = new java.util.ArrayList<>(map.keySet());
-            for (String key : keys) {
-                String lower = key.toLowerCase();
-                if (!features.containsKey(lower)) {
-                    map.remove(key);
-                    changed = true;
-                }
-            }
-            if (changed) {
-                cfg.put("states", map);
-                configManager.saveConfig("features.json", cfg);
+            FeatureStates current = states.get();
+            if (!current.present()) return;
+            FeatureStates cleaned = current.retain(registry.asMap().keySet());
+            if (cleaned.states().size() != current.states().size()) {
+                writeStates(cleaned);
             }
         } catch (Exception e) {
             plugin.getLogger().warning("無効な機能の削除中にエラー: " + e.getMessage());
@@ -249,7 +314,12 @@ public class FeatureManager {
             return false;
         }
         
+        // 一度も有効になっていない機能はリロードする状態が無い
+        if (!initialized.contains(feature)) {
+            return true;
+        }
         feature.reload();
+        syncListeners(feature);
         plugin.getLogger().info("機能リロード: " + feature.getFeatureName());
         return true;
     }
@@ -260,15 +330,18 @@ public class FeatureManager {
      * @return 存在する場合true
      */
     public boolean hasFeature(String name) {
-        return features.containsKey(name.toLowerCase());
+        return registry.contains(name.toLowerCase());
     }
 
     /**
      * 登録済みの全機能をリロード
      */
     public void reloadAll() {
-        for (Feature feature : features.values()) {
+        for (Feature feature : registry.asMap().values()) {
+            // 一度も有効になっていない機能はリロードする状態が無い
+            if (!initialized.contains(feature)) continue;
             feature.reload();
+            syncListeners(feature);
             plugin.getLogger().info("機能リロード: " + feature.getFeatureName());
         }
     }
@@ -277,10 +350,78 @@ public class FeatureManager {
      * 登録済みの全機能を無効化
      */
     public void disableAll() {
-        for (Feature feature : features.values()) {
+        for (Feature feature : registry.asMap().values()) {
             if (feature.isEnabled()) {
                 feature.disable();
             }
+            syncListeners(feature);
+        }
+    }
+
+    /**
+     * 機能の有効状態に合わせてイベントリスナーを登録/解除します
+     * 無効な機能のハンドラはイベントバスから外れるため、イベント発火時のコストがかかりません
+     */
+    private void syncListeners(Feature feature) {
+        if (feature.isEnabled()) {
+            if (listening.add(feature)) {
+                registerHandlers(feature);
+            }
+        } else if (listening.remove(feature)) {
+            HandlerList.unregisterAll(feature);
+        }
+    }
+
+    /**
+     * 機能の @EventHandler を登録します（PluginManager#registerEvents と同じ規則）
+     * 各ハンドラは処理件数・処理時間の記録とプロファイラの計測区間で包まれます
+     */
+    private void registerHandlers(Feature feature) {
+        String name = feature.getFeatureName().toLowerCase();
+        FeatureMetrics fm = metrics.feature(name);
+        int slot = profiler.slot(name);
+
+        Set<Method> methods = new LinkedHashSet<>(Arrays.asList(feature.getClass().getMethods()));
+        methods.addAll(Arrays.asList(feature.getClass().getDeclaredMethods()));
+        for (Method method : methods) {
+            EventHandler handler = method.getAnnotation(EventHandler.class);
+            if (handler == null || method.isBridge() || method.isSynthetic()) continue;
+            if (method.getParameterCount() != 1 || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                plugin.getLogger().warning("不正なイベントハンドラを無視しました: " + feature.getClass().getName() + "#" + method.getName());
+                continue;
+            }
+
+            Class<? extends Event> eventClass = method.getParameterTypes()[0].asSubclass(Event.class);
+            method.setAccessible(true);
+            EventExecutor inner = EventExecutor.create(method, eventClass);
+            EventExecutor executor = (listener, event) -> {
+                // 子クラスのイベントが HandlerList を共有している場合があるため型を確認する
+                if (!eventClass.isInstance(event)) return;
+                long start = System.nanoTime();
+                profiler.enter(slot);
+                try {
+                    inner.execute(listener, event);
+                } finally {
+                    profiler.exit();
+                    fm.events.inc();
+                    fm.eventTime.recordSince(start);
+                }
+            };
+            pluginManager.registerEvent(eventClass, feature, handler.priority(), executor, plugin, handler.ignoreCancelled());
         }
     }
+
+    /**
+     * メトリクスレジストリを取得
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * プロファイラを取得
+     */
+    public FeatureProfiler getProfiler() {
+        return profiler;
+    }
 }
@@ -0,0 +1,89 @@
+package org.pexserver.koukunn.pexsurvival.Core.Feature;
+
+import org.pexserver.koukunn.pexsurvival.Core.Command.CompletionTrie;
+
+import java.util.*;
+
+/**
+ * 登録済み機能の不変スナップショット
+ * FeatureManager は登録のたびに新しいスナップショットを作って volatile 参照で公開します（コピーオンライト）。
+ * 参照・一覧・補完はコピーも確保も行わず、どのスレッドからでも安全に呼び出せます。
+ */
+public final class FeatureRegistry {
+
+    /** 何も登録されていない状態 */
+    public static final FeatureRegistry EMPTY = new FeatureRegistry(Map.of());
+
+    // 機能名（小文字） -> 機能（名前順）
+    private final Map<String, Feature> features;
+    // 名前順の機能名
+    private final List<String> names;
+    // 機能名の前方一致用トライ木（短い順 = 類似度の高い順）
+    private final CompletionTrie completions;
+
+    private FeatureRegistry(Map<String, Feature> source) {
+        TreeMap<String, Feature> sorted = new TreeMap<>(source);
+        this.features = Collections.unmodifiableMap(new LinkedHashMap<>(sorted));
+        this.names = List.copyOf(sorted.keySet());
+        this.completions = CompletionTrie.of(names);
+    }
+
+    /**
+     * 機能を追加した新しいスナップショットを返します
+     * @param name 機能名（小文字）
+     * @param feature 機能
+     */
+    FeatureRegistry with(String name, Feature feature) {
+        Map<String, Feature> next = new HashMap<>(features);
+        next.put(name, feature);
+        return new FeatureRegistry(next);
+    }
+
+    /**
+     * 機能を取得
+     * @param name 機能名（小文字）
+     * @return 機能またはnull
+     */
+    public Feature get(String name) {
+        return features.get(name);
+    }
+
+    /**
+     * 機能が存在するか
+     * @param name 機能名（小文字）
+     */
+    public boolean contains(String name) {
+        return features.containsKey(name);
+    }
+
+    /**
+     * すべての機能（名前順・変更不可）
+     */
+    public Map<String, Feature> asMap() {
+        return features;
+    }
+
+    /**
+     * 名前順の機能名一覧（変更不可）
+     */
+    public List<String> names() {
+        return names;
+    }
+
+    /**
+     * 入力に前方一致する機能名を類似度の高い順に返します（変更不可）
+     * @param input ユーザー入力（空の場合はすべて）
+     */
+    public List<String> complete(String input) {
+        if (input == null || input.isEmpty()) return names;
+        return completions.complete(input);
+    }
+
+    public int size() {
+        return features.size();
+    }
+
+    public boolean isEmpty() {
+        return features.isEmpty();
+    }
+}
@@ -0,0 +1,62 @@
+package org.pexserver.koukunn.pexsurvival.Core.Feature;
+
+import org.pexserver.koukunn.pexsurvival.Core.Config.PEXConfig;
+
+import java.util.*;
+
+/**
+ * features.json に保存される機能の有効/無効状態（不変）
+ * @param present "states" キーがファイルに存在するか
+ * @param states 機能名（小文字） -> 有効かどうか
+ */
+public record FeatureStates(boolean present, Map<String, Boolean> states) {
+
+    /** "states" が存在しない状態 */
+    public static final FeatureStates EMPTY = new FeatureStates(false, Map.of());
+
+    public FeatureStates {
+        states = Collections.unmodifiableMap(new TreeMap<>(states));
+    }
+
+    /**
+     * PEXConfig の "states" から作成します（値が true 以外のものは無効として扱う）
+     */
+    public static FeatureStates from(PEXConfig cfg) {
+        if (cfg == null || cfg.getData() == null || !(cfg.get("states") instanceof Map<?, ?> map)) return EMPTY;
+        Map<String, Boolean> states = new HashMap<>();
+        for (Map.Entry<?, ?> e : map.entrySet()) {
+            if (e.getKey() instanceof String key) {
+                states.put(key.toLowerCase(), Boolean.TRUE.equals(e.getValue()));
+            }
+        }
+        return new FeatureStates(true, states);
+    }
+
+    /**
+     * 起動時の有効状態を判定します
+     * - "states" が存在する -> その中の値（キーが無ければ無効）
+     * - "states" が存在しない -> 機能のデフォルト
+     */
+    public boolean isEnabled(String name, boolean defaultEnabled) {
+        if (!present) return defaultEnabled;
+        return states.getOrDefault(name, false);
+    }
+
+    /**
+     * 状態を変更した新しいインスタンスを返します
+     */
+    public FeatureStates with(String name, boolean enabled) {
+        Map<String, Boolean> next = new HashMap<>(states);
+        next.put(name.toLowerCase(), enabled);
+        return new FeatureStates(true, next);
+    }
+
+    /**
+     * 指定した機能のみを残した新しいインスタンスを返します
+     */
+    public FeatureStates retain(Set<String> names) {
+        Map<String, Boolean> next = new HashMap<>(states);
+        next.keySet().retainAll(names);
+        return new FeatureStates(present, next);
+    }
+}
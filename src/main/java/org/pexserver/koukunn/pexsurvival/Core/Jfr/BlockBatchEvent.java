@@ -0,0 +1,23 @@
+package org.pexserver.koukunn.pexsurvival.Core.Jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 1 ティック内でまとめて行ったブロック変更
+ */
+@Name("pexsurvival.BlockBatch")
+@Label("Block Batch")
+@Category({"PEX Survival", "Block"})
+@Description("1 ティック内でまとめて行ったブロック変更")
+public class BlockBatchEvent extends Event {
+
+    @Label("Owner")
+    public String owner;
+
+    @Label("Block Count")
+    public int blocks;
+}
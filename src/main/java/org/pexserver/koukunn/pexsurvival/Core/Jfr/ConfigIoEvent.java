@@ -0,0 +1,31 @@
+package org.pexserver.koukunn.pexsurvival.Core.Jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * PEXConfig の読み込み・保存（ディスク I/O を伴うもののみ）
+ */
+@Name("pexsurvival.ConfigIo")
+@Label("Config I/O")
+@Category({"PEX Survival", "Config"})
+@Description("PEXConfig の読み込み・保存")
+public class ConfigIoEvent extends Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Success")
+    public boolean success;
+}
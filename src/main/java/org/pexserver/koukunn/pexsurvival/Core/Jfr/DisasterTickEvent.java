@@ -0,0 +1,27 @@
+package org.pexserver.koukunn.pexsurvival.Core.Jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 災害 1 回分の実行（Disaster#onTick。災害ごとの getPeriodTicks() ティックに 1 回）
+ */
+@Name("pexsurvival.DisasterTick")
+@Label("Disaster Tick")
+@Category({"PEX Survival", "NaturalDisaster"})
+@Description("災害 1 回分の実行")
+public class DisasterTickEvent extends Event {
+
+    @Label("Disaster")
+    public String disaster;
+
+    @Label("World")
+    public String world;
+
+    @Label("Affected Players")
+    @Description("onTick で効果を与えたプレイヤーの数（災害が DisasterScope#affected で報告した数。ワールドの人数ではない）")
+    public int players;
+}
@@ -0,0 +1,96 @@
+package org.pexserver.koukunn.pexsurvival.Core.Jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * /pex jfr で使う JFR 記録の管理
+ * JDK 標準の "profile" 設定（GC・セーフポイント・CPU サンプリングなど）に本プラグインのイベントを加えて記録し、
+ * 停止時にデータフォルダ/jfr へ書き出します。
+ */
+public class JfrRecorder {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Plugin plugin;
+    private Recording recording;
+
+    public JfrRecorder(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * 記録中かどうか
+     */
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * 記録を開始します
+     * @throws IllegalStateException 既に記録中の場合
+     */
+    public void start() throws IOException, ParseException {
+        if (recording != null) throw new IllegalStateException("既に記録中です");
+        Recording r = new Recording(Configuration.getConfiguration("profile"));
+        r.setName(plugin.getName());
+        r.setToDisk(true);
+        r.enable(DisasterTickEvent.class);
+        r.enable(VeinSearchEvent.class);
+        r.enable(BlockBatchEvent.class);
+        r.enable(ConfigIoEvent.class);
+        r.start();
+        recording = r;
+    }
+
+    /**
+     * 記録を停止し、非同期でファイルへ書き出します
+     * @param done 書き出し完了時にメインスレッドで呼ばれる（失敗時は null）
+     * @throws IllegalStateException 記録していない場合
+     */
+    public void stop(Consumer<File> done) {
+        Recording r = recording;
+        if (r == null) throw new IllegalStateException("記録していません");
+        recording = null;
+        r.stop();
+
+        File target = new File(new File(plugin.getDataFolder(), "jfr"),
+                "pexsurvival-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            File result = null;
+            try {
+                Path dir = target.getParentFile().toPath();
+                Files.createDirectories(dir);
+                r.dump(target.toPath());
+                result = target;
+            } catch (IOException e) {
+                plugin.getLogger().warning("JFR の書き出しに失敗しました: " + e.getMessage());
+            } finally {
+                r.close();
+            }
+            File written = result;
+            if (plugin.isEnabled()) Bukkit.getScheduler().runTask(plugin, () -> done.accept(written));
+        });
+    }
+
+    /**
+     * 記録中であれば破棄します（プラグイン無効化時）
+     */
+    public void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.pexserver.koukunn.pexsurvival.Core.Jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 一括破壊の対象ブロックの探索（TreeMine / MineOre）
+ */
+@Name("pexsurvival.VeinSearch")
+@Label("Vein Search")
+@Category({"PEX Survival", "Block"})
+@Description("一括破壊の対象ブロックの探索")
+public class VeinSearchEvent extends Event {
+
+    @Label("Feature")
+    public String feature;
+
+    @Label("Block Type")
+    public String material;
+
+    @Label("Block Count")
+    public int blocks;
+}
@@ -0,0 +1,140 @@
+package org.pexserver.koukunn.pexsurvival.Core.Message;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 解析済みのメッセージテンプレート
+ * § 付きのテンプレートを作成時に一度だけ Component に変換し、{0} {1} ... のプレースホルダ位置を記録しておきます。
+ * render は記録済みの部品を並べるだけで、§ の再解析は行いません。不変なのでどのスレッドからでも使えます。
+ */
+public final class Message {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    // 部品: 固定の Component、またはプレースホルダ（index と、その位置のスタイル）
+    private record Part(Component literal, int index, Style style) {}
+
+    private final String template;
+    private final Part[] parts;
+    // プレースホルダが無い場合は完成済みの Component をそのまま返す
+    private final Component constant;
+
+    private Message(String template, Part[] parts, Component constant) {
+        this.template = template;
+        this.parts = parts;
+        this.constant = constant;
+    }
+
+    /**
+     * テンプレートを解析します
+     * @param template § 書式コードと {0} 形式のプレースホルダを含む文字列
+     */
+    public static Message compile(String template) {
+        TextComponent parsed = LegacyComponentSerializer.legacySection().deserialize(template);
+        List<Part> parts = new ArrayList<>();
+        flatten(parsed, Style.empty(), parts);
+
+        boolean hasPlaceholder = false;
+        for (Part part : parts) {
+            if (part.literal() == null) {
+                hasPlaceholder = true;
+                break;
+            }
+        }
+        Component constant = null;
+        if (!hasPlaceholder) {
+            TextComponent.Builder builder = Component.text();
+            for (Part part : parts) builder.append(part.literal());
+            constant = builder.build();
+        }
+        return new Message(template, parts.toArray(new Part[0]), constant);
+    }
+
+    /**
+     * 解析結果を (スタイル, 文字列) の並びに展開し、文字列をプレースホルダで分割する
+     */
+    private static void flatten(Component component, Style inherited, List<Part> out) {
+        Style style = inherited.merge(component.style());
+        if (component instanceof TextComponent text && !text.content().isEmpty()) {
+            split(text.content(), style, out);
+        }
+        for (Component child : component.children()) {
+            flatten(child, style, out);
+        }
+    }
+
+    private static void split(String content, Style style, List<Part> out) {
+        int literalStart = 0;
+        int i = 0;
+        while (i < content.length()) {
+            int open = content.indexOf('{', i);
+            if (open < 0) break;
+            int close = content.indexOf('}', open + 1);
+            if (close < 0) break;
+            int index = parseIndex(content, open + 1, close);
+            if (index < 0) {
+                i = open + 1;
+                continue;
+            }
+            if (open > literalStart) {
+                out.add(new Part(Component.text(content.substring(literalStart, open), style), -1, style));
+            }
+            out.add(new Part(null, index, style));
+            literalStart = close + 1;
+            i = literalStart;
+        }
+        if (literalStart < content.length()) {
+            out.add(new Part(Component.text(content.substring(literalStart), style), -1, style));
+        }
+    }
+
+    private static int parseIndex(String s, int from, int to) {
+        if (from >= to || to - from > 2) return -1;
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * 引数を埋め込んだ Component を返します
+     * Component の引数はその位置のスタイルを下地にし、それ以外は文字列にしてその位置のスタイルで表示します
+     * @param args {0} {1} ... に埋め込む値
+     */
+    public Component render(Object... args) {
+        if (constant != null) return constant;
+        if (args == null) args = NO_ARGS;
+
+        TextComponent.Builder builder = Component.text();
+        for (Part part : parts) {
+            if (part.literal() != null) {
+                builder.append(part.literal());
+                continue;
+            }
+            Object value = part.index() < args.length ? args[part.index()] : null;
+            if (value instanceof ComponentLike like) {
+                builder.append(like.asComponent().applyFallbackStyle(part.style()));
+            } else {
+                builder.append(Component.text(value != null ? value.toString() : "{" + part.index() + "}", part.style()));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 元のテンプレート文字列
+     */
+    public String getTemplate() {
+        return template;
+    }
+}
@@ -0,0 +1,164 @@
+package org.pexserver.koukunn.pexsurvival.Core.Message;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.kyori.adventure.text.Component;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.pexserver.koukunn.pexsurvival.Core.Config.ConfigBinding;
+import org.pexserver.koukunn.pexsurvival.Core.Config.ConfigManager;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * コマンド出力などのメッセージカタログ
+ * テンプレートは登録時・設定ファイルの読み込み時に一度だけ解析し（Message）、送信時は埋め込みだけを行います。
+ *
+ * 上書き: PEXConfig/messages/ 以下の JSON（{"キー": "テンプレート"} の形式）
+ * - default.json: すべての言語に適用
+ * - en.json / en_us.json など: クライアントの言語が一致するプレイヤーに適用（en_us → en → default の順に探す）
+ * ファイルの保存・外部編集は自動で反映されます（新しい言語ファイルを追加した場合は reload を呼び出す）
+ */
+public final class MessageCatalog {
+
+    private static final String DIR = "messages";
+    private static final String DEFAULT_TAG = "default";
+
+    private final ConfigManager configManager;
+    // コードで定義した既定のテンプレート
+    private final Map<String, Message> builtins = new ConcurrentHashMap<>();
+    // 言語タグ（default / en / en_us など） -> 上書きファイルの束縛
+    private volatile Map<String, ConfigBinding<Map<String, Message>>> overrides = Map.of();
+    // Locale -> 探索する言語タグの順番
+    private final Map<Locale, String[]> lookupOrder = new ConcurrentHashMap<>();
+
+    /**
+     * 上書きファイルを使わないカタログ
+     */
+    public MessageCatalog() {
+        this(null);
+    }
+
+    /**
+     * PEXConfig/messages の上書きを読み込むカタログ
+     */
+    public MessageCatalog(ConfigManager configManager) {
+        this.configManager = configManager;
+        define("command.error", "§c[エラー] {0}");
+        define("command.success", "§a[成功] {0}");
+        define("command.info", "§b[情報] {0}");
+        define("command.usage", "§c使用法: {0}");
+        define("command.failed", "§cコマンド実行中にエラーが発生しました");
+        reload();
+    }
+
+    /**
+     * 既定のテンプレートを定義します（同じキーは上書き）
+     */
+    public void define(String key, String template) {
+        builtins.put(key, Message.compile(template));
+    }
+
+    /**
+     * 既定のテンプレートをまとめて定義します
+     */
+    public void defineAll(Map<String, String> templates) {
+        for (Map.Entry<String, String> entry : templates.entrySet()) {
+            define(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * PEXConfig/messages 以下の言語ファイルを探し直して束縛します
+     */
+    public void reload() {
+        if (configManager == null) return;
+        Map<String, ConfigBinding<Map<String, Message>>> previous = overrides;
+        Map<String, ConfigBinding<Map<String, Message>>> next = new HashMap<>();
+        next.put(DEFAULT_TAG, bind(DEFAULT_TAG));
+        File[] files = new File(configManager.getBaseDir(), DIR).listFiles((d, n) -> n.endsWith(".json"));
+        if (files != null) {
+            for (File file : files) {
+                String tag = file.getName().substring(0, file.getName().length() - 5).toLowerCase();
+                next.putIfAbsent(tag, bind(tag));
+            }
+        }
+        overrides = Map.copyOf(next);
+        for (ConfigBinding<?> binding : previous.values()) {
+            configManager.unbind(binding);
+        }
+    }
+
+    private ConfigBinding<Map<String, Message>> bind(String tag) {
+        return configManager.bind(DIR + "/" + tag + ".json", JsonObject.class, MessageCatalog::compileAll, Map.of());
+    }
+
+    private static Map<String, Message> compileAll(JsonObject json) {
+        Map<String, Message> compiled = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+            if (entry.getValue().isJsonPrimitive()) {
+                compiled.put(entry.getKey(), Message.compile(entry.getValue().getAsString()));
+            }
+        }
+        return Map.copyOf(compiled);
+    }
+
+    /**
+     * 言語に合ったメッセージを取得します
+     * @param key キー
+     * @param locale 言語（null の場合は default のみ）
+     * @return メッセージ（未定義の場合はキーをそのまま表示するメッセージ）
+     */
+    public Message get(String key, Locale locale) {
+        Map<String, ConfigBinding<Map<String, Message>>> current = overrides;
+        if (!current.isEmpty()) {
+            for (String tag : tags(locale)) {
+                ConfigBinding<Map<String, Message>> binding = current.get(tag);
+                if (binding == null) continue;
+                Message message = binding.get().get(key);
+                if (message != null) return message;
+            }
+        }
+        Message message = builtins.get(key);
+        return message != null ? message : builtins.computeIfAbsent(key, Message::compile);
+    }
+
+    /**
+     * 送信先の言語に合ったメッセージを取得します（ループの前に一度だけ取得すると検索も省ける）
+     */
+    public Message get(String key, CommandSender sender) {
+        return get(key, localeOf(sender));
+    }
+
+    /**
+     * 引数を埋め込んだ Component を返します
+     */
+    public Component render(CommandSender sender, String key, Object... args) {
+        return get(key, sender).render(args);
+    }
+
+    /**
+     * メッセージを送信します
+     */
+    public void send(CommandSender sender, String key, Object... args) {
+        sender.sendMessage(render(sender, key, args));
+    }
+
+    private String[] tags(Locale locale) {
+        if (locale == null) return new String[] {DEFAULT_TAG};
+        return lookupOrder.computeIfAbsent(locale, l -> {
+            String full = l.toString().toLowerCase();
+            String language = l.getLanguage().toLowerCase();
+            if (full.isEmpty() || full.equals(language)) {
+                return language.isEmpty() ? new String[] {DEFAULT_TAG} : new String[] {language, DEFAULT_TAG};
+            }
+            return new String[] {full, language, DEFAULT_TAG};
+        });
+    }
+
+    private static Locale localeOf(CommandSender sender) {
+        return sender instanceof Player player ? player.locale() : null;
+    }
+}
@@ -0,0 +1,27 @@
+package org.pexserver.koukunn.pexsurvival.Core.Metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 単調増加するカウンター
+ * 記録はメモリ確保もロックも行わないため、イベントハンドラなどのホットパスから呼び出せます
+ */
+public final class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void inc() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
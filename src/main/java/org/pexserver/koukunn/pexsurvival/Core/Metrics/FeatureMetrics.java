@@ -0,0 +1,27 @@
+package org.pexserver.koukunn.pexsurvival.Core.Metrics;
+
+/**
+ * 機能ごとに事前に解決しておくメトリクス一式
+ * 機能はこのインスタンスをフィールドに保持し、ホットパスでは名前の検索をせずに直接記録します
+ */
+public final class FeatureMetrics {
+
+    /** 処理したイベント数 */
+    public final Counter events;
+    /** イベントハンドラの処理時間 */
+    public final Histogram eventTime;
+    /** 変更・破壊したブロック数 */
+    public final Counter blocksChanged;
+    /** スポーンさせたエンティティ数 */
+    public final Counter entitiesSpawned;
+    /** 送信したパーティクル数 */
+    public final Counter particlesSent;
+
+    FeatureMetrics(MetricsRegistry registry, String feature) {
+        this.events = registry.counter("pex_events_handled_total", "処理したイベント数", "feature", feature);
+        this.eventTime = registry.histogram("pex_event_handler_seconds", "イベントハンドラの処理時間", "feature", feature);
+        this.blocksChanged = registry.counter("pex_blocks_changed_total", "変更・破壊したブロック数", "feature", feature);
+        this.entitiesSpawned = registry.counter("pex_entities_spawned_total", "スポーンさせたエンティティ数", "feature", feature);
+        this.particlesSent = registry.counter("pex_particles_sent_total", "送信したパーティクル数", "feature", feature);
+    }
+}
@@ -0,0 +1,80 @@
+package org.pexserver.koukunn.pexsurvival.Core.Metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定バケットの処理時間ヒストグラム
+ * バケット境界は 10µs～100ms の固定値で、記録は境界の線形探索と LongAdder の加算だけです（メモリ確保なし）
+ */
+public final class Histogram {
+
+    /** バケットの上限（マイクロ秒）。最後のバケットはこれを超えるもの全て */
+    static final long[] BOUNDS_MICROS = {10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MICROS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    Histogram() {
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+    }
+
+    /**
+     * 処理時間を記録します
+     * @param nanos 経過時間（ナノ秒）
+     */
+    public void record(long nanos) {
+        long micros = nanos / 1000L;
+        int i = 0;
+        while (i < BOUNDS_MICROS.length && micros > BOUNDS_MICROS[i]) i++;
+        buckets[i].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * 開始時刻から現在までの経過時間を記録します
+     * @param startNanos System.nanoTime() で取得した開始時刻
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long count() {
+        long total = 0;
+        for (LongAdder b : buckets) total += b.sum();
+        return total;
+    }
+
+    public long sumNanos() {
+        return sumNanos.sum();
+    }
+
+    /**
+     * バケット i の件数（累積ではない）
+     */
+    long bucket(int i) {
+        return buckets[i].sum();
+    }
+
+    /**
+     * パーセンタイルの概算値を返します（該当バケットの上限）
+     * @param q 0.0～1.0
+     * @return マイクロ秒（記録が無い場合は 0、最後のバケットの場合は -1）
+     */
+    public long percentileMicros(double q) {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) return 0;
+
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return i < BOUNDS_MICROS.length ? BOUNDS_MICROS[i] : -1;
+        }
+        return -1;
+    }
+}
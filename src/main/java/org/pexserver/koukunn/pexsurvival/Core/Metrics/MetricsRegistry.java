@@ -0,0 +1,209 @@
+package org.pexserver.koukunn.pexsurvival.Core.Metrics;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * プラグイン全体のメトリクスを管理するレジストリ
+ * - カウンター / ヒストグラムは名前とラベルで登録し、返されたインスタンスを保持して記録する
+ * - 記録（inc / record）はメモリ確保なし。名前の検索は登録時の 1 回だけ
+ * - 定期的に Prometheus のテキスト形式で PEXConfig/metrics/metrics.prom に書き出す
+ */
+public class MetricsRegistry {
+
+    private static final String EXPORT_FILE = "metrics.prom";
+
+    // メトリクス名 -> 系列（名前順）
+    private final ConcurrentMap<String, Family> families = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, FeatureMetrics> features = new ConcurrentHashMap<>();
+    private BukkitTask exportTask;
+
+    /**
+     * カウンターを取得します（無ければ作成）
+     * @param name メトリクス名（Prometheus の命名規則に従う）
+     * @param help 説明
+     * @param labels ラベル名と値を交互に指定（例: "feature", "mobboom"）
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, "counter").series.computeIfAbsent(labels(labels), k -> new Counter());
+    }
+
+    /**
+     * 処理時間ヒストグラムを取得します（無ければ作成）
+     * @param name メトリクス名（単位は秒として書き出す）
+     * @param help 説明
+     * @param labels ラベル名と値を交互に指定
+     */
+    public Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) family(name, help, "histogram").series.computeIfAbsent(labels(labels), k -> new Histogram());
+    }
+
+    /**
+     * 機能ごとの標準メトリクスを取得します（無ければ作成）
+     * @param feature 機能名
+     */
+    public FeatureMetrics feature(String feature) {
+        return features.computeIfAbsent(feature, f -> new FeatureMetrics(this, f));
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.computeIfAbsent(name, n -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("メトリクス " + name + " は " + family.type + " として登録済みです");
+        }
+        return family;
+    }
+
+    private static String labels(String... labels) {
+        if (labels.length % 2 != 0) throw new IllegalArgumentException("ラベルは名前と値の組で指定してください");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(labels[i]).append("=\"")
+                    .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                    .append('"');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Prometheus のテキスト形式で書き出します
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Map.Entry<String, Family> fe : families.entrySet()) {
+            String name = fe.getKey();
+            Family family = fe.getValue();
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+
+            for (Map.Entry<String, Object> se : family.series.entrySet()) {
+                String labels = se.getKey();
+                if (se.getValue() instanceof Counter counter) {
+                    out.append(name);
+                    if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+                    out.append(' ').append(counter.get()).append('\n');
+                } else if (se.getValue() instanceof Histogram histogram) {
+                    String prefix = labels.isEmpty() ? "" : labels + ",";
+                    long cumulative = 0;
+                    for (int i = 0; i <= Histogram.BOUNDS_MICROS.length; i++) {
+                        cumulative += histogram.bucket(i);
+                        String le = i < Histogram.BOUNDS_MICROS.length
+                                ? BigDecimal.valueOf(Histogram.BOUNDS_MICROS[i], 6).stripTrailingZeros().toPlainString()
+                                : "+Inf";
+                        out.append(name).append("_bucket{").append(prefix).append("le=\"").append(le).append("\"} ")
+                                .append(cumulative).append('\n');
+                    }
+                    String suffix = labels.isEmpty() ? "" : "{" + labels + "}";
+                    out.append(name).append("_sum").append(suffix).append(' ')
+                            .append(BigDecimal.valueOf(histogram.sumNanos(), 9).toPlainString()).append('\n');
+                    out.append(name).append("_count").append(suffix).append(' ').append(cumulative).append('\n');
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * /pex metrics 用の要約（値が 0 の系列は省略）
+     */
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Family> fe : families.entrySet()) {
+            for (Map.Entry<String, Object> se : fe.getValue().series.entrySet()) {
+                String series = fe.getKey() + (se.getKey().isEmpty() ? "" : "{" + se.getKey() + "}");
+                if (se.getValue() instanceof Counter counter) {
+                    long value = counter.get();
+                    if (value != 0) lines.add(series + " = " + value);
+                } else if (se.getValue() instanceof Histogram histogram) {
+                    long count = histogram.count();
+                    if (count == 0) continue;
+                    long avgMicros = histogram.sumNanos() / count / 1000L;
+                    long p99 = histogram.percentileMicros(0.99);
+                    lines.add(series + " 件数=" + count + " 平均=" + avgMicros + "µs p99"
+                            + (p99 < 0 ? ">100ms" : "≦" + p99 + "µs"));
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * 定期書き出しを開始します（非同期スレッドで実行）
+     * @param plugin プラグイン
+     * @param dir 書き出し先フォルダ
+     * @param periodSeconds 書き出し間隔（秒）
+     */
+    public void startExport(Plugin plugin, File dir, long periodSeconds) {
+        stopExport();
+        File target = new File(dir, EXPORT_FILE);
+        long period = Math.max(1L, periodSeconds) * 20L;
+        exportTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            try {
+                export(target);
+            } catch (IOException e) {
+                plugin.getLogger().warning("メトリクスの書き出しに失敗しました: " + e.getMessage());
+            }
+        }, period, period);
+    }
+
+    /**
+     * 定期書き出しを停止します
+     */
+    public void stopExport() {
+        if (exportTask != null) {
+            exportTask.cancel();
+            exportTask = null;
+        }
+    }
+
+    /**
+     * 現在の値をファイルへ書き出します（一時ファイルに書いてから置き換える）
+     */
+    public void export(File target) throws IOException {
+        Path dir = target.toPath().toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, target.getName() + ".", ".tmp");
+        try {
+            Files.writeString(tmp, toPrometheus(), StandardCharsets.UTF_8);
+            try {
+                Files.move(tmp, target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 同じ名前のメトリクス（ラベル違い）の集まり
+     */
+    private static final class Family {
+        final String help;
+        final String type;
+        // ラベル -> Counter または Histogram
+        final ConcurrentMap<String, Object> series = new ConcurrentSkipListMap<>();
+
+        Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+}
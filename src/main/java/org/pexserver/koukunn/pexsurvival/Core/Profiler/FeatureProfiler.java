@@ -0,0 +1,315 @@
+package org.pexserver.koukunn.pexsurvival.Core.Profiler;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 機能ごとのメインスレッド使用時間を計測するプロファイラ
+ * - FeatureManager が登録するイベントハンドラと TickScheduler のタスクは自動で enter / exit に包まれる
+ * - 入れ子になった場合は内側の区間を外側から差し引く（自己時間のみを計上）
+ * - 計測値はティック終了時に 1 秒単位のバケットへ集約し、直近 5 分ぶんを保持する
+ * - 実行中の区間は StallWatchdog から参照できるよう volatile で公開する
+ * メインスレッド以外からの enter / exit は無視されます。
+ */
+public class FeatureProfiler implements Listener {
+
+    /** 1 バケットあたりのティック数（1 秒） */
+    private static final int TICKS_PER_BUCKET = 20;
+    /** 保持するバケット数（5 分） */
+    private static final int BUCKETS = 300;
+    /** 計測対象の最大数（超えた分は最後の枠にまとめる） */
+    private static final int MAX_SLOTS = 128;
+    private static final int MAX_DEPTH = 32;
+
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private final String[] names = new String[MAX_SLOTS];
+    private volatile int slotCount = 0;
+
+    // 現在のティックの計測値
+    private final long[] tickNanos = new long[MAX_SLOTS];
+    private final long[] tickBytes = new long[MAX_SLOTS];
+
+    // 1 秒ごとのバケット（リングバッファ）
+    private final long[][] bucketNanos = new long[BUCKETS][MAX_SLOTS];
+    private final long[][] bucketBytes = new long[BUCKETS][MAX_SLOTS];
+    private final long[] bucketTickNanos = new long[BUCKETS];
+    private final int[] bucketTicks = new int[BUCKETS];
+    private int bucket = 0;
+    private int ticksInBucket = 0;
+
+    // 計測開始からの累計（リプレイなど 5 分を超える集計用）
+    private final long[] totalNanos = new long[MAX_SLOTS];
+    private final long[] totalBytes = new long[MAX_SLOTS];
+    private long totalTickNanos = 0;
+    private long totalTicks = 0;
+
+    // 入れ子の計測区間
+    private final int[] stack = new int[MAX_DEPTH];
+    private int depth = 0;
+    private long segmentStart;
+    private long segmentBytes;
+
+    // StallWatchdog 用: 最も外側の区間の開始時刻（区間外は 0）・通し番号・現在の計測対象
+    private volatile long activeStart = 0;
+    private volatile long activeSeq = 0;
+    private volatile int activeSlot = -1;
+    private long seq = 0;
+
+    private final com.sun.management.ThreadMXBean threadBean;
+    private volatile Thread mainThread;
+    private Plugin plugin;
+
+    public FeatureProfiler() {
+        com.sun.management.ThreadMXBean bean = null;
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean tb
+                && tb.isThreadAllocatedMemorySupported()) {
+            if (!tb.isThreadAllocatedMemoryEnabled()) tb.setThreadAllocatedMemoryEnabled(true);
+            bean = tb;
+        }
+        this.threadBean = bean;
+    }
+
+    /**
+     * 計測を開始します（メインスレッドから呼び出してください）
+     */
+    public void start(Plugin plugin) {
+        if (this.plugin != null) return;
+        this.plugin = plugin;
+        this.mainThread = Thread.currentThread();
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * 計測を停止します
+     */
+    public void stop() {
+        if (plugin == null) return;
+        HandlerList.unregisterAll(this);
+        mainThread = null;
+        plugin = null;
+    }
+
+    /**
+     * 計測対象の番号を取得します（無ければ割り当て）
+     * ホットパスでは名前で検索せず、この番号を保持して enter に渡してください
+     * @param owner 機能名など
+     */
+    public int slot(String owner) {
+        Integer existing = slots.get(owner);
+        if (existing != null) return existing;
+        synchronized (slots) {
+            existing = slots.get(owner);
+            if (existing != null) return existing;
+            int id = Math.min(slotCount, MAX_SLOTS - 1);
+            if (id == MAX_SLOTS - 1) {
+                names[id] = "(その他)";
+            } else {
+                names[id] = owner;
+                slotCount = id + 1;
+            }
+            slots.put(owner, id);
+            return id;
+        }
+    }
+
+    /**
+     * 計測区間を開始します（必ず finally で exit を呼んでください）
+     * @param slot slot() で取得した番号
+     */
+    public void enter(int slot) {
+        if (Thread.currentThread() != mainThread) return;
+        long now = System.nanoTime();
+        long bytes = allocatedBytes();
+        if (depth > 0 && depth <= MAX_DEPTH) charge(stack[depth - 1], now, bytes);
+        if (depth < MAX_DEPTH) stack[depth] = slot;
+        if (depth == 0) {
+            activeSeq = ++seq;
+            activeStart = now;
+        }
+        depth++;
+        activeSlot = slot;
+        segmentStart = now;
+        segmentBytes = bytes;
+    }
+
+    /**
+     * 計測区間を終了します
+     */
+    public void exit() {
+        if (Thread.currentThread() != mainThread || depth == 0) return;
+        long now = System.nanoTime();
+        long bytes = allocatedBytes();
+        depth--;
+        if (depth < MAX_DEPTH) charge(stack[depth], now, bytes);
+        if (depth == 0) {
+            activeStart = 0;
+            activeSlot = -1;
+        } else if (depth <= MAX_DEPTH) {
+            activeSlot = stack[depth - 1];
+        }
+        // 外側の区間を再開
+        segmentStart = now;
+        segmentBytes = bytes;
+    }
+
+    /**
+     * 現在のティックでここまでに計測した時間の合計（ナノ秒、ティック終了時に 0 に戻る）
+     */
+    public long currentTickNanos() {
+        long total = 0;
+        for (int i = 0, n = Math.min(slotCount + 1, MAX_SLOTS); i < n; i++) total += tickNanos[i];
+        return total;
+    }
+
+    /**
+     * 現在のティックでここまでに計測したメモリ確保量の合計（バイト、ティック終了時に 0 に戻る）
+     */
+    public long currentTickBytes() {
+        long total = 0;
+        for (int i = 0, n = Math.min(slotCount + 1, MAX_SLOTS); i < n; i++) total += tickBytes[i];
+        return total;
+    }
+
+    // ===== StallWatchdog 用 =====
+
+    long activeStart() {
+        return activeStart;
+    }
+
+    long activeSeq() {
+        return activeSeq;
+    }
+
+    String activeOwner() {
+        int slot = activeSlot;
+        return slot >= 0 ? names[slot] : null;
+    }
+
+    Thread mainThread() {
+        return mainThread;
+    }
+
+    private void charge(int slot, long now, long bytes) {
+        tickNanos[slot] += now - segmentStart;
+        tickBytes[slot] += bytes - segmentBytes;
+    }
+
+    private long allocatedBytes() {
+        return threadBean != null ? threadBean.getCurrentThreadAllocatedBytes() : 0L;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(ServerTickEndEvent event) {
+        int n = Math.min(slotCount + 1, MAX_SLOTS);
+        long[] bn = bucketNanos[bucket];
+        long[] bb = bucketBytes[bucket];
+        for (int i = 0; i < n; i++) {
+            bn[i] += tickNanos[i];
+            bb[i] += tickBytes[i];
+            totalNanos[i] += tickNanos[i];
+            totalBytes[i] += tickBytes[i];
+            tickNanos[i] = 0;
+            tickBytes[i] = 0;
+        }
+        long duration = (long) (event.getTickDuration() * 1_000_000.0);
+        bucketTickNanos[bucket] += duration;
+        bucketTicks[bucket]++;
+        totalTickNanos += duration;
+        totalTicks++;
+
+        if (++ticksInBucket >= TICKS_PER_BUCKET) {
+            bucket = (bucket + 1) % BUCKETS;
+            Arrays.fill(bucketNanos[bucket], 0L);
+            Arrays.fill(bucketBytes[bucket], 0L);
+            bucketTickNanos[bucket] = 0;
+            bucketTicks[bucket] = 0;
+            ticksInBucket = 0;
+        }
+    }
+
+    /**
+     * 直近の計測結果を集計します（メインスレッドから呼び出してください）
+     * @param seconds 集計する秒数（60 = 1 分, 300 = 5 分）
+     * @return 自己時間の多い順に並んだ結果
+     */
+    public Report report(int seconds) {
+        int windows = Math.max(1, Math.min(seconds, BUCKETS));
+        int n = Math.min(slotCount + 1, MAX_SLOTS);
+        long[] nanos = new long[n];
+        long[] bytes = new long[n];
+        long totalTickNanos = 0;
+        long ticks = 0;
+
+        // 現在のバケット（途中まで）を含めて遡る
+        for (int w = 0; w < windows; w++) {
+            int b = Math.floorMod(bucket - w, BUCKETS);
+            for (int i = 0; i < n; i++) {
+                nanos[i] += bucketNanos[b][i];
+                bytes[i] += bucketBytes[b][i];
+            }
+            totalTickNanos += bucketTickNanos[b];
+            ticks += bucketTicks[b];
+        }
+
+        return toReport(nanos, bytes, ticks, totalTickNanos);
+    }
+
+    /**
+     * 計測開始からの累計を集計します（メインスレッドから呼び出してください）
+     * 2 回呼び出して差を取れば、任意の区間の結果になります
+     */
+    public Report totals() {
+        int n = Math.min(slotCount + 1, MAX_SLOTS);
+        return toReport(Arrays.copyOf(totalNanos, n), Arrays.copyOf(totalBytes, n), totalTicks, totalTickNanos);
+    }
+
+    private Report toReport(long[] nanos, long[] bytes, long ticks, long elapsedNanos) {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < nanos.length; i++) {
+            if (names[i] == null || (nanos[i] == 0 && bytes[i] == 0)) continue;
+            double share = elapsedNanos > 0 ? (double) nanos[i] / elapsedNanos : 0.0;
+            entries.add(new Entry(names[i], nanos[i], bytes[i], share));
+        }
+        entries.sort((a, b) -> Long.compare(b.nanos(), a.nanos()));
+        return new Report(List.copyOf(entries), ticks, elapsedNanos, threadBean != null);
+    }
+
+    /**
+     * 計測対象ごとの集計結果
+     * @param name 機能名など
+     * @param nanos 自己時間の合計（ナノ秒）
+     * @param bytes 確保したメモリの合計（バイト）
+     * @param share MSPT に占める割合（0.0～1.0）
+     */
+    public record Entry(String name, long nanos, long bytes, double share) {
+    }
+
+    /**
+     * 集計結果
+     * @param entries 自己時間の多い順
+     * @param ticks 集計したティック数
+     * @param tickNanos ティック処理時間の合計（ナノ秒）
+     * @param allocationSupported メモリ確保量を計測できるか
+     */
+    public record Report(List<Entry> entries, long ticks, long tickNanos, boolean allocationSupported) {
+
+        /**
+         * 平均 MSPT（ミリ秒）
+         */
+        public double averageMspt() {
+            return ticks > 0 ? tickNanos / 1_000_000.0 / ticks : 0.0;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.pexserver.koukunn.pexsurvival.Core.Profiler;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * StallWatchdog の設定（PEXConfig/watchdog.json）
+ * @param thresholdMillis この時間を超えて実行中のタスク・ハンドラを停滞として扱う
+ * @param maxSamples 1 回の停滞で採取するスタックの最大数
+ * @param sampleIntervalMillis スタック採取の間隔
+ */
+public record StallConfig(
+        @SerializedName("threshold_millis") int thresholdMillis,
+        @SerializedName("max_samples") int maxSamples,
+        @SerializedName("sample_interval_millis") int sampleIntervalMillis) {
+
+    public static final StallConfig DEFAULT = new StallConfig(20, 8, 5);
+
+    public StallConfig {
+        if (thresholdMillis <= 0) thresholdMillis = 20;
+        if (maxSamples <= 0) maxSamples = 8;
+        if (sampleIntervalMillis <= 0) sampleIntervalMillis = 5;
+    }
+}
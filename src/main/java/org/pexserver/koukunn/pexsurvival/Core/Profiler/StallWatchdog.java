@@ -0,0 +1,205 @@
+package org.pexserver.koukunn.pexsurvival.Core.Profiler;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * メインスレッドの停滞を検知する監視スレッド
+ * FeatureProfiler の計測区間（本プラグインのイベントハンドラ・TickScheduler のタスク）が閾値を超えて実行中の場合、
+ * メインスレッドのスタックを数回採取し、固定長のリングバッファに保存してログに出力します。
+ * 外部プロファイラを接続せずに、同期チャンク読み込みや大きな探索処理などの原因箇所を特定するためのものです。
+ */
+public class StallWatchdog {
+
+    /** 保持する停滞の件数 */
+    private static final int CAPACITY = 16;
+    /** 1 サンプルあたりに保持するフレーム数 */
+    private static final int MAX_FRAMES = 48;
+    /** 区間の終了を待つ最大時間（これを超えたら実行中のまま記録する） */
+    private static final long MAX_WAIT_NANOS = 5_000_000_000L;
+    private static final String PLUGIN_PACKAGE = "org.pexserver.koukunn.pexsurvival.";
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final FeatureProfiler profiler;
+    private final Logger logger;
+    private final Supplier<StallConfig> config;
+    private final Stall[] ring = new Stall[CAPACITY];
+    private int recorded = 0;
+    private volatile Thread thread;
+
+    public StallWatchdog(FeatureProfiler profiler, Logger logger, Supplier<StallConfig> config) {
+        this.profiler = profiler;
+        this.logger = logger;
+        this.config = config;
+    }
+
+    /**
+     * 監視スレッドを開始します
+     */
+    public void start() {
+        if (thread != null) return;
+        Thread t = new Thread(this::loop, "PEX-StallWatchdog");
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+    }
+
+    /**
+     * 監視スレッドを停止します
+     */
+    public void stop() {
+        Thread t = thread;
+        thread = null;
+        if (t != null) t.interrupt();
+    }
+
+    /**
+     * 記録された停滞を新しい順に返します
+     */
+    public synchronized List<Stall> recent() {
+        List<Stall> list = new ArrayList<>();
+        for (int i = 0; i < Math.min(recorded, CAPACITY); i++) {
+            list.add(ring[Math.floorMod(recorded - 1 - i, CAPACITY)]);
+        }
+        return list;
+    }
+
+    /**
+     * 番号を指定して停滞を取得します
+     * @return 見つからない（古くて破棄された）場合は null
+     */
+    public synchronized Stall get(int id) {
+        if (id <= 0 || id > recorded || id <= recorded - CAPACITY) return null;
+        return ring[(id - 1) % CAPACITY];
+    }
+
+    private synchronized Stall add(String owner, long durationNanos, boolean finished, List<StackTraceElement[]> samples) {
+        Stall stall = new Stall(recorded + 1, System.currentTimeMillis(), owner, durationNanos, finished, samples);
+        ring[recorded % CAPACITY] = stall;
+        recorded++;
+        return stall;
+    }
+
+    private void loop() {
+        long lastSeq = 0;
+        while (thread == Thread.currentThread()) {
+            StallConfig cfg = config.get();
+            long thresholdNanos = cfg.thresholdMillis() * 1_000_000L;
+            try {
+                Thread.sleep(Math.max(1, cfg.thresholdMillis() / 4));
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            long seq = profiler.activeSeq();
+            long start = profiler.activeStart();
+            // 読み取りの間に区間が切り替わった場合は次の周期で判定する
+            if (start == 0 || seq == lastSeq || seq != profiler.activeSeq()) continue;
+            if (System.nanoTime() - start < thresholdNanos) continue;
+
+            lastSeq = seq;
+            try {
+                capture(seq, start, cfg);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private boolean stillRunning(long seq) {
+        return profiler.activeSeq() == seq && profiler.activeStart() != 0;
+    }
+
+    private void capture(long seq, long start, StallConfig cfg) throws InterruptedException {
+        Thread main = profiler.mainThread();
+        if (main == null) return;
+        String owner = profiler.activeOwner();
+
+        List<StackTraceElement[]> samples = new ArrayList<>();
+        while (samples.size() < cfg.maxSamples() && System.nanoTime() - start < MAX_WAIT_NANOS) {
+            StackTraceElement[] stack = main.getStackTrace();
+            // 採取中に区間が終わっていたら、そのスタックは別の処理のものなので捨てる
+            if (!stillRunning(seq)) break;
+            samples.add(stack.length > MAX_FRAMES ? Arrays.copyOf(stack, MAX_FRAMES) : stack);
+            Thread.sleep(cfg.sampleIntervalMillis());
+        }
+        while (stillRunning(seq) && System.nanoTime() - start < MAX_WAIT_NANOS) {
+            Thread.sleep(1);
+        }
+
+        boolean finished = !stillRunning(seq);
+        Stall stall = add(owner, System.nanoTime() - start, finished, List.copyOf(samples));
+        log(stall);
+    }
+
+    private void log(Stall stall) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("メインスレッドの停滞を検知しました #").append(stall.id()).append(": ")
+                .append(stall.owner()).append(' ')
+                .append(String.format("%.1fms", stall.durationNanos() / 1_000_000.0))
+                .append(stall.finished() ? "" : " 以上（実行中）")
+                .append(" サンプル ").append(stall.samples().size()).append(" 件");
+        StackTraceElement[] first = stall.samples().isEmpty() ? null : stall.samples().get(0);
+        if (first != null) {
+            int limit = Math.min(first.length, 16);
+            for (int i = 0; i < limit; i++) sb.append("\n    at ").append(first[i]);
+        }
+        logger.warning(sb.toString());
+    }
+
+    /**
+     * 記録された停滞
+     * @param id 通し番号（/pex stalls &lt;番号&gt; で詳細表示）
+     * @param timeMillis 記録した時刻
+     * @param owner 停滞時に実行中だった計測対象（機能名など）
+     * @param durationNanos 区間の実行時間（実行中のまま記録した場合は記録時点まで）
+     * @param finished 区間が終了してから記録したか
+     * @param samples 採取したスタック（古い順）
+     */
+    public record Stall(int id, long timeMillis, String owner, long durationNanos, boolean finished,
+                        List<StackTraceElement[]> samples) {
+
+        public String time() {
+            return LocalTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault()).format(TIME);
+        }
+
+        /**
+         * サンプル中で最も多く現れたスタック先頭のフレーム（実際に時間を使っていた箇所）
+         */
+        public StackTraceElement hottestFrame() {
+            return mostCommon(false);
+        }
+
+        /**
+         * サンプル中で最も多く現れた本プラグイン内のフレーム（原因となった呼び出し元）
+         */
+        public StackTraceElement pluginFrame() {
+            return mostCommon(true);
+        }
+
+        private StackTraceElement mostCommon(boolean pluginOnly) {
+            Map<StackTraceElement, Integer> counts = new HashMap<>();
+            for (StackTraceElement[] stack : samples) {
+                for (StackTraceElement frame : stack) {
+                    if (pluginOnly && !frame.getClassName().startsWith(PLUGIN_PACKAGE)) continue;
+                    counts.merge(frame, 1, Integer::sum);
+                    break;
+                }
+            }
+            StackTraceElement best = null;
+            int bestCount = 0;
+            for (Map.Entry<StackTraceElement, Integer> e : counts.entrySet()) {
+                if (e.getValue() > bestCount) {
+                    best = e.getKey();
+                    bestCount = e.getValue();
+                }
+            }
+            return best;
+        }
+    }
+}
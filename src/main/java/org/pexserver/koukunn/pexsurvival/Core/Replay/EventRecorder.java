@@ -0,0 +1,217 @@
+package org.pexserver.koukunn.pexsurvival.Core.Replay;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * /pex record で使うイベントの記録
+ * プレイヤーの移動・ブロック破壊・参加/退出をリプレイログ（.pexr）としてデータフォルダ/replay に書き出します。
+ * メインスレッドではメモリ上のバッファへエンコードするだけで、ファイルへの書き込みは専用スレッドで行います。
+ * 書き出したログは負荷試験のリプレイ（./gradlew replay）で機能に流し直せます。
+ */
+public class EventRecorder implements Listener {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    // この量たまったら書き込みスレッドへ渡す
+    private static final int CHUNK_BYTES = 16 * 1024;
+    // たまっていなくても最低この間隔で渡す（ティック）
+    private static final int CHUNK_TICKS = 20;
+
+    private final Plugin plugin;
+    private ExecutorService writer;
+    private OutputStream out;
+    private ReplayWriter encoder;
+    private File file;
+    private long bytesWritten;
+    private int ticksSinceFlush;
+
+    public EventRecorder(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * 記録中かどうか
+     */
+    public boolean isRecording() {
+        return encoder != null;
+    }
+
+    /**
+     * 記録中のファイル（記録していなければ null）
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * これまでに書いたレコード数
+     */
+    public long getRecords() {
+        return encoder != null ? encoder.records() : 0;
+    }
+
+    /**
+     * これまでにエンコードしたバイト数
+     */
+    public long getBytes() {
+        return encoder != null ? bytesWritten + encoder.pending() : bytesWritten;
+    }
+
+    /**
+     * 記録を開始します（メインスレッドから呼び出してください）
+     * 開始時点でオンラインのプレイヤーは参加レコードとして書くため、ログ単体でリプレイできます
+     * @return 記録先のファイル
+     * @throws IllegalStateException 既に記録中の場合
+     */
+    public File start() throws IOException {
+        if (encoder != null) throw new IllegalStateException("既に記録中です");
+        File target = new File(new File(plugin.getDataFolder(), "replay"),
+                "pexsurvival-" + LocalDateTime.now().format(FILE_TIME) + ".pexr");
+        Files.createDirectories(target.getParentFile().toPath());
+        out = new BufferedOutputStream(Files.newOutputStream(target.toPath()), 65536);
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "PEX-Replay-Writer");
+            t.setDaemon(true);
+            return t;
+        });
+        file = target;
+        bytesWritten = 0;
+        ticksSinceFlush = 0;
+        encoder = new ReplayWriter(Bukkit.getCurrentTick(), System.currentTimeMillis());
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            join(player);
+        }
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        return target;
+    }
+
+    /**
+     * 記録を停止し、書き込みスレッドで残りを書き出して閉じます
+     * @param done 書き出し完了時にメインスレッドで呼ばれる（失敗時は null）
+     * @throws IllegalStateException 記録していない場合
+     */
+    public void stop(Consumer<File> done) {
+        if (encoder == null) throw new IllegalStateException("記録していません");
+        HandlerList.unregisterAll(this);
+        handOff();
+        File target = file;
+        OutputStream stream = out;
+        ExecutorService executor = writer;
+        encoder = null;
+        out = null;
+        writer = null;
+        file = null;
+
+        executor.execute(() -> {
+            File result = null;
+            try {
+                stream.close();
+                result = target;
+            } catch (IOException e) {
+                plugin.getLogger().warning("リプレイログの書き出しに失敗しました: " + e.getMessage());
+            }
+            File written = result;
+            if (plugin.isEnabled()) Bukkit.getScheduler().runTask(plugin, () -> done.accept(written));
+        });
+        executor.shutdown();
+    }
+
+    /**
+     * 記録中であれば残りを書き出して閉じます（プラグイン無効化時、完了まで待機）
+     */
+    public void close() {
+        if (encoder == null) return;
+        ExecutorService executor = writer;
+        stop(file -> {});
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("リプレイログの書き出しが時間内に終わりませんでした");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        join(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        encoder.tick(Bukkit.getCurrentTick());
+        encoder.quit(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent event) {
+        Location to = event.getTo();
+        encoder.tick(Bukkit.getCurrentTick());
+        encoder.move(event.getPlayer().getUniqueId(), to.getWorld().getName(),
+                to.getX(), to.getY(), to.getZ(), to.getYaw(), to.getPitch());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBreak(BlockBreakEvent event) {
+        Block block = event.getBlock();
+        encoder.tick(Bukkit.getCurrentTick());
+        encoder.blockBreak(event.getPlayer().getUniqueId(), block.getWorld().getName(),
+                block.getX(), block.getY(), block.getZ(), block.getType().name());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(ServerTickEndEvent event) {
+        if (++ticksSinceFlush >= CHUNK_TICKS || encoder.pending() >= CHUNK_BYTES) {
+            handOff();
+        }
+    }
+
+    private void join(Player player) {
+        Location loc = player.getLocation();
+        encoder.tick(Bukkit.getCurrentTick());
+        encoder.join(player.getUniqueId(), player.getName(), loc.getWorld().getName(),
+                loc.getX(), loc.getY(), loc.getZ(), loc.getYaw(), loc.getPitch());
+    }
+
+    /**
+     * たまったバイト列を書き込みスレッドへ渡す
+     */
+    private void handOff() {
+        ticksSinceFlush = 0;
+        if (encoder.pending() == 0) return;
+        byte[] chunk = encoder.take();
+        bytesWritten += chunk.length;
+        OutputStream stream = out;
+        writer.execute(() -> {
+            try {
+                stream.write(chunk);
+            } catch (IOException e) {
+                plugin.getLogger().warning("リプレイログの書き込みに失敗しました: " + e.getMessage());
+            }
+        });
+    }
+}
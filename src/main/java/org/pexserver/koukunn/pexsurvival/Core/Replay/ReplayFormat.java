@@ -0,0 +1,88 @@
+package org.pexserver.koukunn.pexsurvival.Core.Replay;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * リプレイログ（.pexr）の形式
+ *
+ * ヘッダ: マジック "PEXR"（4 バイト）、版（1 バイト）、記録開始時刻（エポックミリ秒、8 バイト）
+ * 以降はレコードの並び。各レコードは 1 バイトの種別に続けて可変長整数（varint）で本体を書く。
+ * 座標は 1/32 ブロック単位の固定小数点で、移動はプレイヤーごとの直前の位置からの差分（zigzag varint）にする。
+ * ワールド名・ブロック名は初出時に番号を振って一度だけ書く。
+ */
+final class ReplayFormat {
+
+    static final int MAGIC = 0x50455852; // "PEXR"
+    static final int VERSION = 1;
+
+    /** 座標の固定小数点の倍率（1/32 ブロック） */
+    static final double SCALE = 32.0;
+
+    /** ティックを進める: varint 差分 */
+    static final int TICK = 0;
+    /** ワールド名の定義: varint 番号, 文字列 */
+    static final int WORLD = 1;
+    /** ブロック名の定義: varint 番号, 文字列 */
+    static final int MATERIAL = 2;
+    /** 参加: varint プレイヤー番号, UUID（16 バイト）, 名前, varint ワールド, 絶対座標, 向き */
+    static final int JOIN = 3;
+    /** 退出: varint プレイヤー番号 */
+    static final int QUIT = 4;
+    /** 移動: varint プレイヤー番号, 座標の差分, 向き */
+    static final int MOVE = 5;
+    /** ワールドをまたぐ移動: varint プレイヤー番号, varint ワールド, 絶対座標, 向き */
+    static final int TELEPORT = 6;
+    /** ブロック破壊: varint プレイヤー番号, varint ブロック名, プレイヤーのブロック座標からの差分 */
+    static final int BREAK = 7;
+
+    private ReplayFormat() {}
+
+    static int fixed(double coordinate) {
+        return (int) Math.round(coordinate * SCALE);
+    }
+
+    static double unfixed(int fixed) {
+        return fixed / SCALE;
+    }
+
+    /** 向き（度）を 1 バイトに量子化 */
+    static byte angle(float degrees) {
+        return (byte) Math.round(degrees * 256.0f / 360.0f);
+    }
+
+    static float unangle(byte value) {
+        return value * 360.0f / 256.0f;
+    }
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("varint が長すぎます");
+    }
+
+    static int readSignedVarInt(DataInput in) throws IOException {
+        return unzigzag(readVarInt(in));
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = readVarInt(in);
+        if (length > 4096) throw new IOException("文字列が長すぎます: " + length);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
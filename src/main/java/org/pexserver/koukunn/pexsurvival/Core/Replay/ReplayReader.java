@@ -0,0 +1,157 @@
+package org.pexserver.koukunn.pexsurvival.Core.Replay;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * リプレイログ（.pexr）の読み込み
+ * Bukkit に依存しないので、負荷試験のリプレイやオフラインの解析ツールから使えます
+ */
+public final class ReplayReader {
+
+    /**
+     * 読み込んだレコードを受け取る
+     * 座標はすべて絶対座標に戻してから渡す
+     */
+    public interface Handler {
+        /** ティックが進んだ（記録開始からのティック数） */
+        void tick(long tick);
+
+        void join(int player, UUID uuid, String name, String world, double x, double y, double z, float yaw, float pitch);
+
+        void quit(int player);
+
+        /** 移動（ワールドをまたぐ場合も含む） */
+        void move(int player, String world, double x, double y, double z, float yaw, float pitch);
+
+        void blockBreak(int player, String world, int x, int y, int z, String material);
+    }
+
+    /**
+     * 読み込み結果の概要
+     * @param startMillis 記録開始時刻（エポックミリ秒）
+     * @param ticks 記録したティック数
+     * @param records レコード数
+     * @param truncated 末尾が途中で切れていた場合 true（サーバー停止時など）
+     */
+    public record Summary(long startMillis, long ticks, long records, boolean truncated) {
+    }
+
+    private static final class Track {
+        int world;
+        int x, y, z;
+    }
+
+    private ReplayReader() {}
+
+    /**
+     * ファイルを先頭から読み、レコードごとに handler を呼び出します
+     * @throws IOException 読み込みに失敗した場合、または形式が不正な場合
+     */
+    public static Summary read(File file, Handler handler) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath()), 65536))) {
+            if (in.readInt() != ReplayFormat.MAGIC) throw new IOException("リプレイログではありません: " + file);
+            int version = in.readUnsignedByte();
+            if (version != ReplayFormat.VERSION) throw new IOException("未対応のリプレイログの版です: " + version);
+            long startMillis = in.readLong();
+
+            List<String> worlds = new ArrayList<>();
+            List<String> materials = new ArrayList<>();
+            Map<Integer, Track> players = new HashMap<>();
+            long tick = 0;
+            long records = 0;
+
+            while (true) {
+                int type = in.read();
+                if (type < 0) return new Summary(startMillis, tick, records, false);
+                try {
+                    switch (type) {
+                        case ReplayFormat.TICK -> {
+                            tick += ReplayFormat.readVarInt(in);
+                            handler.tick(tick);
+                        }
+                        case ReplayFormat.WORLD -> define(worlds, ReplayFormat.readVarInt(in), ReplayFormat.readString(in));
+                        case ReplayFormat.MATERIAL -> define(materials, ReplayFormat.readVarInt(in), ReplayFormat.readString(in));
+                        case ReplayFormat.JOIN -> {
+                            int id = ReplayFormat.readVarInt(in);
+                            UUID uuid = new UUID(in.readLong(), in.readLong());
+                            String name = ReplayFormat.readString(in);
+                            Track track = new Track();
+                            players.put(id, track);
+                            readAbsolute(in, track);
+                            handler.join(id, uuid, name, lookup(worlds, track.world), ReplayFormat.unfixed(track.x),
+                                    ReplayFormat.unfixed(track.y), ReplayFormat.unfixed(track.z),
+                                    ReplayFormat.unangle(in.readByte()), ReplayFormat.unangle(in.readByte()));
+                        }
+                        case ReplayFormat.QUIT -> {
+                            int id = ReplayFormat.readVarInt(in);
+                            players.remove(id);
+                            handler.quit(id);
+                        }
+                        case ReplayFormat.MOVE, ReplayFormat.TELEPORT -> {
+                            int id = ReplayFormat.readVarInt(in);
+                            Track track = track(players, id);
+                            if (type == ReplayFormat.TELEPORT) {
+                                readAbsolute(in, track);
+                            } else {
+                                track.x += ReplayFormat.readSignedVarInt(in);
+                                track.y += ReplayFormat.readSignedVarInt(in);
+                                track.z += ReplayFormat.readSignedVarInt(in);
+                            }
+                            handler.move(id, lookup(worlds, track.world), ReplayFormat.unfixed(track.x),
+                                    ReplayFormat.unfixed(track.y), ReplayFormat.unfixed(track.z),
+                                    ReplayFormat.unangle(in.readByte()), ReplayFormat.unangle(in.readByte()));
+                        }
+                        case ReplayFormat.BREAK -> {
+                            int id = ReplayFormat.readVarInt(in);
+                            String material = lookup(materials, ReplayFormat.readVarInt(in));
+                            Track track = track(players, id);
+                            int scale = (int) ReplayFormat.SCALE;
+                            int x = Math.floorDiv(track.x, scale) + ReplayFormat.readSignedVarInt(in);
+                            int y = Math.floorDiv(track.y, scale) + ReplayFormat.readSignedVarInt(in);
+                            int z = Math.floorDiv(track.z, scale) + ReplayFormat.readSignedVarInt(in);
+                            handler.blockBreak(id, lookup(worlds, track.world), x, y, z, material);
+                        }
+                        default -> throw new IOException("不明なレコード種別: " + type);
+                    }
+                } catch (EOFException e) {
+                    // 書き込み途中で止まったログは、最後の完全なレコードまでを有効とする
+                    return new Summary(startMillis, tick, records, true);
+                }
+                records++;
+            }
+        }
+    }
+
+    private static void readAbsolute(DataInputStream in, Track track) throws IOException {
+        track.world = ReplayFormat.readVarInt(in);
+        track.x = ReplayFormat.readSignedVarInt(in);
+        track.y = ReplayFormat.readSignedVarInt(in);
+        track.z = ReplayFormat.readSignedVarInt(in);
+    }
+
+    private static Track track(Map<Integer, Track> players, int id) throws IOException {
+        Track track = players.get(id);
+        if (track == null) throw new IOException("参加していないプレイヤー番号: " + id);
+        return track;
+    }
+
+    private static void define(List<String> table, int id, String name) throws IOException {
+        if (id != table.size()) throw new IOException("番号が連続していません: " + id);
+        table.add(name);
+    }
+
+    private static String lookup(List<String> table, int id) throws IOException {
+        if (id < 0 || id >= table.size()) throw new IOException("未定義の番号: " + id);
+        return table.get(id);
+    }
+}
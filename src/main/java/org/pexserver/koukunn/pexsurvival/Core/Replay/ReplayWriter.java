@@ -0,0 +1,211 @@
+package org.pexserver.koukunn.pexsurvival.Core.Replay;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * リプレイログのエンコーダ（メインスレッド専用）
+ * イベントをメモリ上のバッファへ書き、take() で取り出したバイト列を書き込みスレッドへ渡す
+ */
+final class ReplayWriter {
+
+    /** プレイヤーごとの直前に書いた位置（差分の基準） */
+    private static final class Track {
+        final int id;
+        int world;
+        int x, y, z;
+
+        Track(int id) {
+            this.id = id;
+        }
+    }
+
+    private byte[] buffer = new byte[8192];
+    private int size = 0;
+    private long records = 0;
+
+    private final Map<UUID, Track> players = new HashMap<>();
+    private final Map<String, Integer> worlds = new HashMap<>();
+    private final Map<String, Integer> materials = new HashMap<>();
+    private int nextPlayer = 0;
+    private long lastTick;
+
+    ReplayWriter(long startTick, long startMillis) {
+        this.lastTick = startTick;
+        writeInt(ReplayFormat.MAGIC);
+        writeByte(ReplayFormat.VERSION);
+        writeLong(startMillis);
+    }
+
+    /**
+     * 現在のティックを記録する（前回から進んでいる場合のみ）
+     */
+    void tick(long tick) {
+        if (tick <= lastTick) return;
+        writeByte(ReplayFormat.TICK);
+        writeVarInt((int) Math.min(Integer.MAX_VALUE, tick - lastTick));
+        lastTick = tick;
+        records++;
+    }
+
+    void join(UUID uuid, String name, String world, double x, double y, double z, float yaw, float pitch) {
+        int worldId = worldId(world);
+        Track track = new Track(nextPlayer++);
+        players.put(uuid, track);
+        writeByte(ReplayFormat.JOIN);
+        writeVarInt(track.id);
+        writeLong(uuid.getMostSignificantBits());
+        writeLong(uuid.getLeastSignificantBits());
+        writeString(name);
+        writeAbsolute(track, worldId, x, y, z, yaw, pitch);
+        records++;
+    }
+
+    void quit(UUID uuid) {
+        Track track = players.remove(uuid);
+        if (track == null) return;
+        writeByte(ReplayFormat.QUIT);
+        writeVarInt(track.id);
+        records++;
+    }
+
+    void move(UUID uuid, String world, double x, double y, double z, float yaw, float pitch) {
+        Track track = players.get(uuid);
+        if (track == null) return;
+        int worldId = worldId(world);
+        if (worldId != track.world) {
+            writeByte(ReplayFormat.TELEPORT);
+            writeVarInt(track.id);
+            writeAbsolute(track, worldId, x, y, z, yaw, pitch);
+        } else {
+            int fx = ReplayFormat.fixed(x);
+            int fy = ReplayFormat.fixed(y);
+            int fz = ReplayFormat.fixed(z);
+            writeByte(ReplayFormat.MOVE);
+            writeVarInt(track.id);
+            writeVarInt(ReplayFormat.zigzag(fx - track.x));
+            writeVarInt(ReplayFormat.zigzag(fy - track.y));
+            writeVarInt(ReplayFormat.zigzag(fz - track.z));
+            writeByte(ReplayFormat.angle(yaw));
+            writeByte(ReplayFormat.angle(pitch));
+            track.x = fx;
+            track.y = fy;
+            track.z = fz;
+        }
+        records++;
+    }
+
+    void blockBreak(UUID uuid, String world, int x, int y, int z, String material) {
+        Track track = players.get(uuid);
+        if (track == null || worldId(world) != track.world) return;
+        int materialId = materialId(material);
+        writeByte(ReplayFormat.BREAK);
+        writeVarInt(track.id);
+        writeVarInt(materialId);
+        writeVarInt(ReplayFormat.zigzag(x - Math.floorDiv(track.x, (int) ReplayFormat.SCALE)));
+        writeVarInt(ReplayFormat.zigzag(y - Math.floorDiv(track.y, (int) ReplayFormat.SCALE)));
+        writeVarInt(ReplayFormat.zigzag(z - Math.floorDiv(track.z, (int) ReplayFormat.SCALE)));
+        records++;
+    }
+
+    /**
+     * 書き込み待ちのバイト数
+     */
+    int pending() {
+        return size;
+    }
+
+    /**
+     * これまでに書いたレコード数
+     */
+    long records() {
+        return records;
+    }
+
+    /**
+     * バッファの内容を取り出して空にする
+     */
+    byte[] take() {
+        byte[] chunk = Arrays.copyOf(buffer, size);
+        size = 0;
+        return chunk;
+    }
+
+    private void writeAbsolute(Track track, int worldId, double x, double y, double z, float yaw, float pitch) {
+        track.world = worldId;
+        track.x = ReplayFormat.fixed(x);
+        track.y = ReplayFormat.fixed(y);
+        track.z = ReplayFormat.fixed(z);
+        writeVarInt(worldId);
+        writeVarInt(ReplayFormat.zigzag(track.x));
+        writeVarInt(ReplayFormat.zigzag(track.y));
+        writeVarInt(ReplayFormat.zigzag(track.z));
+        writeByte(ReplayFormat.angle(yaw));
+        writeByte(ReplayFormat.angle(pitch));
+    }
+
+    private int worldId(String name) {
+        Integer id = worlds.get(name);
+        if (id != null) return id;
+        int created = worlds.size();
+        worlds.put(name, created);
+        writeByte(ReplayFormat.WORLD);
+        writeVarInt(created);
+        writeString(name);
+        records++;
+        return created;
+    }
+
+    private int materialId(String name) {
+        Integer id = materials.get(name);
+        if (id != null) return id;
+        int created = materials.size();
+        materials.put(name, created);
+        writeByte(ReplayFormat.MATERIAL);
+        writeVarInt(created);
+        writeString(name);
+        records++;
+        return created;
+    }
+
+    // ===== 低水準の書き込み =====
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+    }
+
+    private void writeByte(int value) {
+        ensure(1);
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeVarInt(int value) {
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeInt(int value) {
+        ensure(4);
+        for (int shift = 24; shift >= 0; shift -= 8) buffer[size++] = (byte) (value >>> shift);
+    }
+
+    private void writeLong(long value) {
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) buffer[size++] = (byte) (value >>> shift);
+    }
+
+    private void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+}
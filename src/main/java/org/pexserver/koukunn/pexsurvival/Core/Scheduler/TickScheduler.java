@@ -0,0 +1,335 @@
+package org.pexserver.koukunn.pexsurvival.Core.Scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.pexserver.koukunn.pexsurvival.Core.Jfr.BlockBatchEvent;
+import org.pexserver.koukunn.pexsurvival.Core.Profiler.FeatureProfiler;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * プラグイン全体で共有するティックスケジューラ
+ * - Bukkit には 1 ティック周期のタスクを 1 つだけ登録し、各機能のタスクはここで実行します
+ * - 機能（owner）ごとに 1 ティックあたりのマイクロ秒予算を持ち、予算を超えた分は次のティックへ持ち越します
+ * - 周期タスクの開始ティックをずらし、複数の機能が同じティックに集中しないようにします
+ * - 各タスクの実行は所有機能の計測区間としてプロファイラに記録されます
+ * タスクの実行はメインスレッドで行われます。登録はどのスレッドからでも可能です。
+ */
+public class TickScheduler {
+
+    /** 機能ごとの 1 ティックあたりのデフォルト予算（マイクロ秒） */
+    public static final long DEFAULT_BUDGET_MICROS = 2000;
+
+    private final Plugin plugin;
+    private final FeatureProfiler profiler;
+    private final Map<String, Lane> lanes = new LinkedHashMap<>();
+    private final Queue<TickTask> incoming = new ConcurrentLinkedQueue<>();
+    private Lane[] laneOrder = new Lane[0];
+    private BukkitTask driver;
+    private volatile long currentTick = 0;
+    private int staggerCursor = 0;
+    private int rotation = 0;
+
+    public TickScheduler(Plugin plugin) {
+        this(plugin, new FeatureProfiler());
+    }
+
+    public TickScheduler(Plugin plugin, FeatureProfiler profiler) {
+        this.plugin = plugin;
+        this.profiler = profiler;
+    }
+
+    /**
+     * スケジューラを開始します（Bukkit に 1 ティック周期のタスクを登録）
+     */
+    public void start() {
+        if (driver != null) return;
+        driver = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * スケジューラを停止し、すべてのタスクを破棄します
+     */
+    public void stop() {
+        if (driver != null) {
+            driver.cancel();
+            driver = null;
+        }
+        synchronized (lanes) {
+            for (Lane lane : lanes.values()) {
+                for (TickTask task : lane.tasks) task.cancel();
+                lane.tasks.clear();
+            }
+        }
+        TickTask pending;
+        while ((pending = incoming.poll()) != null) pending.cancel();
+    }
+
+    /**
+     * 機能の 1 ティックあたりの予算を設定します
+     * @param owner 機能名
+     * @param micros 予算（マイクロ秒）
+     */
+    public void setBudgetMicros(String owner, long micros) {
+        lane(owner).budgetNanos = Math.max(1L, micros) * 1000L;
+    }
+
+    /**
+     * 機能の 1 ティックあたりの予算を取得します
+     * @param owner 機能名
+     * @return 予算（マイクロ秒）
+     */
+    public long getBudgetMicros(String owner) {
+        return lane(owner).budgetNanos / 1000L;
+    }
+
+    /**
+     * 周期タスクを登録します。開始ティックは他のタスクと重ならないように自動でずらされます
+     * @param owner 機能名
+     * @param task タスク
+     * @param period 周期（ティック）
+     * @return 登録したタスク
+     */
+    public TickTask runTimer(String owner, TickTask task, long period) {
+        long p = Math.max(1L, period);
+        long delay;
+        synchronized (lanes) {
+            delay = 1L + (staggerCursor++ & Integer.MAX_VALUE) % p;
+        }
+        return schedule(owner, task, delay, p);
+    }
+
+    /**
+     * 開始ティックを指定して周期タスクを登録します
+     * @param owner 機能名
+     * @param task タスク
+     * @param delay 初回実行までのティック数
+     * @param period 周期（ティック）
+     * @return 登録したタスク
+     */
+    public TickTask runTimer(String owner, TickTask task, long delay, long period) {
+        return schedule(owner, task, delay, Math.max(1L, period));
+    }
+
+    /**
+     * Runnable を周期タスクとして登録します（開始ティックは自動でずらされます）
+     */
+    public TickTask runTimer(String owner, long period, Runnable runnable) {
+        return runTimer(owner, wrap(runnable), period);
+    }
+
+    /**
+     * 単発タスクを登録します
+     * @param owner 機能名
+     * @param task タスク
+     * @param delay 実行までのティック数（0 なら次のティック）
+     * @return 登録したタスク
+     */
+    public TickTask runLater(String owner, TickTask task, long delay) {
+        return schedule(owner, task, delay, 0L);
+    }
+
+    /**
+     * Runnable を単発タスクとして登録します
+     */
+    public TickTask runLater(String owner, long delay, Runnable runnable) {
+        return runLater(owner, wrap(runnable), delay);
+    }
+
+    /**
+     * 要素を 1 ティックあたり最大 maxPerTick 件ずつ処理するタスクを登録します
+     * 予算を使い切った場合は途中で打ち切り、残りは次のティックへ持ち越します
+     * 1 ティック分の処理は JFR の BlockBatch イベントとして記録されます
+     * @param owner 機能名
+     * @param items 処理対象
+     * @param maxPerTick 1 ティックあたりの最大件数
+     * @param action 各要素に対する処理
+     * @return 登録したタスク（すべて処理し終えると自動で停止します）
+     */
+    public <T> TickTask drain(String owner, Iterator<? extends T> items, int maxPerTick, Consumer<? super T> action) {
+        return schedule(owner, new DrainTask<>(items, Math.max(1, maxPerTick), action), 1L, 1L);
+    }
+
+    /**
+     * 指定した機能のタスクをすべて停止します（メインスレッドから呼び出してください）
+     * @param owner 機能名
+     */
+    public void cancelAll(String owner) {
+        synchronized (lanes) {
+            Lane lane = lanes.get(owner);
+            if (lane != null) {
+                for (TickTask task : lane.tasks) task.cancel();
+            }
+        }
+        for (TickTask task : incoming) {
+            if (owner.equals(task.owner)) task.cancel();
+        }
+    }
+
+    /**
+     * スケジューラが開始してからのティック数
+     * @return 現在のティック
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    private TickTask schedule(String owner, TickTask task, long delay, long period) {
+        task.owner = owner;
+        task.period = period;
+        task.nextTick = currentTick + Math.max(1L, delay);
+        incoming.add(task);
+        return task;
+    }
+
+    private static TickTask wrap(Runnable runnable) {
+        if (runnable instanceof TickTask) return (TickTask) runnable;
+        return new TickTask() {
+            @Override
+            public void run() {
+                runnable.run();
+            }
+        };
+    }
+
+    private Lane lane(String owner) {
+        synchronized (lanes) {
+            Lane lane = lanes.get(owner);
+            if (lane == null) {
+                lane = new Lane(owner);
+                lanes.put(owner, lane);
+                laneOrder = lanes.values().toArray(new Lane[0]);
+            }
+            return lane;
+        }
+    }
+
+    /**
+     * 毎ティック呼ばれるメインループ
+     */
+    private void tick() {
+        long tick = ++currentTick;
+
+        TickTask task;
+        while ((task = incoming.poll()) != null) {
+            if (!task.isCancelled()) lane(task.owner).tasks.add(task);
+        }
+
+        Lane[] order = laneOrder;
+        int n = order.length;
+        if (n == 0) return;
+        // 毎ティック先頭の機能を入れ替え、同じ機能が常に先に予算を使わないようにする
+        int start = (rotation++ & Integer.MAX_VALUE) % n;
+        for (int i = 0; i < n; i++) {
+            order[(start + i) % n].run(tick);
+        }
+    }
+
+    /**
+     * 機能ごとのタスク列
+     */
+    private final class Lane {
+        final String owner;
+        final int profileSlot;
+        final ArrayList<TickTask> tasks = new ArrayList<>();
+        long budgetNanos = DEFAULT_BUDGET_MICROS * 1000L;
+
+        Lane(String owner) {
+            this.owner = owner;
+            this.profileSlot = profiler.slot(owner);
+        }
+
+        void run(long tick) {
+            int size = tasks.size();
+            if (size == 0) return;
+
+            long deadline = System.nanoTime() + budgetNanos;
+            boolean ranAny = false;
+            boolean removed = false;
+            int offset = (int) (tick % size);
+
+            for (int i = 0; i < size; i++) {
+                TickTask task = tasks.get((offset + i) % size);
+                if (task.isCancelled()) {
+                    removed = true;
+                    continue;
+                }
+                if (task.nextTick > tick) continue;
+                // 予算切れ: nextTick を進めずに残し、次のティックへ持ち越す（最低 1 件は必ず実行する）
+                if (ranAny && System.nanoTime() >= deadline) continue;
+
+                ranAny = true;
+                boolean done;
+                profiler.enter(profileSlot);
+                try {
+                    done = task.runSlice(deadline);
+                } catch (Throwable t) {
+                    plugin.getLogger().warning("タスク実行エラー (" + owner + "): " + t);
+                    task.cancel();
+                    removed = true;
+                    continue;
+                } finally {
+                    profiler.exit();
+                }
+
+                if (!done) continue;
+                if (task.period > 0) {
+                    task.nextTick = tick + task.period;
+                } else {
+                    task.cancel();
+                }
+                if (task.isCancelled()) removed = true;
+            }
+
+            if (removed) tasks.removeIf(TickTask::isCancelled);
+        }
+    }
+
+    /**
+     * drain() で登録される逐次処理タスク
+     */
+    private static final class DrainTask<T> extends TickTask {
+        private final Iterator<? extends T> items;
+        private final int maxPerTick;
+        private final Consumer<? super T> action;
+
+        DrainTask(Iterator<? extends T> items, int maxPerTick, Consumer<? super T> action) {
+            this.items = items;
+            this.maxPerTick = maxPerTick;
+            this.action = action;
+        }
+
+        @Override
+        public void run() {
+            runSlice(Long.MAX_VALUE);
+        }
+
+        @Override
+        protected boolean runSlice(long deadlineNanos) {
+            BlockBatchEvent event = new BlockBatchEvent();
+            event.begin();
+            int processed = 0;
+            try {
+                while (processed < maxPerTick && items.hasNext()) {
+                    action.accept(items.next());
+                    processed++;
+                    if (System.nanoTime() >= deadlineNanos) break;
+                }
+            } finally {
+                if (event.shouldCommit()) {
+                    event.owner = owner;
+                    event.blocks = processed;
+                    event.commit();
+                }
+            }
+            if (!items.hasNext()) {
+                cancel();
+                return true;
+            }
+            return processed >= maxPerTick;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.pexserver.koukunn.pexsurvival.Core.Scheduler;
+
+/**
+ * TickScheduler で実行されるタスクの基底クラス
+ * BukkitRunnable と同じ感覚で run() を実装し、不要になったら cancel() で停止します
+ */
+public abstract class TickTask implements Runnable {
+
+    String owner;
+    long period;
+    long nextTick;
+    private volatile boolean cancelled = false;
+
+    /**
+     * このティック分の処理を行います
+     * 予算内で終わらない処理は false を返すことで、残りを次のティックへ持ち越せます
+     * @param deadlineNanos 所有機能の今ティックの予算が尽きる System.nanoTime() の値
+     * @return 今回分の処理が完了した場合 true
+     */
+    protected boolean runSlice(long deadlineNanos) {
+        run();
+        return true;
+    }
+
+    /**
+     * タスクを停止します（次のティック以降は実行されません）
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * タスクが停止済みかどうか
+     * @return 停止済みの場合 true
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * タスクを所有する機能名を返します
+     * @return 機能名
+     */
+    public String getOwner() {
+        return owner;
+    }
+}
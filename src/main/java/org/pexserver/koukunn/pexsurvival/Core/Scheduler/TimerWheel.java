@@ -0,0 +1,138 @@
+package org.pexserver.koukunn.pexsurvival.Core.Scheduler;
+
+import java.util.function.Consumer;
+
+/**
+ * ハッシュ化タイマーホイール
+ * 期限のティックを添字にしたスロットへタイマーを振り分け、advance() では今のティックのスロットだけを見ます
+ * 期限の来ていないタイマーに触れないので、タイマーの数が増えても 1 ティックの処理はほぼ一定です
+ * スレッドセーフではありません（メインスレッドから使ってください）
+ */
+public final class TimerWheel<T> {
+
+    /**
+     * 登録したタイマー（cancel() で取り消せます）
+     */
+    public static final class Timer<T> {
+        private final T item;
+        private long deadline;
+        private boolean cancelled;
+        private Timer<T> next;
+
+        private Timer(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        public T item() {
+            return item;
+        }
+
+        public long deadline() {
+            return deadline;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final Timer<T>[] slots;
+    private final int mask;
+    private long tick;
+    private int size;
+
+    /**
+     * @param slotCount スロット数（2 の累乗に切り上げます。よく使う周期より大きくすると一周待ちが減ります）
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(int slotCount) {
+        int n = Integer.highestOneBit(Math.max(2, slotCount) - 1) << 1;
+        this.slots = (Timer<T>[]) new Timer[n];
+        this.mask = n - 1;
+    }
+
+    /**
+     * delay ティック後に item を呼び出すタイマーを登録します
+     * @param delay 1 以上（0 以下は 1 とみなします）
+     */
+    public Timer<T> schedule(T item, long delay) {
+        Timer<T> timer = new Timer<>(item, tick + Math.max(1L, delay));
+        insert(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * 呼び出し済みのタイマーを delay ティック後に登録し直します（オブジェクトを作り直しません）
+     */
+    public Timer<T> reschedule(Timer<T> timer, long delay) {
+        if (timer.cancelled) return timer;
+        timer.deadline = tick + Math.max(1L, delay);
+        insert(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * 1 ティック進め、期限が来たタイマーの item を action に渡します
+     * 渡したタイマーはホイールから外れるので、続けて呼ぶ場合は action の中で reschedule してください
+     */
+    public void advance(Consumer<? super Timer<T>> action) {
+        long now = ++tick;
+        int index = (int) (now & mask);
+        Timer<T> timer = slots[index];
+        if (timer == null) return;
+        slots[index] = null;
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.next = null;
+            if (timer.cancelled) {
+                size--;
+            } else if (timer.deadline > now) {
+                // 一周以上先のタイマー
+                timer.next = slots[index];
+                slots[index] = timer;
+            } else {
+                size--;
+                action.accept(timer);
+            }
+            timer = next;
+        }
+    }
+
+    /**
+     * advance() で進めたティック数
+     */
+    public long currentTick() {
+        return tick;
+    }
+
+    /**
+     * 登録中のタイマー数（取り消し済みで、まだスロットに残っているものを含む）
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * すべてのタイマーを取り消して外します
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            for (Timer<T> t = slots[i]; t != null; t = t.next) t.cancelled = true;
+            slots[i] = null;
+        }
+        size = 0;
+    }
+
+    private void insert(Timer<T> timer) {
+        int index = (int) (timer.deadline & mask);
+        timer.next = slots[index];
+        slots[index] = timer;
+    }
+}
@@ -1,8 +1,17 @@
 package org.pexserver.koukunn.pexsurvival;
 
 import org.bukkit.plugin.java.JavaPlugin;
+import org.pexserver.koukunn.pexsurvival.Core.Bench.BenchRunner;
 import org.pexserver.koukunn.pexsurvival.Core.Command.CommandManager;
 import org.pexserver.koukunn.pexsurvival.Core.Feature.FeatureManager;
+import org.pexserver.koukunn.pexsurvival.Core.Jfr.JfrRecorder;
+import org.pexserver.koukunn.pexsurvival.Core.Message.MessageCatalog;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.MetricsRegistry;
+import org.pexserver.koukunn.pexsurvival.Core.Profiler.FeatureProfiler;
+import org.pexserver.koukunn.pexsurvival.Core.Profiler.StallConfig;
+import org.pexserver.koukunn.pexsurvival.Core.Profiler.StallWatchdog;
+import org.pexserver.koukunn.pexsurvival.Core.Replay.EventRecorder;
+import org.pexserver.koukunn.pexsurvival.Core.Scheduler.TickScheduler;
 import org.pexserver.koukunn.pexsurvival.Commands.Pex.PexCommand;
 import org.pexserver.koukunn.pexsurvival.Commands.help.HelpCommand;
 import org.pexserver.koukunn.pexsurvival.Module.NoJump.NoJumpFeature;
@@ -18,28 +27,59 @@ public final class Loader extends JavaPlugin {
     private CommandManager commandManager;
     private FeatureManager featureManager;
     private org.pexserver.koukunn.pexsurvival.Core.Config.ConfigManager configManager;
+    private TickScheduler tickScheduler;
+    private MetricsRegistry metrics;
+    private FeatureProfiler profiler;
+    private JfrRecorder jfrRecorder;
+    private StallWatchdog stallWatchdog;
+    private EventRecorder eventRecorder;
+    private BenchRunner benchRunner;
 
     @Override
     public void onEnable() {
-        // マネージャーを初期化
-        commandManager = new CommandManager(this);
-        featureManager = new FeatureManager(this);
+        long enableStart = System.nanoTime();
         // ConfigManager を初期化（PEXConfig フォルダを作成）
         configManager = new org.pexserver.koukunn.pexsurvival.Core.Config.ConfigManager(this);
-        // ConfigManager を初期化（PEXConfig フォルダを作成）
+        // 機能ごとのメインスレッド使用時間の計測を開始
+        profiler = new FeatureProfiler();
+        profiler.start(this);
+        // 計測区間が閾値（PEXConfig/watchdog.json）を超えたらスタックを採取する
+        if (!configManager.exists("watchdog.json")) {
+            configManager.saveConfig("watchdog.json", StallConfig.DEFAULT);
+        }
+        stallWatchdog = new StallWatchdog(profiler, getLogger(),
+                configManager.bind("watchdog.json", StallConfig.class, StallConfig.DEFAULT)::get);
+        stallWatchdog.start();
+        // 全機能で共有するティックスケジューラを開始
+        tickScheduler = new TickScheduler(this, profiler);
+        tickScheduler.start();
+        // メトリクスを初期化し、1 分ごとに PEXConfig/metrics へ書き出す
+        metrics = new MetricsRegistry();
+        metrics.startExport(this, new java.io.File(configManager.getBaseDir(), "metrics"), 60);
+        jfrRecorder = new JfrRecorder(this);
+        // /pex record で使うイベントの記録（開始するまでリスナーは登録しない）
+        eventRecorder = new EventRecorder(this);
+        // /pex bench で使う負荷試験（専用ワールドは実行時に作成する）
+        benchRunner = new BenchRunner(this, profiler);
+        // マネージャーを初期化
+        // メッセージは PEXConfig/messages で上書きできる
+        commandManager = new CommandManager(this, new MessageCatalog(configManager));
+        featureManager = new FeatureManager(this, configManager, tickScheduler, metrics, profiler);
 
         // 機能を登録
         registerFeatures();
         // 機能登録後に設定のクリーンアップ（不要なエントリを削除）を行う
         if (featureManager != null) {
             featureManager.cleanupConfig();
+            // 機能ごとの起動時間（無効な機能は初期化されないのでほぼ 0）
+            featureManager.logStartupReport();
         }
 
         // コマンドを登録
         registerCommands();
 
 
-        getLogger().info("PEX Survival Plugin が有効になりました");
+        getLogger().info(String.format("PEX Survival Plugin が有効になりました (%.1fms)", (System.nanoTime() - enableStart) / 1e6));
     }
 
     /**
@@ -64,7 +104,7 @@ public final class Loader extends JavaPlugin {
         commandManager.register(new HelpCommand(commandManager));
         
         // /pex コマンド（機能管理）
-        commandManager.register(new PexCommand(featureManager));
+        commandManager.register(new PexCommand(featureManager, metrics, profiler, jfrRecorder, stallWatchdog, eventRecorder, benchRunner));
 
         // 他のコマンドはここに追加できます
     }
@@ -89,12 +129,64 @@ public final class Loader extends JavaPlugin {
         return configManager;
     }
 
+    /**
+     * TickScheduler を取得
+     * @return TickScheduler インスタンス
+     */
+    public TickScheduler getTickScheduler() {
+        return tickScheduler;
+    }
+
+    /**
+     * MetricsRegistry を取得
+     * @return MetricsRegistry インスタンス
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * FeatureProfiler を取得
+     * @return FeatureProfiler インスタンス
+     */
+    public FeatureProfiler getProfiler() {
+        return profiler;
+    }
+
     @Override
     public void onDisable() {
+        // 実行中のベンチマークは結果を出さずに中止する（生成したモブの削除・プレイヤーの復元）
+        if (benchRunner != null) {
+            benchRunner.cancel();
+        }
         // 全機能を無効化
         if (featureManager != null) {
             featureManager.disableAll();
         }
+        if (tickScheduler != null) {
+            tickScheduler.stop();
+        }
+        if (metrics != null) {
+            metrics.stopExport();
+        }
+        if (stallWatchdog != null) {
+            stallWatchdog.stop();
+        }
+        if (profiler != null) {
+            profiler.stop();
+        }
+        if (jfrRecorder != null) {
+            jfrRecorder.close();
+        }
+        if (eventRecorder != null) {
+            // 記録中のリプレイログは残りを書き出して閉じる
+            eventRecorder.close();
+        }
+        if (configManager != null) {
+            // 書き込み待ちの設定をディスクへフラッシュしてから停止
+            configManager.flush();
+            configManager.close();
+        }
         
         getLogger().info("PEX Survival Plugin が無効になりました");
     }
@@ -1,48 +1,53 @@
 package org.pexserver.koukunn.pexsurvival.Module.MineOre;
 
+import org.pexserver.koukunn.pexsurvival.Core.Block.MaterialIndex;
+import org.pexserver.koukunn.pexsurvival.Core.Block.VeinSearch;
 import org.pexserver.koukunn.pexsurvival.Core.Feature.Feature;
+import org.pexserver.koukunn.pexsurvival.Loader;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.Sound;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.World;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.inventory.ItemStack;
+import org.pexserver.koukunn.pexsurvival.Core.Bench.BenchContext;
+import org.pexserver.koukunn.pexsurvival.Core.Bench.BenchLoad;
+import org.pexserver.koukunn.pexsurvival.Core.Jfr.VeinSearchEvent;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.FeatureMetrics;
+import org.pexserver.koukunn.pexsurvival.Core.Profiler.FeatureProfiler;
+import org.pexserver.koukunn.pexsurvival.Core.Scheduler.TickTask;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * 鉱石を一撃でまとめて破壊する機能（鉱脈破壊）
  */
 public class MineOreFeature implements Feature {
 
-    private boolean enabled = false;
-    private static final Set<Material> ORES = new HashSet<>(Arrays.asList(
-            Material.COAL_ORE, Material.IRON_ORE, Material.GOLD_ORE, Material.DIAMOND_ORE,
-            Material.EMERALD_ORE, Material.LAPIS_ORE, Material.REDSTONE_ORE, Material.NETHER_QUARTZ_ORE,
-            Material.NETHER_GOLD_ORE, Material.DEEPSLATE_COAL_ORE, Material.DEEPSLATE_IRON_ORE,
-            Material.DEEPSLATE_GOLD_ORE, Material.DEEPSLATE_DIAMOND_ORE, Material.DEEPSLATE_EMERALD_ORE,
-            Material.DEEPSLATE_LAPIS_ORE, Material.DEEPSLATE_REDSTONE_ORE, Material.COPPER_ORE
-    ));
-
-    private static final Set<Material> PICKAXES = new HashSet<>();
-    static {
-        PICKAXES.addAll(Arrays.asList(
-            Material.WOODEN_PICKAXE, Material.STONE_PICKAXE, Material.IRON_PICKAXE,
-            Material.GOLDEN_PICKAXE, Material.DIAMOND_PICKAXE, Material.NETHERITE_PICKAXE   
-        ));
+    private FeatureMetrics metrics;
+
+    private FeatureMetrics metrics() {
+        if (metrics == null) metrics = JavaPlugin.getPlugin(Loader.class).getMetrics().feature(getFeatureName());
+        return metrics;
     }
 
+    private boolean enabled = false;
+
     @Override public String getFeatureName() { return "mineore"; }
     @Override public String getDescription() { return "鉱脈を一撃で破壊します（同種の鉱石をまとめて破壊）"; }
     @Override public boolean isEnabled() { return enabled; }
     @Override public void enable() { if (enabled) return; enabled = true; Bukkit.getLogger().info("[PEX] MineOreFeature enabled"); }
-    @Override public void disable() { if (!enabled) return; enabled = false; Bukkit.getLogger().info("[PEX] MineOreFeature disabled"); }
+    @Override public void disable() { if (!enabled) return; enabled = false; JavaPlugin.getPlugin(Loader.class).getTickScheduler().cancelAll(getFeatureName()); Bukkit.getLogger().info("[PEX] MineOreFeature disabled"); }
     @Override public void reload() {}
 
-    @EventHandler
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
         if (!enabled) return;
         Player player = event.getPlayer();
@@ -55,63 +60,96 @@ public class MineOreFeature implements Feature {
         Block b = event.getBlock();
         var hand = player.getInventory().getItemInMainHand();
         if (hand == null || hand.getType() == Material.AIR) return;
-        boolean isPick = false;
-        try {
-            isPick = org.bukkit.Tag.ITEMS_PICKAXES.isTagged(hand.getType());
-        } catch (Throwable ignored) {
-            isPick = PICKAXES.contains(hand.getType());
-        }
-        if (!isPick) return;
+        if (!MaterialIndex.isPickaxe(hand.getType())) return;
+        if (!MaterialIndex.isOre(b.getType())) return;
+
+        mine(b, () -> player.getInventory().getItemInMainHand());
+    }
+
+    /**
+     * 起点の鉱石と同じ種類でつながる鉱石を探し、数ティックに分けて破壊する
+     * @param tool 破壊に使う道具（ドロップの計算用、破壊のたびに取得する）
+     * @return 破壊を進めるタスク（破壊するものが無ければ null）
+     */
+    private TickTask mine(Block b, Supplier<ItemStack> tool) {
         Material t = b.getType();
-        if (!ORES.contains(t)) return;
-
-        List<Block> vein = new ArrayList<>();
-        Deque<Block> stack = new ArrayDeque<>();
-        Set<Block> seen = new HashSet<>();
-        stack.push(b);
-        seen.add(b);
-        int limit = 300;
-
-        while (!stack.isEmpty() && vein.size() < limit) {
-            Block cur = stack.pop();
-            vein.add(cur);
-            for (int dx = -1; dx <= 1; dx++) for (int dy = -1; dy <= 1; dy++) for (int dz = -1; dz <= 1; dz++) {
-                if (dx == 0 && dy == 0 && dz == 0) continue;
-                Block nb = cur.getRelative(dx, dy, dz);
-                if (nb == null) continue;
-                if (seen.contains(nb)) continue;
-                if (nb.getType() == t) {
-                    seen.add(nb);
-                    stack.push(nb);
-                }
-            }
+        VeinSearchEvent search = new VeinSearchEvent();
+        search.begin();
+        World world = b.getWorld();
+        int limit = 300; // 上限（起点を含む）
+        // 座標だけで探索し、Block は破壊するときに作る
+        long[] found = VeinSearch.search(b.getX(), b.getY(), b.getZ(), limit,
+                (x, y, z) -> world.getType(x, y, z) == t);
+        List<Block> vein = new ArrayList<>(found.length);
+        for (long p : found) {
+            vein.add(world.getBlockAt(VeinSearch.unpackX(p), VeinSearch.unpackY(p), VeinSearch.unpackZ(p)));
         }
+        search.end();
+        if (search.shouldCommit()) {
+            search.feature = getFeatureName();
+            search.material = t.name();
+            search.blocks = vein.size();
+            search.commit();
+        }
+        if (vein.isEmpty()) return null;
 
-        vein.removeIf(x -> x.equals(b));
-        if (vein.isEmpty()) return;
-
-        var pl = JavaPlugin.getPlugin(org.pexserver.koukunn.pexsurvival.Loader.class);
         final int perTick = 8;
 
-        new BukkitRunnable() {
-            final Iterator<Block> it = vein.iterator();
+        // 1ティックあたり最大 perTick 個ずつ破壊（機能の予算を超えた分は次のティックへ持ち越し）
+        return JavaPlugin.getPlugin(Loader.class).getTickScheduler().drain(getFeatureName(), vein.iterator(), perTick, br -> {
+            try {
+                br.breakNaturally(tool.get());
+                metrics().blocksChanged.inc();
+                if (br.getWorld() != null) br.getWorld().playSound(br.getLocation(), Sound.BLOCK_STONE_BREAK, 1.0f, 1.0f);
+            } catch (Exception ignored) {}
+        });
+    }
+
+    /**
+     * 毎ティック intensity 個の鉱脈（鉄鉱石 3x2x3）を置いて破壊する
+     * イベントの条件（ツルハシ）の判定は省き、探索と破壊の部分だけに負荷をかける
+     */
+    @Override
+    public BenchLoad createBenchLoad(BenchContext context) {
+        ItemStack pickaxe = new ItemStack(Material.NETHERITE_PICKAXE);
+        // 破壊の処理はイベント経由ではないので、ここで機能の計測区間に入れる（ブロックの設置は含めない）
+        FeatureProfiler profiler = JavaPlugin.getPlugin(Loader.class).getProfiler();
+        int slot = profiler.slot(getFeatureName());
+        return new BenchLoad() {
+            private final List<TickTask> drains = new ArrayList<>();
+            private int next = 0;
 
             @Override
-            public void run() {
-                if (!enabled || !it.hasNext()) {
-                    cancel();
-                    return;
-                }
-                int i = 0;
-                while (i < perTick && it.hasNext()) {
-                    Block br = it.next();
+            public int tick(int tick) {
+                for (int i = 0; i < context.intensity(); i++) {
+                    Location base = context.cell(next++, 4);
+                    World world = base.getWorld();
+                    int x = base.getBlockX(), y = base.getBlockY(), z = base.getBlockZ();
+                    for (int dx = 0; dx < 3; dx++) for (int dy = 0; dy < 2; dy++) for (int dz = 0; dz < 3; dz++) {
+                        world.getBlockAt(x + dx, y + dy, z + dz).setType(Material.IRON_ORE, false);
+                    }
+                    profiler.enter(slot);
                     try {
-                        br.breakNaturally(player.getInventory().getItemInMainHand());
-                        if (br.getWorld() != null) br.getWorld().playSound(br.getLocation(), Sound.BLOCK_STONE_BREAK, 1.0f, 1.0f);
-                    } catch (Exception ignored) {}
-                    i++;
+                        track(mine(world.getBlockAt(x, y, z), () -> pickaxe));
+                    } finally {
+                        profiler.exit();
+                    }
                 }
+                return context.intensity();
+            }
+
+            private void track(TickTask drain) {
+                if (drain == null) return;
+                drains.removeIf(TickTask::isCancelled);
+                drains.add(drain);
+            }
+
+            @Override
+            public void close() {
+                // ワールドを閉じる前に、破壊しきれていない分を止める
+                for (TickTask drain : drains) drain.cancel();
+                drains.clear();
             }
-        }.runTaskTimer(pl, 1L, 1L);
+        };
     }
 }
@@ -1,6 +1,9 @@
 package org.pexserver.koukunn.pexsurvival.Module.MobBoom;
 
+import org.pexserver.koukunn.pexsurvival.Core.Bench.BenchContext;
+import org.pexserver.koukunn.pexsurvival.Core.Bench.BenchLoad;
 import org.pexserver.koukunn.pexsurvival.Core.Feature.Feature;
+import org.pexserver.koukunn.pexsurvival.Loader;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Particle;
@@ -11,17 +14,30 @@ import org.bukkit.entity.Player;
 import org.bukkit.GameMode;
 import org.bukkit.entity.Villager;
 import org.bukkit.entity.Enderman;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Zombie;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.player.PlayerMoveEvent;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.FeatureMetrics;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
 
 public class MobBoomFeature implements Feature {
 
+    private FeatureMetrics metrics;
+
+    private FeatureMetrics metrics() {
+        if (metrics == null) metrics = JavaPlugin.getPlugin(Loader.class).getMetrics().feature(getFeatureName());
+        return metrics;
+    }
+
     private boolean enabled = false;
     private final Random random = new Random();
 
@@ -54,6 +70,8 @@ public class MobBoomFeature implements Feature {
     @Override
     public void disable() {
         this.enabled = false;
+        // 予約済みの爆発も取り消す
+        JavaPlugin.getPlugin(Loader.class).getTickScheduler().cancelAll(getFeatureName());
         mobBoomSchedule.clear();
         lastWarningTime.clear();
         Bukkit.getLogger().info("[PEX] MobBoomFeature disabled");
@@ -64,7 +82,67 @@ public class MobBoomFeature implements Feature {
 
     }
 
-    @EventHandler
+    @Override
+    public int getStateSize() {
+        return mobBoomSchedule.size() + lastWarningTime.size();
+    }
+
+    /**
+     * 実行したプレイヤーをベンチマーク用ワールドへ移し、周囲に動かないゾンビを置いて
+     * 毎ティック intensity 回の移動イベントを発火する（intensity 人が同時に歩いている状態に相当）
+     * ゾンビは爆発の距離（2 ブロック）より外に置くので、近くのモブを探す処理だけに負荷がかかる
+     */
+    @Override
+    public BenchLoad createBenchLoad(BenchContext context) {
+        Player player = context.requirePlayer();
+        if (!enabled) throw new IllegalStateException("mobboom を有効にしてから実行してください");
+
+        Location returnTo = player.getLocation().clone();
+        GameMode gameMode = player.getGameMode();
+        boolean invulnerable = player.isInvulnerable();
+        Location center = context.origin().clone().add(context.size() / 2.0, 0, context.size() / 2.0);
+        player.teleport(center);
+        player.setGameMode(GameMode.SURVIVAL);
+        player.setInvulnerable(true);
+
+        List<Entity> mobs = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            double angle = context.random().nextDouble() * Math.PI * 2;
+            double radius = 3 + context.random().nextDouble() * 7;
+            Location at = center.clone().add(Math.cos(angle) * radius, 0, Math.sin(angle) * radius);
+            Zombie zombie = (Zombie) context.world().spawnEntity(at, EntityType.ZOMBIE);
+            zombie.setAI(false);
+            zombie.setSilent(true);
+            zombie.setPersistent(false);
+            mobs.add(zombie);
+        }
+
+        return new BenchLoad() {
+            @Override
+            public int tick(int tick) {
+                Location from = player.getLocation();
+                for (int i = 0; i < context.intensity(); i++) {
+                    Location to = from.clone().add(0.01 * ((i & 1) == 0 ? 1 : -1), 0, 0);
+                    Bukkit.getPluginManager().callEvent(new PlayerMoveEvent(player, from, to));
+                }
+                return context.intensity();
+            }
+
+            @Override
+            public void close() {
+                for (Entity mob : mobs) {
+                    mobBoomSchedule.remove(mob);
+                    lastWarningTime.remove(mob);
+                    mob.remove();
+                }
+                player.setInvulnerable(invulnerable);
+                player.setGameMode(gameMode);
+                player.teleport(returnTo);
+            }
+        };
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent event) {
         if (!enabled)
             return;
@@ -124,22 +202,17 @@ public class MobBoomFeature implements Feature {
     }
 
     private void scheduleExplosion(LivingEntity mob, long delaySeconds, Player cause) {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (mob.isDead() || !mob.isValid()) {
-                    mobBoomSchedule.remove(mob);
-                    lastWarningTime.remove(mob);
-                    cancel();
-                    return;
-                }
-
-                explodeMob(mob, cause);
+        JavaPlugin.getPlugin(Loader.class).getTickScheduler().runLater(getFeatureName(), delaySeconds * 20L, () -> {
+            if (mob.isDead() || !mob.isValid()) {
                 mobBoomSchedule.remove(mob);
                 lastWarningTime.remove(mob);
-                cancel();
+                return;
             }
-        }.runTaskLater(Bukkit.getPluginManager().getPlugin("pexsurvival"), delaySeconds * 20L);
+
+            explodeMob(mob, cause);
+            mobBoomSchedule.remove(mob);
+            lastWarningTime.remove(mob);
+        });
     }
 
     private void explodeMob(LivingEntity mob, Player cause) {
@@ -182,9 +255,12 @@ public class MobBoomFeature implements Feature {
             return;
 
         world.spawnParticle(Particle.EXPLOSION, center, 3, 0.5, 0.5, 0.5, 0.1);
+        metrics().particlesSent.add(3);
 
         world.spawnParticle(Particle.FLAME, center, 20, 1.0, 1.0, 1.0, 0.1);
+        metrics().particlesSent.add(20);
 
         world.spawnParticle(Particle.SMOKE, center, 15, 0.8, 0.8, 0.8, 0.05);
+        metrics().particlesSent.add(15);
     }
 }
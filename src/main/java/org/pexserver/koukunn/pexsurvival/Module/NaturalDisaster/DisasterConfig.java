@@ -1,63 +1,119 @@
 package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster;
 
-import java.util.HashMap;
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 
 /**
- * 自然災害の設定クラス
- * PEXConfig/naturaldisaster.json から読み込まれる
+ * 自然災害の設定（不変）
+ * PEXConfig/naturaldisaster.json から ConfigManager#bind で読み込まれる
+ * 不正な値（0 以下など）はデフォルト値に補正される
+ * 重み（weights / world_weights / biome_weights）のキーは災害の ID か名前。掛け合わせた値で抽選し、0 なら発生しない
  */
-public class DisasterConfig {
-    
-    private int default_min_seconds = 30;
-    private int default_max_seconds = 60;
-    private Map<String, DisasterDuration> per_disaster = new HashMap<>();
-    
-    public int getDefaultMinSeconds() {
-        return default_min_seconds;
-    }
-    
-    public void setDefaultMinSeconds(int default_min_seconds) {
-        this.default_min_seconds = default_min_seconds;
+public record DisasterConfig(
+        @SerializedName("default_min_seconds") int defaultMinSeconds,
+        @SerializedName("default_max_seconds") int defaultMaxSeconds,
+        @SerializedName("per_disaster") Map<String, DisasterDuration> perDisaster,
+        @SerializedName("weights") Map<String, Double> weights,
+        @SerializedName("world_weights") Map<String, Map<String, Double>> worldWeights,
+        @SerializedName("biome_weights") Map<String, Map<String, Double>> biomeWeights) {
+
+    public static final int DEFAULT_MIN_SECONDS = 30;
+    public static final int DEFAULT_MAX_SECONDS = 60;
+
+    /** ファイルが無い場合の設定 */
+    public static final DisasterConfig DEFAULT = new DisasterConfig(DEFAULT_MIN_SECONDS, DEFAULT_MAX_SECONDS, null, null, null, null);
+
+    public DisasterConfig {
+        if (defaultMinSeconds <= 0) defaultMinSeconds = DEFAULT_MIN_SECONDS;
+        if (defaultMaxSeconds <= 0) defaultMaxSeconds = DEFAULT_MAX_SECONDS;
+        if (defaultMaxSeconds < defaultMinSeconds) defaultMaxSeconds = defaultMinSeconds;
+
+        Map<String, DisasterDuration> copy = new LinkedHashMap<>();
+        if (perDisaster != null) {
+            for (Map.Entry<String, DisasterDuration> e : perDisaster.entrySet()) {
+                if (e.getKey() == null || e.getValue() == null || e.getValue().minSeconds() <= 0) continue;
+                copy.put(e.getKey(), e.getValue());
+            }
+        }
+        perDisaster = Collections.unmodifiableMap(copy);
+        weights = copyWeights(weights);
+
+        Map<String, Map<String, Double>> worlds = new LinkedHashMap<>();
+        if (worldWeights != null) {
+            for (Map.Entry<String, Map<String, Double>> e : worldWeights.entrySet()) {
+                if (e.getKey() != null && e.getValue() != null) worlds.put(e.getKey(), copyWeights(e.getValue()));
+            }
+        }
+        worldWeights = Collections.unmodifiableMap(worlds);
+
+        // バイオーム名は minecraft: を省いた小文字（plains, desert など）に揃える
+        Map<String, Map<String, Double>> biomes = new LinkedHashMap<>();
+        if (biomeWeights != null) {
+            for (Map.Entry<String, Map<String, Double>> e : biomeWeights.entrySet()) {
+                if (e.getKey() == null || e.getValue() == null) continue;
+                String biome = e.getKey().toLowerCase(Locale.ROOT);
+                if (biome.startsWith("minecraft:")) biome = biome.substring("minecraft:".length());
+                biomes.put(biome, copyWeights(e.getValue()));
+            }
+        }
+        biomeWeights = Collections.unmodifiableMap(biomes);
     }
-    
-    public int getDefaultMaxSeconds() {
-        return default_max_seconds;
+
+    // 負の値・NaN・null を除いた不変のコピー
+    private static Map<String, Double> copyWeights(Map<String, Double> source) {
+        Map<String, Double> copy = new LinkedHashMap<>();
+        if (source != null) {
+            for (Map.Entry<String, Double> e : source.entrySet()) {
+                Double w = e.getValue();
+                if (e.getKey() == null || w == null || !(w >= 0) || w.isInfinite()) continue;
+                copy.put(e.getKey(), w);
+            }
+        }
+        return Collections.unmodifiableMap(copy);
     }
-    
-    public void setDefaultMaxSeconds(int default_max_seconds) {
-        this.default_max_seconds = default_max_seconds;
+
+    /**
+     * 最短持続時間（ティック）
+     */
+    public int minDurationTicks() {
+        return defaultMinSeconds * 20;
     }
-    
-    public Map<String, DisasterDuration> getPerDisaster() {
-        return per_disaster;
+
+    /**
+     * 最長持続時間（ティック）
+     */
+    public int maxDurationTicks() {
+        return defaultMaxSeconds * 20;
     }
-    
-    public void setPerDisaster(Map<String, DisasterDuration> per_disaster) {
-        this.per_disaster = per_disaster;
+
+    /**
+     * 災害の持続時間の範囲（ティック）
+     * per_disaster に ID か名前で設定があればそれを、無ければ災害の既定値、それも無ければ全体の既定値を使う
+     * @param fallback 災害が宣言する既定値（null 可）
+     * @return [最短, 最長]
+     */
+    public int[] durationTicks(String id, String name, DisasterDuration fallback) {
+        DisasterDuration d = perDisaster.get(id);
+        if (d == null) d = perDisaster.get(name);
+        if (d == null) d = fallback;
+        if (d == null || d.minSeconds() <= 0) return new int[] {minDurationTicks(), maxDurationTicks()};
+        return new int[] {d.minSeconds() * 20, d.maxSeconds() * 20};
     }
-    
+
     /**
      * 災害ごとの持続時間設定
+     * max_seconds が min_seconds より短い（省略を含む）場合は min_seconds に揃える
      */
-    public static class DisasterDuration {
-        private int min_seconds;
-        private int max_seconds;
-        
-        public int getMinSeconds() {
-            return min_seconds;
-        }
-        
-        public void setMinSeconds(int min_seconds) {
-            this.min_seconds = min_seconds;
-        }
-        
-        public int getMaxSeconds() {
-            return max_seconds;
-        }
-        
-        public void setMaxSeconds(int max_seconds) {
-            this.max_seconds = max_seconds;
+    public record DisasterDuration(
+            @SerializedName("min_seconds") int minSeconds,
+            @SerializedName("max_seconds") int maxSeconds) {
+
+        public DisasterDuration {
+            if (maxSeconds < minSeconds) maxSeconds = minSeconds;
         }
     }
 }
@@ -0,0 +1,111 @@
+package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+import org.pexserver.koukunn.pexsurvival.Core.Scheduler.TimerWheel;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Disasters.Disaster;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Disasters.DisasterScope;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect.PlannerPool;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * ワールド 1 つで進行中の災害の状態
+ * 災害ごとに増える状態はここにフィールドとして足す（ワールド名をキーにしたマップを増やさない）
+ */
+final class DisasterSession {
+
+    final Disaster disaster;
+    final BossBar bossBar;
+    /** 災害が登録したタスク・エンティティ（close で片付ける） */
+    final DisasterScope scope;
+    /** 持続時間（ティック） */
+    final int maxDuration;
+    /** onTick を呼ぶ間隔（ティック） */
+    final int period;
+    /** 終了するティック（タイマーホイールの時刻） */
+    final long endTick;
+    /** onTick を呼ぶタイマー（close で取り消す） */
+    TimerWheel.Timer<DisasterSession> timer;
+    /** 災害が追尾するプレイヤー */
+    UUID target;
+    /** 災害の中心（ターゲットの現在位置） */
+    Location center;
+
+    /**
+     * ターゲットを追尾する災害を開始する
+     * @param now 開始するティック（タイマーホイールの時刻）
+     * @param target 災害が追尾するプレイヤー
+     * @param players ボスバーを表示するプレイヤー（ワールドにいるプレイヤー）
+     * @param planners 災害の効果を計画するワーカー
+     */
+    DisasterSession(World world, Disaster disaster, int duration, long now, Player target, List<Player> players, PlannerPool planners) {
+        this.disaster = disaster;
+        this.maxDuration = duration;
+        this.period = Math.max(1, disaster.getPeriodTicks());
+        this.endTick = now + duration;
+        this.target = target.getUniqueId();
+        this.center = target.getLocation();
+        this.scope = new DisasterScope(world, planners);
+
+        this.bossBar = Bukkit.createBossBar(title(duration), BarColor.RED, BarStyle.SOLID);
+        for (Player player : players) {
+            bossBar.addPlayer(player);
+        }
+    }
+
+    /**
+     * 中心をターゲットの現在位置に合わせる（災害がプレイヤーを追尾する）
+     * ターゲットがいなくなっていれば、ワールドにいるプレイヤーから選び直す
+     */
+    void follow(World world, Random random) {
+        Player player = target != null ? Bukkit.getPlayer(target) : null;
+        if (player != null && player.isOnline() && player.getWorld().equals(world)) {
+            center = player.getLocation();
+            return;
+        }
+        List<Player> players = world.getPlayers();
+        if (players.isEmpty()) return;
+        Player next = players.get(random.nextInt(players.size()));
+        target = next.getUniqueId();
+        center = next.getLocation();
+    }
+
+    /**
+     * 残り時間でボスバーを更新する
+     * @param now 現在のティック（タイマーホイールの時刻）
+     * @return 災害が終わった場合 true
+     */
+    boolean update(long now) {
+        long remaining = endTick - now;
+        bossBar.setProgress(Math.max(0.0, (double) remaining / (double) maxDuration));
+        bossBar.setTitle(title(remaining));
+        return remaining <= 0;
+    }
+
+    /**
+     * 災害の onEnd を呼び、ボスバーと災害のリソースを片付ける
+     */
+    void close() {
+        if (timer != null) timer.cancel();
+        bossBar.removeAll();
+        try {
+            disaster.onEnd(scope);
+        } catch (Exception e) {
+            Bukkit.getLogger().warning("災害の終了処理でエラーが発生しました (" + disaster.getName() + "): " + e.getMessage());
+        } finally {
+            scope.close();
+        }
+    }
+
+    private String title(long remaining) {
+        return "【" + disaster.getName() + "】残り時間: " + (Math.max(0L, remaining) / 20) + "秒";
+    }
+}
@@ -0,0 +1,83 @@
+package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Disasters;
+
+import java.util.Random;
+
+/**
+ * 重み付き抽選のエイリアス表（Vose の方法）
+ * 作成は O(n)、抽選は乱数 2 回と配列の読み出しだけの O(1)。作成後は不変なので複数スレッドから共有できる
+ */
+final class AliasTable {
+
+    /** 重みがすべて 0 の表（抽選結果は常に -1） */
+    static final AliasTable EMPTY = new AliasTable(new double[0], new int[0]);
+
+    private final double[] probability;
+    private final int[] alias;
+
+    private AliasTable(double[] probability, int[] alias) {
+        this.probability = probability;
+        this.alias = alias;
+    }
+
+    /**
+     * @param weights 0 以上の重み（合計が 0 なら EMPTY）
+     */
+    static AliasTable of(double[] weights) {
+        int n = weights.length;
+        double total = 0;
+        int positive = -1;
+        for (int i = 0; i < n; i++) {
+            total += weights[i];
+            if (positive < 0 && weights[i] > 0) positive = i;
+        }
+        if (n == 0 || !(total > 0)) return EMPTY;
+
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+            probability[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0) small[smallCount++] = l;
+            else large[largeCount++] = l;
+        }
+        // 誤差で残ったものは確率 1（重み 0 のものは選ばれないよう重みのある添字へ逃がす）
+        while (largeCount > 0) probability[large[--largeCount]] = 1.0;
+        while (smallCount > 0) {
+            int s = small[--smallCount];
+            if (weights[s] > 0) {
+                probability[s] = 1.0;
+            } else {
+                probability[s] = 0.0;
+                alias[s] = positive;
+            }
+        }
+        return new AliasTable(probability, alias);
+    }
+
+    boolean isEmpty() {
+        return probability.length == 0;
+    }
+
+    /**
+     * @return 抽選した添字（空の表なら -1）
+     */
+    int sample(Random random) {
+        int n = probability.length;
+        if (n == 0) return -1;
+        int i = random.nextInt(n);
+        return random.nextDouble() < probability[i] ? i : alias[i];
+    }
+}
@@ -2,11 +2,15 @@ package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Disasters;
 
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.DisasterConfig;
 
+import java.util.Locale;
 import java.util.Random;
 
 /**
  * 災害の基底インターフェース
+ * 災害 1 回ごとに onStart → onTick（getPeriodTicks() ティックごと） → onEnd の順に呼ばれる
+ * 状態を持たない災害は execute だけを実装すればよい
  */
 public interface Disaster {
     
@@ -14,12 +18,69 @@ public interface Disaster {
      * 災害の名前を取得
      */
     String getName();
+
+    /**
+     * 設定ファイル（per_disaster）で使う ID（デフォルトはクラス名から Disaster を除いて小文字にしたもの）
+     */
+    default String getId() {
+        String name = getClass().getSimpleName();
+        if (name.endsWith("Disaster")) name = name.substring(0, name.length() - "Disaster".length());
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * onTick を呼ぶ間隔（ティック）
+     * 軽い災害は短く、重い災害は長くする
+     */
+    default int getPeriodTicks() {
+        return 20;
+    }
+
+    /**
+     * 災害が想定する持続時間（設定ファイルの per_disaster が優先。null なら default_min/max_seconds）
+     */
+    default DisasterConfig.DisasterDuration getDefaultDuration() {
+        return null;
+    }
     
     /**
-     * 災害を実行
+     * 災害を開始できるか（抽選で選ばれた直後に呼ばれ、false なら引き直す）
+     * 重い判定は避け、数ブロックの確認程度にとどめる
+     * @param center 災害の中心位置（追尾するプレイヤーの位置）
+     */
+    default boolean canStart(World world, Location center, Random random) {
+        return true;
+    }
+
+    /**
+     * 災害を実行（1 回分の効果）
      * @param world ワールド
      * @param center 災害の中心位置
      * @param random ランダムジェネレーター
      */
-    void execute(World world, Location center, Random random);
+    default void execute(World world, Location center, Random random) {
+    }
+
+    /**
+     * 災害の開始時に呼ばれる
+     * @param scope この災害 1 回分のリソースの持ち主（タスクやエンティティはここに登録する）
+     * @param center 災害の中心位置
+     * @param random ランダムジェネレーター
+     */
+    default void onStart(DisasterScope scope, Location center, Random random) {
+    }
+
+    /**
+     * 災害の実行間隔ごとに呼ばれる（デフォルトは execute を呼ぶ）
+     * 効果を与えたプレイヤーの数は scope.affected で報告する
+     */
+    default void onTick(DisasterScope scope, Location center, Random random) {
+        execute(scope.getWorld(), center, random);
+    }
+
+    /**
+     * 災害の終了時に呼ばれる（この後 scope は close される）
+     */
+    default void onEnd(DisasterScope scope) {
+    }
 }
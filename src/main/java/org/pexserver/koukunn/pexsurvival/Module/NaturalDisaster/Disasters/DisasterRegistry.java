@@ -1,69 +1,163 @@
 package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Disasters;
 
-import org.bukkit.plugin.Plugin;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.DisasterConfig;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 災害レジストリ - すべての災害を管理
+ * 登録済みの災害と重みは不変のスナップショットとして持ち、登録や設定の再読み込みのたびに丸ごと差し替える
+ * 抽選はスナップショットを 1 回読むだけなので、どのスレッドからでもロック無しで呼べる
  */
 public class DisasterRegistry {
-    
-    private static final List<Disaster> disasters = new ArrayList<>();
+
+    // 条件（canStart）を満たさない災害を引いたときに引き直す回数
+    private static final int MAX_ATTEMPTS = 8;
+
+    private static volatile Snapshot snapshot = new Snapshot(List.of(), DisasterConfig.DEFAULT);
     private static boolean initialized = false;
-    
+
     /**
-     * 災害を初期化（プラグインインスタンスが必要）
+     * 災害を初期化（2 回目以降は何もしない）
      */
-    public static void initialize(Plugin plugin) {
+    public static synchronized void initialize() {
         if (initialized) {
             return;
         }
-        
+
         // ここに全ての災害を登録
+        List<Disaster> disasters = new ArrayList<>(snapshot.disasters);
         disasters.add(new LightningDisaster());
         disasters.add(new EarthquakeDisaster());
         disasters.add(new FireDisaster());
         disasters.add(new SandstormDisaster());
         disasters.add(new RandomBlockDisaster());
         disasters.add(new SinkholeDisaster());
-        disasters.add(new MobPanicDisaster(plugin));
+        disasters.add(new MobPanicDisaster());
         disasters.add(new ToxicFogDisaster());
-        
+        snapshot = new Snapshot(disasters, snapshot.config);
+
         initialized = true;
     }
-    
+
+    /**
+     * 抽選の重みを設定から作り直す（同じ設定オブジェクトなら何もしない）
+     * ConfigBinding は再読み込みのたびに新しい設定を返すので、抽選の前に毎回呼んでよい
+     */
+    public static void configure(DisasterConfig config) {
+        if (snapshot.config == config) return;
+        synchronized (DisasterRegistry.class) {
+            snapshot = new Snapshot(snapshot.disasters, config);
+        }
+    }
+
     /**
-     * ランダムに災害を選択
+     * 全体の重み（weights）で災害を選択
+     * @return 選んだ災害（重みがすべて 0 の場合は null）
      */
     public static Disaster getRandomDisaster(Random random) {
-        if (disasters.isEmpty()) {
-            throw new IllegalStateException("DisasterRegistry is not initialized! Call initialize(Plugin) first.");
+        Snapshot s = snapshot;
+        if (s.disasters.isEmpty()) {
+            throw new IllegalStateException("DisasterRegistry is not initialized! Call initialize() first.");
+        }
+        int i = s.global.sample(random);
+        return i < 0 ? null : s.disasters.get(i);
+    }
+
+    /**
+     * ワールドと中心のバイオームの重みで災害を選択し、開始条件（canStart）を満たすものを返す
+     * @return 選んだ災害（重みがすべて 0 か、条件を満たす災害を引けなかった場合は null）
+     */
+    public static Disaster select(World world, Location center, Random random) {
+        Snapshot s = snapshot;
+        if (s.disasters.isEmpty()) {
+            throw new IllegalStateException("DisasterRegistry is not initialized! Call initialize() first.");
         }
-        return disasters.get(random.nextInt(disasters.size()));
+        AliasTable table = s.table(world, center);
+        if (table.isEmpty()) return null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Disaster disaster = s.disasters.get(table.sample(random));
+            if (disaster.canStart(world, center, random)) return disaster;
+        }
+        return null;
     }
-    
+
     /**
-     * 登録されている全ての災害を取得
+     * 登録されている全ての災害を取得（変更不可）
      */
     public static List<Disaster> getAllDisasters() {
-        return new ArrayList<>(disasters);
+        return snapshot.disasters;
     }
-    
+
     /**
      * 災害を登録
      */
-    public static void registerDisaster(Disaster disaster) {
+    public static synchronized void registerDisaster(Disaster disaster) {
+        List<Disaster> disasters = new ArrayList<>(snapshot.disasters);
         disasters.add(disaster);
+        snapshot = new Snapshot(disasters, snapshot.config);
     }
-    
+
     /**
      * すべての災害をクリア（テストやリロード時に使用）
      */
-    public static void clear() {
-        disasters.clear();
+    public static synchronized void clear() {
+        snapshot = new Snapshot(List.of(), snapshot.config);
         initialized = false;
     }
+
+    /**
+     * 登録済みの災害と、設定から作ったエイリアス表の組
+     * ワールド・バイオームごとの表は重みの指定があるものだけ、初回の抽選時に作って使い回す
+     */
+    private static final class Snapshot {
+        final List<Disaster> disasters;
+        final DisasterConfig config;
+        final AliasTable global;
+        private final Map<String, AliasTable> tables = new ConcurrentHashMap<>();
+
+        Snapshot(List<Disaster> disasters, DisasterConfig config) {
+            this.disasters = List.copyOf(disasters);
+            this.config = config;
+            this.global = build(null, null);
+        }
+
+        AliasTable table(World world, Location center) {
+            Map<String, Double> worldWeights = config.worldWeights().get(world.getName());
+            String biome = null;
+            Map<String, Double> biomeWeights = null;
+            // バイオームの指定が無ければチャンクを引かない
+            if (!config.biomeWeights().isEmpty()) {
+                biome = world.getBiome(center.getBlockX(), center.getBlockY(), center.getBlockZ()).getKey().getKey();
+                biomeWeights = config.biomeWeights().get(biome);
+            }
+            if (worldWeights == null && biomeWeights == null) return global;
+            Map<String, Double> w = worldWeights;
+            Map<String, Double> b = biomeWeights;
+            return tables.computeIfAbsent(world.getName() + "/" + biome, k -> build(w, b));
+        }
+
+        private AliasTable build(Map<String, Double> worldWeights, Map<String, Double> biomeWeights) {
+            double[] weights = new double[disasters.size()];
+            for (int i = 0; i < weights.length; i++) {
+                Disaster d = disasters.get(i);
+                weights[i] = weight(config.weights(), d) * weight(worldWeights, d) * weight(biomeWeights, d);
+            }
+            return AliasTable.of(weights);
+        }
+
+        // ID → 名前の順に探し、無ければ 1
+        private static double weight(Map<String, Double> weights, Disaster disaster) {
+            if (weights == null) return 1.0;
+            Double w = weights.get(disaster.getId());
+            if (w == null) w = weights.get(disaster.getName());
+            return w != null ? w : 1.0;
+        }
+    }
 }
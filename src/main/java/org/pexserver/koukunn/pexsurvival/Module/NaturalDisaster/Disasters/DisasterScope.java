@@ -0,0 +1,237 @@
+package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Disasters;
+
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.FeatureMetrics;
+import org.pexserver.koukunn.pexsurvival.Core.Scheduler.TickScheduler;
+import org.pexserver.koukunn.pexsurvival.Core.Scheduler.TickTask;
+import org.pexserver.koukunn.pexsurvival.Loader;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect.ChunkView;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect.EffectApplier;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect.EffectPlan;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect.Planner;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect.PlannerPool;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.NaturalDisasterFeature;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 災害 1 回分（開始から終了まで）のリソースの持ち主
+ * ここから登録したタスク・エンティティ・後片付けは、災害の終了時（close）にまとめて止める・消す・実行する
+ * 災害インスタンスは全ワールドで共有されるため、災害ごとの状態も state() でここに持たせる
+ */
+public final class DisasterScope {
+
+    // 進行中の災害の ID（読み込まれたエンティティが終わった災害のものかを判定する）
+    private static final Set<String> LIVE = ConcurrentHashMap.newKeySet();
+    private static NamespacedKey scopeKey;
+
+    private final String id = UUID.randomUUID().toString();
+    private final World world;
+    private final TickScheduler scheduler;
+    private final PlannerPool planners;
+    private FeatureMetrics metrics;
+    private EffectApplier applier;
+    private final List<TickTask> tasks = new ArrayList<>();
+    // 読み込まれていないチャンクにいるエンティティは isValid() が false になるので、UUID で持って終了時に探す
+    private final Set<UUID> entities = new LinkedHashSet<>();
+    private final List<Runnable> cleanups = new ArrayList<>();
+    private Object state;
+    private int affectedPlayers;
+    private boolean closed;
+
+    /**
+     * @param planners 効果の計画に使うワーカー
+     */
+    public DisasterScope(World world, PlannerPool planners) {
+        this.world = world;
+        this.planners = Objects.requireNonNull(planners, "planners");
+        this.scheduler = JavaPlugin.getPlugin(Loader.class).getTickScheduler();
+        LIVE.add(id);
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * 自然災害機能のメトリクス（初回の呼び出しで取得する。災害のインスタンスはプラグインの起動前にも作れるようにしておく）
+     */
+    public FeatureMetrics metrics() {
+        if (metrics == null) {
+            metrics = JavaPlugin.getPlugin(Loader.class).getMetrics().feature(NaturalDisasterFeature.FEATURE_NAME);
+        }
+        return metrics;
+    }
+
+    /**
+     * 災害ごとの状態（初回のみ factory で作成する）
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T state(Supplier<T> factory) {
+        if (state == null) state = factory.get();
+        return (T) state;
+    }
+
+    /**
+     * 今回の onTick で効果を与えたプレイヤーの数を加える（JFR の DisasterTickEvent に記録される）
+     */
+    public void affected(int players) {
+        affectedPlayers += players;
+    }
+
+    /**
+     * 前回の resetAffected からの affected の合計
+     */
+    public int getAffectedPlayers() {
+        return affectedPlayers;
+    }
+
+    /**
+     * affected の合計を 0 に戻す（onTick の前に呼ばれる）
+     */
+    public void resetAffected() {
+        affectedPlayers = 0;
+    }
+
+    /**
+     * 周期タスクを登録する（終了時に停止される）
+     */
+    public TickTask runTimer(TickTask task, long period) {
+        return track(scheduler.runTimer(NaturalDisasterFeature.FEATURE_NAME, task, period));
+    }
+
+    /**
+     * 遅延タスクを登録する（終了時に未実行なら取り消される）
+     */
+    public TickTask runLater(TickTask task, long delay) {
+        return track(scheduler.runLater(NaturalDisasterFeature.FEATURE_NAME, task, delay));
+    }
+
+    /**
+     * 効果をワーカーで計画し、できた計画を次のティック以降に予算内で適用する
+     * スナップショットの取得はここ（メインスレッド）で行う。終了後に届いた計画は捨てる
+     * @param chunks 計画で読むチャンク（PlannerPool#around / along で作る。優先する順）
+     * @param random 災害の乱数（ここから計画専用の乱数を作る）
+     */
+    public void plan(long[] chunks, Random random, Planner planner) {
+        if (closed) return;
+        ChunkView view = planners.capture(world, chunks);
+        Random planRandom = new Random(random.nextLong());
+        planners.submit(view, planRandom, planner).thenAccept(plan -> {
+            if (plan.isEmpty()) return;
+            // ワーカーからメインスレッドへ戻す（TickScheduler への登録はどのスレッドからでもよい）
+            scheduler.runLater(NaturalDisasterFeature.FEATURE_NAME, 0, () -> apply(plan));
+        });
+    }
+
+    private void apply(EffectPlan plan) {
+        if (closed) return;
+        if (applier == null || applier.isCancelled()) {
+            applier = new EffectApplier(world, metrics());
+            runTimer(applier, 1);
+        }
+        applier.add(plan);
+    }
+
+    /**
+     * 既に登録したタスクを終了時に停止させる
+     */
+    public TickTask track(TickTask task) {
+        if (closed) {
+            task.cancel();
+            return task;
+        }
+        // 自分で止まったタスクはここで外す（長い災害でリストが伸び続けないように）
+        tasks.removeIf(TickTask::isCancelled);
+        tasks.add(task);
+        return task;
+    }
+
+    /**
+     * 災害が出したエンティティを終了時に消す
+     * ワールドには保存させず、この災害の ID を付けておく（読み込まれていないチャンクに残った分は orphaned で判定して消す）
+     */
+    public <T extends Entity> T spawned(T entity) {
+        if (closed) {
+            entity.remove();
+            return entity;
+        }
+        entity.setPersistent(false);
+        entity.getPersistentDataContainer().set(key(), PersistentDataType.STRING, id);
+        // 死んだものだけ外す（見つからないものはアンロード中かもしれないので残す）
+        entities.removeIf(uuid -> {
+            Entity e = Bukkit.getEntity(uuid);
+            return e != null && e.isDead();
+        });
+        entities.add(entity.getUniqueId());
+        return entity;
+    }
+
+    /**
+     * 終わった災害が出したエンティティか（EntitiesLoadEvent で読み込まれたものを消すため）
+     */
+    public static boolean orphaned(Entity entity) {
+        String owner = entity.getPersistentDataContainer().get(key(), PersistentDataType.STRING);
+        return owner != null && !LIVE.contains(owner);
+    }
+
+    private static NamespacedKey key() {
+        if (scopeKey == null) scopeKey = new NamespacedKey(JavaPlugin.getPlugin(Loader.class), "disaster_scope");
+        return scopeKey;
+    }
+
+    /**
+     * 終了時に実行する後片付け（バッファのクリアなど）
+     */
+    public void onClose(Runnable cleanup) {
+        if (closed) {
+            cleanup.run();
+            return;
+        }
+        cleanups.add(cleanup);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 登録したタスクを止め、エンティティを消し、後片付けを実行する（2 回目以降は何もしない）
+     */
+    public void close() {
+        if (closed) return;
+        closed = true;
+        for (TickTask task : tasks) {
+            task.cancel();
+        }
+        tasks.clear();
+        LIVE.remove(id);
+        for (UUID uuid : entities) {
+            Entity entity = Bukkit.getEntity(uuid);
+            if (entity != null) entity.remove();
+        }
+        entities.clear();
+        for (Runnable cleanup : cleanups) {
+            try {
+                cleanup.run();
+            } catch (Exception e) {
+                Bukkit.getLogger().warning("災害の後片付けでエラーが発生しました: " + e.getMessage());
+            }
+        }
+        cleanups.clear();
+        state = null;
+    }
+}
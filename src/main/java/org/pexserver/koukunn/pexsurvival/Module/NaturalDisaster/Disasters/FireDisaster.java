@@ -4,80 +4,88 @@ import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.World;
-import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.pexserver.koukunn.pexsurvival.Core.Block.MaterialIndex;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect.ChunkView;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect.EffectPlan;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect.PlannerPool;
 
 import java.util.Random;
 
 /**
  * 火災の災害
+ * 着火する場所はワーカーでスナップショットから選び、メインスレッドでは火を置くだけ
+ * 範囲（約 7x7 チャンク）のスナップショットは 1 回に取る数に上限があるので、中心に近い順に数回の実行で全体が埋まる
  */
 public class FireDisaster implements Disaster {
+
+    private static final int RADIUS = 50;
     
     @Override
     public String getName() {
         return "火災";
     }
+
+    @Override
+    public int getPeriodTicks() {
+        // 火は自然に燃え広がるので 5 秒ごとに着火する
+        return 100;
+    }
+
+    @Override
+    public boolean canStart(World world, Location center, Random random) {
+        // 着火範囲の地表を何か所か見て、燃えるブロックが 1 つも無ければ発生させない
+        for (int attempt = 0; attempt < 16; attempt++) {
+            int x = center.getBlockX() + random.nextInt(RADIUS * 2 + 1) - RADIUS;
+            int z = center.getBlockZ() + random.nextInt(RADIUS * 2 + 1) - RADIUS;
+            if (!world.isChunkLoaded(x >> 4, z >> 4)) continue;
+            if (MaterialIndex.isFlammable(world.getHighestBlockAt(x, z).getType())) return true;
+        }
+        return false;
+    }
     
     @Override
-    public void execute(World world, Location center, Random random) {
-        int radius = 50;
-        int fireCount = 0;
-        int maxFires = 8;
-        
-        // 中心位置の周辺でランダムに複数の木を探して着火
-        for (int attempt = 0; attempt < 50 && fireCount < maxFires; attempt++) {
-            int randomX = center.getBlockX() + random.nextInt(radius * 2 + 1) - radius;
-            int randomZ = center.getBlockZ() + random.nextInt(radius * 2 + 1) - radius;
-            
-            // 地形の高さを取得
-            int groundY = world.getHighestBlockYAt(randomX, randomZ);
-            Location blockLoc = new Location(world, randomX, groundY, randomZ);
-            Block block = world.getBlockAt(blockLoc);
-            
-            // 木のブロックか確認
-            if (isWoodBlock(block.getType())) {
-                Block fireBlock = world.getBlockAt(blockLoc.getBlockX(), blockLoc.getBlockY() + 1, blockLoc.getBlockZ());
-                if (fireBlock.getType() == Material.AIR) {
-                    fireBlock.setType(Material.FIRE);
-                    world.playSound(blockLoc, Sound.BLOCK_FIRE_EXTINGUISH, 0.5f, 1.0f);
+    public void onTick(DisasterScope scope, Location center, Random random) {
+        int cx = center.getBlockX();
+        int cz = center.getBlockZ();
+        BlockData fire = MaterialIndex.data(Material.FIRE);
+        // Sound はレジストリから引くので定数にせず、実行時に作る（サーバー無しでもインスタンスを作れるように）
+        EffectPlan.Cue ignite = new EffectPlan.Cue(Sound.BLOCK_FIRE_EXTINGUISH, 0.5f, 1.0f, 0);
+        scope.plan(PlannerPool.around(cx, cz, RADIUS), random, (view, r, plan) -> {
+            int fireCount = 0;
+            int maxFires = 8;
+
+            // 中心位置の周辺でランダムに複数の木を探して着火
+            for (int attempt = 0; attempt < 50 && fireCount < maxFires; attempt++) {
+                int randomX = cx + r.nextInt(RADIUS * 2 + 1) - RADIUS;
+                int randomZ = cz + r.nextInt(RADIUS * 2 + 1) - RADIUS;
+
+                // 地形の高さを取得
+                int groundY = view.highestY(randomX, randomZ);
+                if (groundY == ChunkView.NO_HEIGHT) continue;
+
+                // 木のブロックか確認
+                if (MaterialIndex.isLog(view.type(randomX, groundY, randomZ))
+                        && view.type(randomX, groundY + 1, randomZ) == Material.AIR) {
+                    plan.setBlock(randomX, groundY + 1, randomZ, Material.AIR, fire, ignite);
                     fireCount++;
                 }
             }
-        }
-        
-        // 木が見つからない場合は中心の地面に複数着火
-        if (fireCount == 0) {
-            for (int i = 0; i < 4; i++) {
-                Location fireLoc = center.clone().add(
-                        (random.nextDouble() - 0.5) * 100,
-                        0,
-                        (random.nextDouble() - 0.5) * 100
-                );
-                
-                int fireY = world.getHighestBlockYAt(fireLoc.getBlockX(), fireLoc.getBlockZ());
-                Block groundBlock = world.getBlockAt(fireLoc.getBlockX(), fireY, fireLoc.getBlockZ());
-                if (groundBlock.getType() != Material.FIRE) {
-                    groundBlock.setType(Material.FIRE);
-                    world.playSound(new Location(world, fireLoc.getBlockX(), fireY, fireLoc.getBlockZ()), Sound.BLOCK_FIRE_EXTINGUISH, 0.5f, 1.0f);
+
+            // 木が見つからない場合は中心の地面に複数着火
+            if (fireCount == 0) {
+                for (int i = 0; i < 4; i++) {
+                    int x = (int) Math.floor(cx + (r.nextDouble() - 0.5) * 100);
+                    int z = (int) Math.floor(cz + (r.nextDouble() - 0.5) * 100);
+
+                    int fireY = view.highestY(x, z);
+                    if (fireY == ChunkView.NO_HEIGHT) continue;
+                    Material ground = view.type(x, fireY, z);
+                    if (ground != null && ground != Material.FIRE) {
+                        plan.setBlock(x, fireY, z, ground, fire, ignite);
+                    }
                 }
             }
-        }
-    }
-    
-    /**
-     * 木のブロックか判定
-     */
-    private boolean isWoodBlock(Material material) {
-        return material.name().contains("LOG") || 
-               material.name().contains("WOOD") ||
-               material == Material.OAK_LOG ||
-               material == Material.BIRCH_LOG ||
-               material == Material.SPRUCE_LOG ||
-               material == Material.JUNGLE_LOG ||
-               material == Material.ACACIA_LOG ||
-               material == Material.DARK_OAK_LOG ||
-               material == Material.MANGROVE_LOG ||
-               material == Material.CHERRY_LOG ||
-               material == Material.PALE_OAK_LOG;
+        });
     }
 }
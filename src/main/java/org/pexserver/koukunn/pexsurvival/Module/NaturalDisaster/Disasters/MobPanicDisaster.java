@@ -9,29 +9,28 @@ import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Creature;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
+import org.pexserver.koukunn.pexsurvival.Core.Scheduler.TickTask;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.DisasterConfig;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 /**
  * Mobパニック災害
  * プレイヤーの付近30ブロック以内に1秒ごとにMobをスポーンさせ、最終的に合計50体になるようにする
+ * 災害が終わると残っているMobは消える
  */
 public class MobPanicDisaster implements Disaster {
 
-    private final Plugin plugin;
-    
-    // 同一ワールドで同時に複数のスポーンランナブルが動作しないようにするガード
-    private static final Set<java.util.UUID> activeWorlds = ConcurrentHashMap.newKeySet();
-    
-    // 各Mobの再ターゲットタスクを管理
-    private static final Map<java.util.UUID, Set<BukkitTask>> mobTasks = new ConcurrentHashMap<>();
-    
-    public MobPanicDisaster(Plugin plugin) {
-        this.plugin = plugin;
+    /**
+     * 災害 1 回分の状態（DisasterScope に持たせる）
+     */
+    private static final class State {
+        // 同一ワールドで同時に複数のスポーンランナブルが動作しないようにするガード
+        TickTask spawner;
+        // スポーンした処刑人（終了時の演出用。消すのは scope）
+        final List<LivingEntity> mobs = new ArrayList<>();
     }
 
     @Override
@@ -40,16 +39,29 @@ public class MobPanicDisaster implements Disaster {
     }
 
     @Override
-    public void execute(World world, Location center, Random random) {
-        // 同一ワールドですでにスポーン処理が動作している場合は二重実行を防ぐ
-        java.util.UUID worldId = world.getUID();
-        if (!activeWorlds.add(worldId)) {
-            // 既に実行中
+    public int getPeriodTicks() {
+        // スポーンは専用タスクが行い、onTick はその再起動の確認だけ
+        return 100;
+    }
+
+    @Override
+    public DisasterConfig.DisasterDuration getDefaultDuration() {
+        // 50 体が出そろう（50 秒）前に終わって Mob が消えないようにする
+        return new DisasterConfig.DisasterDuration(60, 90);
+    }
+
+    @Override
+    public void onTick(DisasterScope scope, Location center, Random random) {
+        State state = scope.state(State::new);
+        // スポーン処理が動作中の場合は二重実行を防ぐ
+        if (state.spawner != null && !state.spawner.isCancelled()) {
             return;
         }
+        World world = scope.getWorld();
 
         // 災害中心周辺（半径30）に合計50体を1秒ごとにスポーン
-        new BukkitRunnable() {
+        // スポーン・再ターゲットのタスクと Mob は scope に登録し、災害の終了時に止めて消す
+        state.spawner = scope.runTimer(new TickTask() {
             int spawned = 0;
 
             @Override
@@ -75,9 +87,12 @@ public class MobPanicDisaster implements Disaster {
                     EntityType type = random.nextBoolean() ? EntityType.SKELETON : EntityType.ZOMBIE;
 
                     world.spawnParticle(Particle.SMOKE, spawnLoc, 20, 0.5, 0.5, 0.5, 0.02);
+                    scope.metrics().particlesSent.add(20);
                     world.playSound(spawnLoc, Sound.ENTITY_ZOMBIE_AMBIENT, 0.8f, 1.0f);
 
-                    LivingEntity mob = (LivingEntity) world.spawnEntity(spawnLoc, type);
+                    LivingEntity mob = scope.spawned((LivingEntity) world.spawnEntity(spawnLoc, type));
+                    scope.metrics().entitiesSpawned.inc();
+                    state.mobs.add(mob);
                     mob.setCustomName("処刑人");
                     mob.setGlowing(true);
                     mob.setCustomNameVisible(false);
@@ -89,18 +104,12 @@ public class MobPanicDisaster implements Disaster {
                     }
 
                     // 各Mobごとに短い間隔で再ターゲットを行い、リアルタイム追尾を維持する
-                    BukkitTask retargetTask = new BukkitRunnable() {
-                        @SuppressWarnings("unlikely-arg-type")
+                    scope.runTimer(new TickTask() {
                         @Override
                         public void run() {
                             try {
-                                if (mob == null || mob.isDead()) {
+                                if (mob.isDead()) {
                                     this.cancel();
-                                    // タスクをリストから削除
-                                    Set<BukkitTask> tasks = mobTasks.get(worldId);
-                                    if (tasks != null) {
-                                        tasks.remove(this);
-                                    }
                                     return;
                                 }
 
@@ -111,17 +120,9 @@ public class MobPanicDisaster implements Disaster {
                             } catch (Exception e) {
                                 Bukkit.getLogger().warning("Mob retarget task error: " + e.getMessage());
                                 this.cancel();
-                                // タスクをリストから削除
-                                Set<BukkitTask> tasks = mobTasks.get(worldId);
-                                if (tasks != null) {
-                                    tasks.remove(this);
-                                }
                             }
                         }
-                    }.runTaskTimer(plugin, 0L, 10L); // 10ティックごと
-                    
-                    // タスクを追跡
-                    mobTasks.computeIfAbsent(worldId, k -> ConcurrentHashMap.newKeySet()).add(retargetTask);
+                    }, 10L); // 10ティックごと
 
                     spawned++;
                 } catch (Exception e) {
@@ -129,16 +130,18 @@ public class MobPanicDisaster implements Disaster {
                     Bukkit.getLogger().warning("MobPanicDisaster encountered an error: " + e.getMessage());
                 }
             }
+        }, 20L);
+    }
 
-            @Override
-            public void cancel() {
-                super.cancel();
-                // 終了時にワールドガードを解除する
-                activeWorlds.remove(worldId);
-                // すべての再ターゲットタスクをキャンセル
-                cancelAllTasks(worldId);
-            }
-        }.runTaskTimer(plugin, 0L, 20L);
+    @Override
+    public void onEnd(DisasterScope scope) {
+        // 残っている処刑人は scope が消すので、消える位置に煙を出す
+        World world = scope.getWorld();
+        for (LivingEntity mob : scope.state(State::new).mobs) {
+            if (!mob.isValid()) continue;
+            world.spawnParticle(Particle.SMOKE, mob.getLocation(), 10, 0.3, 0.5, 0.3, 0.02);
+            scope.metrics().particlesSent.add(10);
+        }
     }
 
     /**
@@ -156,29 +159,4 @@ public class MobPanicDisaster implements Disaster {
         }
         return nearest;
     }
-    
-    /**
-     * 指定ワールドのすべてのタスクをキャンセル
-     */
-    private static void cancelAllTasks(java.util.UUID worldId) {
-        Set<BukkitTask> tasks = mobTasks.remove(worldId);
-        if (tasks != null) {
-            for (BukkitTask task : tasks) {
-                if (task != null && !task.isCancelled()) {
-                    task.cancel();
-                }
-            }
-            tasks.clear();
-        }
-    }
-    
-    /**
-     * すべてのワールドのタスクをキャンセル（プラグイン無効化時に使用）
-     */
-    public static void cancelAllTasksGlobal() {
-        for (java.util.UUID worldId : new HashSet<>(mobTasks.keySet())) {
-            cancelAllTasks(worldId);
-        }
-        activeWorlds.clear();
-    }
 }
@@ -2,57 +2,24 @@ package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Disasters;
 
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.Particle;
 import org.bukkit.Sound;
-import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+import org.pexserver.koukunn.pexsurvival.Core.Block.MaterialIndex;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect.ChunkView;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect.EffectPlan;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect.PlannerPool;
 
 import java.util.Random;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * 視線先のブロックを完全にランダムなブロックに置き換える災害
+ * 視線の先のブロックはワーカーでスナップショットをたどって求める
  */
 public class RandomBlockDisaster implements Disaster {
 
-    // 置換対象とするブロックのリストは Material.values() から動的に作成する
-    private static final Material[] CANDIDATES;
-
-    static {
-        List<Material> list = new ArrayList<>();
-        for (Material m : Material.values()) {
-            try {
-                // ブロックでないものは除外
-                boolean isBlock = false;
-                try {
-                    isBlock = m.isBlock();
-                } catch (NoSuchMethodError e) {
-                    // 古い API の場合は isSolid を代替利用
-                    try {
-                        isBlock = m.isSolid();
-                    } catch (NoSuchMethodError ignored) {
-                        // 最悪、AIR として扱う
-                        isBlock = false;
-                    }
-                }
-                if (!isBlock) continue;
-
-                String name = m.name();
-                // 除外リスト（破壊したくないもの、液体、エンド系、コンテナなど）
-                if (name.contains("AIR") || name.contains("PORTAL") || name.contains("BEDROCK") ||
-                        name.contains("CHEST") || name.contains("SHULKER") || name.contains("HOPPER") ||
-                        name.contains("WATER") || name.contains("LAVA") || name.contains("BARRIER") ||
-                        name.contains("END_GATEWAY") || name.contains("END_PORTAL_FRAME")) continue;
-
-                list.add(m);
-            } catch (Throwable t) {
-                // 念のため落ちても続行
-            }
-        }
-        CANDIDATES = list.toArray(new Material[0]);
-    }
+    // プレイヤー視線の最長距離
+    private static final int MAX_DISTANCE = 50;
 
     @Override
     public String getName() {
@@ -60,44 +27,76 @@ public class RandomBlockDisaster implements Disaster {
     }
 
     @Override
-    public void execute(World world, Location center, Random random) {
-        try {
-            for (Player player : world.getPlayers()) {
-                // プレイヤー視線の最長距離（例: 50ブロック）
-                Block target = player.getTargetBlockExact(50);
-                if (target == null) continue;
+    public void onTick(DisasterScope scope, Location center, Random random) {
+        // 置き換え前に穏やかなブロック粒子/音を出す（Sound はレジストリから引くので定数にせず、実行時に作る）
+        EffectPlan.Cue replace = new EffectPlan.Cue(Sound.BLOCK_ANVIL_PLACE, 0.6f, 1.0f, 6);
+        for (Player player : scope.getWorld().getPlayers()) {
+            scope.affected(1);
+            Location eye = player.getEyeLocation();
+            Vector dir = eye.getDirection();
+            double ox = eye.getX();
+            double oy = eye.getY();
+            double oz = eye.getZ();
+            double dx = dir.getX();
+            double dy = dir.getY();
+            double dz = dir.getZ();
 
+            scope.plan(PlannerPool.along(eye, dir, MAX_DISTANCE), random, (view, r, plan) -> {
+                int[] hit = trace(view, ox, oy, oz, dx, dy, dz);
+                if (hit == null) return;
+                Material type = view.type(hit[0], hit[1], hit[2]);
                 // 危険なブロックやワールド境界などは無視
-                if (isUnchangeable(target)) continue;
+                if (isUnchangeable(type)) return;
 
-                // 完全ランダムに候補から選ぶ
-                Material newMat = CANDIDATES[random.nextInt(CANDIDATES.length)];
+                // 完全ランダムに候補から選ぶ（BlockData は作成済みのものを使う）
+                plan.setBlock(hit[0], hit[1], hit[2], type, MaterialIndex.randomBlocks().random(r), replace);
+            });
+        }
+    }
 
-                // 置き換え前に穏やかなブロック粒子/音を出す
-                Location loc = target.getLocation().add(0.5, 0.5, 0.5);
-                try {
-                    // FALLING_DUST を試みる（ブロック表現が自然）
-                    world.spawnParticle(Particle.valueOf("FALLING_DUST"), loc, 6, 0.1, 0.1, 0.1, target.getBlockData());
-                } catch (IllegalArgumentException | NoSuchMethodError e) {
-                    // フォールバック: CLOUD を少なめに出す
-                    world.spawnParticle(Particle.CLOUD, loc, 6, 0.1, 0.1, 0.1, 0.01);
-                }
-                world.playSound(loc, Sound.BLOCK_ANVIL_PLACE, 0.6f, 1.0f);
+    /**
+     * 視線の先で最初に当たるブロック（getTargetBlockExact と同じく空気・液体は素通りする）
+     * ブロックの格子を 1 つずつたどる（Amanatides-Woo）
+     * @return {x, y, z}。MAX_DISTANCE 以内に無いか、不明なチャンクに入った場合は null
+     */
+    private static int[] trace(ChunkView view, double ox, double oy, double oz, double dx, double dy, double dz) {
+        int x = (int) Math.floor(ox);
+        int y = (int) Math.floor(oy);
+        int z = (int) Math.floor(oz);
+        int stepX = dx > 0 ? 1 : -1;
+        int stepY = dy > 0 ? 1 : -1;
+        int stepZ = dz > 0 ? 1 : -1;
+        double tDeltaX = dx == 0 ? Double.POSITIVE_INFINITY : Math.abs(1.0 / dx);
+        double tDeltaY = dy == 0 ? Double.POSITIVE_INFINITY : Math.abs(1.0 / dy);
+        double tDeltaZ = dz == 0 ? Double.POSITIVE_INFINITY : Math.abs(1.0 / dz);
+        double tMaxX = dx == 0 ? Double.POSITIVE_INFINITY : (dx > 0 ? x + 1 - ox : ox - x) * tDeltaX;
+        double tMaxY = dy == 0 ? Double.POSITIVE_INFINITY : (dy > 0 ? y + 1 - oy : oy - y) * tDeltaY;
+        double tMaxZ = dz == 0 ? Double.POSITIVE_INFINITY : (dz > 0 ? z + 1 - oz : oz - z) * tDeltaZ;
 
-                // 実際にブロックを置き換える
-                target.setType(newMat);
+        double t = 0;
+        while (t <= MAX_DISTANCE) {
+            if (!view.has(x, z)) return null;
+            Material type = view.type(x, y, z);
+            if (type != null && !MaterialIndex.isNoOutline(type)) return new int[] {x, y, z};
+            if (tMaxX < tMaxY && tMaxX < tMaxZ) {
+                x += stepX;
+                t = tMaxX;
+                tMaxX += tDeltaX;
+            } else if (tMaxY < tMaxZ) {
+                y += stepY;
+                t = tMaxY;
+                tMaxY += tDeltaY;
+            } else {
+                z += stepZ;
+                t = tMaxZ;
+                tMaxZ += tDeltaZ;
             }
-        } catch (Exception e) {
-            org.bukkit.Bukkit.getLogger().warning("RandomBlockDisaster error: " + e.getMessage());
         }
+        return null;
     }
 
-    private boolean isUnchangeable(Block block) {
-        Material m = block.getType();
-        // ベッドロック・エンダーポータル等は変更しない
-        if (m == Material.BEDROCK || m == Material.END_PORTAL || m == Material.END_PORTAL_FRAME) return true;
-        // チェストなどのコンテナは避ける
-        if (m.name().contains("CHEST") || m.name().contains("SHULKER") || m.name().contains("HOPPER")) return true;
-        return false;
+    private boolean isUnchangeable(Material type) {
+        // ベッドロック・エンダーポータル等と、チェストなどのコンテナは変更しない
+        return MaterialIndex.is(type, MaterialIndex.UNBREAKABLE | MaterialIndex.CONTAINER);
     }
 }
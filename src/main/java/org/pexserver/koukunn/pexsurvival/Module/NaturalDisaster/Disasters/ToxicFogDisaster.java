@@ -8,6 +8,7 @@ import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.FeatureMetrics;
 
 import java.util.Random;
 
@@ -27,12 +28,13 @@ public class ToxicFogDisaster implements Disaster {
     }
 
     @Override
-    public void execute(World world, Location center, Random random) {
+    public void onTick(DisasterScope scope, Location center, Random random) {
+        World world = scope.getWorld();
         // 毒霧のパーティクルを表示（緑色の煙）
-        displayFogParticles(world, center, random);
+        displayFogParticles(world, center, random, scope.metrics());
         
         // 範囲内のプレイヤーに毒エフェクトを付与
-        applyPoisonToPlayers(world, center);
+        scope.affected(applyPoisonToPlayers(world, center));
         
         // 時々、不気味な音を鳴らす
         if (random.nextInt(5) == 0) {
@@ -43,7 +45,7 @@ public class ToxicFogDisaster implements Disaster {
     /**
      * 毒霧のパーティクルを表示
      */
-    private void displayFogParticles(World world, Location center, Random random) {
+    private void displayFogParticles(World world, Location center, Random random, FeatureMetrics metrics) {
         // 複数のパーティクルを円形に配置
         int particleCount = 50;
         
@@ -65,15 +67,18 @@ public class ToxicFogDisaster implements Disaster {
                     2.0f // サイズ
                 );
                 world.spawnParticle(Particle.DUST, particleLoc, 1, 0.1, 0.1, 0.1, 0, dustOptions);
+                metrics.particlesSent.add(1);
                 
                 // 追加の煙エフェクト
                 if (random.nextInt(3) == 0) {
                     world.spawnParticle(Particle.SMOKE, particleLoc, 1, 0.1, 0.1, 0.1, 0.01);
+                    metrics.particlesSent.add(1);
                 }
             } catch (Exception e) {
                 // パーティクル互換性のフォールバック
                 try {
                     world.spawnParticle(Particle.SMOKE, particleLoc, 3, 0.3, 0.3, 0.3, 0.01);
+                    metrics.particlesSent.add(3);
                 } catch (Exception ignored) {
                 }
             }
@@ -82,13 +87,16 @@ public class ToxicFogDisaster implements Disaster {
     
     /**
      * 範囲内のプレイヤーに毒エフェクトを付与
+     * @return 範囲内にいたプレイヤーの数
      */
-    private void applyPoisonToPlayers(World world, Location center) {
+    private int applyPoisonToPlayers(World world, Location center) {
+        int affected = 0;
         for (Player player : world.getPlayers()) {
             double distanceSq = player.getLocation().distanceSquared(center);
             
             // 範囲内のプレイヤーに毒を付与
             if (distanceSq <= FOG_RADIUS * FOG_RADIUS) {
+                affected++;
                 // 既存の毒エフェクトがある場合は上書きしない（重複を避ける）
                 PotionEffect existingPoison = player.getPotionEffect(PotionEffectType.POISON);
                 if (existingPoison == null || existingPoison.getDuration() < 20) {
@@ -115,5 +123,6 @@ public class ToxicFogDisaster implements Disaster {
                 }
             }
         }
+        return affected;
     }
 }
@@ -0,0 +1,101 @@
+package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.FeatureMetrics;
+import org.pexserver.koukunn.pexsurvival.Core.Scheduler.TickTask;
+import org.pexserver.koukunn.pexsurvival.Loader;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.NaturalDisasterFeature;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ひび割れを 9 段階進めてからブロックを壊すアニメーション（地震・陥没で共有）
+ * 約 20 ティックで自分で止まり、止まるときにひび割れ表示も消す
+ */
+public final class BreakAnimation {
+
+    private static final AtomicInteger animationIdCounter = new AtomicInteger(1);
+
+    private BreakAnimation() {}
+
+    /**
+     * アニメーションを開始する（メインスレッドから呼ぶこと）
+     */
+    public static void play(World world, Block block, FeatureMetrics metrics) {
+        TickTask animation = new TickTask() {
+            int stage = 0;
+            final Location blockLoc = block.getLocation();
+            final int animationId = animationIdCounter.getAndIncrement();
+            final int maxStage = 9;
+
+            @Override
+            public void run() {
+                try {
+                    Block current = blockLoc.getBlock();
+                    if (current.getType() == Material.AIR) {
+                        for (Player player : getNearbyPlayers(blockLoc, 48)) {
+                            sendBlockDamage(player, animationId, blockLoc, -1);
+                        }
+                        this.cancel();
+                        return;
+                    }
+
+                    int displayStage = Math.min(stage, maxStage);
+
+                    for (Player player : getNearbyPlayers(blockLoc, 64)) {
+                        sendBlockDamage(player, animationId, blockLoc, displayStage);
+                    }
+
+                    world.playSound(blockLoc, Sound.BLOCK_STONE_HIT, 1.0f, 0.5f + (stage * 0.03f));
+
+                    if (stage < maxStage) {
+                        stage++;
+                    } else {
+                        current.setType(Material.AIR);
+                        metrics.blocksChanged.inc();
+
+                        for (Player player : getNearbyPlayers(blockLoc, 64)) {
+                            sendBlockDamage(player, animationId, blockLoc, -1);
+                        }
+                        world.playSound(blockLoc, Sound.BLOCK_STONE_BREAK, 1.0f, 1.0f);
+                        this.cancel();
+                    }
+                } catch (Exception e) {
+                    Bukkit.getLogger().warning("playMiningAnimation error: " + e.getMessage());
+                    this.cancel();
+                }
+            }
+        };
+        // ブロックごとの開始ティックは TickScheduler がずらす（2ティック周期）
+        JavaPlugin.getPlugin(Loader.class).getTickScheduler().runTimer(NaturalDisasterFeature.FEATURE_NAME, animation, 2);
+    }
+
+    private static void sendBlockDamage(Player player, int entityId, Location blockLoc, int stage) {
+        try {
+            float progress = stage < 0 ? 0.0f : Math.min(Math.max(stage, 0), 9) / 9.0f;
+            player.sendBlockDamage(blockLoc, progress, entityId);
+        } catch (NoSuchMethodError e) {
+            Bukkit.getLogger().warning("sendBlockDamage API not available: " + e.getMessage());
+        } catch (Exception e) {
+            Bukkit.getLogger().warning("Failed to call sendBlockDamage: " + e.getMessage());
+        }
+    }
+
+    private static List<Player> getNearbyPlayers(Location loc, double radius) {
+        List<Player> list = new ArrayList<>();
+        double r2 = radius * radius;
+        for (Player p : loc.getWorld().getPlayers()) {
+            if (p.getLocation().distanceSquared(loc) <= r2) list.add(p);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,80 @@
+package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+
+/**
+ * 計画用のチャンクのスナップショットの組（不変。どのスレッドからでも読める）
+ * 含まれないチャンクの座標は「不明」として扱う（highestY は NO_HEIGHT、type は null）
+ */
+public final class ChunkView {
+
+    /** 高さが不明な場合の highestY の値 */
+    public static final int NO_HEIGHT = Integer.MIN_VALUE;
+
+    private final long[] keys;
+    private final ChunkSnapshot[] snapshots;
+    private final int minY;
+    private final int maxY;
+
+    ChunkView(long[] keys, ChunkSnapshot[] snapshots, int minY, int maxY) {
+        this.keys = keys;
+        this.snapshots = snapshots;
+        this.minY = minY;
+        this.maxY = maxY;
+    }
+
+    /**
+     * チャンク座標を long に詰める
+     */
+    public static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public static int keyX(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int keyZ(long key) {
+        return (int) key;
+    }
+
+    /**
+     * ブロック座標のチャンクが含まれているか
+     */
+    public boolean has(int x, int z) {
+        return snapshot(x, z) != null;
+    }
+
+    /**
+     * 地表（動きを妨げる最上部のブロック）の Y 座標
+     * @return 不明な場合は NO_HEIGHT
+     */
+    public int highestY(int x, int z) {
+        ChunkSnapshot s = snapshot(x, z);
+        return s == null ? NO_HEIGHT : s.getHighestBlockYAt(x & 15, z & 15);
+    }
+
+    /**
+     * ブロックの種類
+     * @return 不明な場合（チャンクが無い・高さの範囲外）は null
+     */
+    public Material type(int x, int y, int z) {
+        if (y < minY || y >= maxY) return null;
+        ChunkSnapshot s = snapshot(x, z);
+        return s == null ? null : s.getBlockType(x & 15, y, z & 15);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    // 含まれるチャンクは数十個までなので線形に探す
+    private ChunkSnapshot snapshot(int x, int z) {
+        long key = key(x >> 4, z >> 4);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) return snapshots[i];
+        }
+        return null;
+    }
+}
@@ -0,0 +1,118 @@
+package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.FallingBlock;
+import org.pexserver.koukunn.pexsurvival.Core.Block.MaterialIndex;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.FeatureMetrics;
+import org.pexserver.koukunn.pexsurvival.Core.Scheduler.TickTask;
+
+import java.util.ArrayDeque;
+
+/**
+ * 計画した効果をメインスレッドで検証しながら適用するタスク
+ * 機能の 1 ティックの予算内で適用し、残りは次のティックへ持ち越す。すべて適用すると自分で止まる
+ * 読み込まれていないチャンクの効果や、計画後にブロックの種類が変わった効果は捨てる
+ */
+public final class EffectApplier extends TickTask {
+
+    // 予算の確認は何件かおきに行う（効果 1 件は十分軽い）
+    private static final int CHECK_INTERVAL = 8;
+
+    private final World world;
+    private final FeatureMetrics metrics;
+    private final ArrayDeque<EffectPlan.Effect> queue = new ArrayDeque<>();
+
+    public EffectApplier(World world, FeatureMetrics metrics) {
+        this.world = world;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 計画の効果を適用待ちに加える
+     */
+    public void add(EffectPlan plan) {
+        queue.addAll(plan.effects());
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    @Override
+    public void run() {
+        runSlice(Long.MAX_VALUE);
+    }
+
+    @Override
+    protected boolean runSlice(long deadlineNanos) {
+        int applied = 0;
+        EffectPlan.Effect effect;
+        while ((effect = queue.poll()) != null) {
+            apply(effect);
+            if (++applied % CHECK_INTERVAL == 0 && System.nanoTime() >= deadlineNanos) break;
+        }
+        if (queue.isEmpty()) {
+            cancel();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void cancel() {
+        super.cancel();
+        queue.clear();
+    }
+
+    private void apply(EffectPlan.Effect effect) {
+        if (effect instanceof EffectPlan.SetBlock e) {
+            Block block = loadedBlock(e.x(), e.y(), e.z(), e.expected());
+            if (block == null) return;
+            EffectPlan.Cue cue = e.cue();
+            if (cue != null) {
+                Location loc = block.getLocation().add(0.5, 0.5, 0.5);
+                if (cue.dust() > 0) {
+                    world.spawnParticle(Particle.FALLING_DUST, loc, cue.dust(), 0.1, 0.1, 0.1, block.getBlockData());
+                    metrics.particlesSent.add(cue.dust());
+                }
+                world.playSound(loc, cue.sound(), cue.volume(), cue.pitch());
+            }
+            block.setBlockData(e.data());
+            metrics.blocksChanged.inc();
+        } else if (effect instanceof EffectPlan.BreakBlock e) {
+            Block block = loadedBlock(e.x(), e.y(), e.z(), e.expected());
+            if (block == null) return;
+            BreakAnimation.play(world, block, metrics);
+        } else if (effect instanceof EffectPlan.SpawnFallingBlock e) {
+            if (!world.isChunkLoaded((int) Math.floor(e.x()) >> 4, (int) Math.floor(e.z()) >> 4)) return;
+            FallingBlock fb = world.spawnFallingBlock(new Location(world, e.x(), e.y(), e.z()), e.data());
+            metrics.entitiesSpawned.inc();
+            fb.setDropItem(false);
+            fb.setHurtEntities(true);
+        } else if (effect instanceof EffectPlan.ParticleBurst e) {
+            double s = e.spread();
+            if (e.data() != null) {
+                world.spawnParticle(e.particle(), e.x(), e.y(), e.z(), e.count(), s, s, s, e.extra(), e.data());
+            } else {
+                world.spawnParticle(e.particle(), e.x(), e.y(), e.z(), e.count(), s, s, s, e.extra());
+            }
+            metrics.particlesSent.add(e.count());
+        } else if (effect instanceof EffectPlan.SoundCue e) {
+            world.playSound(new Location(world, e.x(), e.y(), e.z()), e.sound(), e.volume(), e.pitch());
+        }
+    }
+
+    // 読み込まれていて、計画時と同じ種類で、壊してよいブロック（それ以外は null）
+    private Block loadedBlock(int x, int y, int z, Material expected) {
+        if (!world.isChunkLoaded(x >> 4, z >> 4)) return null;
+        Block block = world.getBlockAt(x, y, z);
+        Material type = block.getType();
+        if (type != expected) return null;
+        if (MaterialIndex.is(type, MaterialIndex.UNBREAKABLE | MaterialIndex.CONTAINER)) return null;
+        return block;
+    }
+}
@@ -0,0 +1,108 @@
+package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect;
+
+import org.bukkit.Material;
+import org.bukkit.Particle;
+import org.bukkit.Sound;
+import org.bukkit.block.data.BlockData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 災害 1 回分の効果の計画（不変）
+ * ワーカースレッドで ChunkView を読んで作り、メインスレッドで検証しながら適用する
+ * ブロックの変更は計画時の種類（expected）を持ち、適用時に種類が変わっていればその効果だけ捨てる
+ */
+public record EffectPlan(List<Effect> effects) {
+
+    public static final EffectPlan EMPTY = new EffectPlan(List.of());
+
+    public EffectPlan {
+        effects = List.copyOf(effects);
+    }
+
+    public boolean isEmpty() {
+        return effects.isEmpty();
+    }
+
+    /**
+     * 効果 1 件
+     */
+    public sealed interface Effect permits SetBlock, BreakBlock, SpawnFallingBlock, ParticleBurst, SoundCue {
+    }
+
+    /**
+     * ブロックを置き換える
+     * @param expected 計画時のブロックの種類
+     * @param cue 置き換えたときの演出（null 可）
+     */
+    public record SetBlock(int x, int y, int z, Material expected, BlockData data, Cue cue) implements Effect {
+    }
+
+    /**
+     * ひび割れのアニメーションを再生してから壊す（BreakAnimation）
+     */
+    public record BreakBlock(int x, int y, int z, Material expected) implements Effect {
+    }
+
+    /**
+     * 落下するブロックを出す（アイテムは落とさず、当たった生き物にダメージを与える）
+     */
+    public record SpawnFallingBlock(double x, double y, double z, BlockData data) implements Effect {
+    }
+
+    /**
+     * パーティクル（data は FALLING_DUST などの BlockData。不要なら null）
+     */
+    public record ParticleBurst(Particle particle, double x, double y, double z, int count, double spread, double extra, BlockData data) implements Effect {
+    }
+
+    public record SoundCue(Sound sound, double x, double y, double z, float volume, float pitch) implements Effect {
+    }
+
+    /**
+     * SetBlock の演出（ブロックの中心で鳴らす音と、置き換え前のブロックの粉）
+     */
+    public record Cue(Sound sound, float volume, float pitch, int dust) {
+    }
+
+    /**
+     * 計画の組み立て（1 スレッドから使う）
+     */
+    public static final class Builder {
+        private final List<Effect> effects = new ArrayList<>();
+
+        public Builder setBlock(int x, int y, int z, Material expected, BlockData data, Cue cue) {
+            effects.add(new SetBlock(x, y, z, expected, data, cue));
+            return this;
+        }
+
+        public Builder breakBlock(int x, int y, int z, Material expected) {
+            effects.add(new BreakBlock(x, y, z, expected));
+            return this;
+        }
+
+        public Builder fallingBlock(double x, double y, double z, BlockData data) {
+            effects.add(new SpawnFallingBlock(x, y, z, data));
+            return this;
+        }
+
+        public Builder particle(Particle particle, double x, double y, double z, int count, double spread, double extra, BlockData data) {
+            effects.add(new ParticleBurst(particle, x, y, z, count, spread, extra, data));
+            return this;
+        }
+
+        public Builder sound(Sound sound, double x, double y, double z, float volume, float pitch) {
+            effects.add(new SoundCue(sound, x, y, z, volume, pitch));
+            return this;
+        }
+
+        public int size() {
+            return effects.size();
+        }
+
+        public EffectPlan build() {
+            return effects.isEmpty() ? EMPTY : new EffectPlan(effects);
+        }
+    }
+}
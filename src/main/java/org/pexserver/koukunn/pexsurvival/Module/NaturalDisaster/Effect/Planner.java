@@ -0,0 +1,18 @@
+package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect;
+
+import java.util.Random;
+
+/**
+ * 効果の計画（ワーカースレッドで実行される）
+ * ワールド・ブロック・エンティティには触れず、ChunkView とメインスレッドで取っておいた値だけを読むこと
+ */
+@FunctionalInterface
+public interface Planner {
+
+    /**
+     * @param view 計画に使うチャンクのスナップショット（読み込まれていないチャンクは含まれない）
+     * @param random この計画専用の乱数
+     * @param plan 効果の追加先
+     */
+    void plan(ChunkView view, Random random, EffectPlan.Builder plan);
+}
@@ -0,0 +1,226 @@
+package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.util.Vector;
+import org.pexserver.koukunn.pexsurvival.Core.Block.MaterialIndex;
+import org.pexserver.koukunn.pexsurvival.Loader;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 災害の効果を計画するワーカースレッドと、計画に使うチャンクのスナップショットのキャッシュ
+ * スナップショットの取得（capture）はメインスレッド、計画（submit）はワーカーで行う
+ * ワーカーは使われていない間 30 秒で終了するので、災害の無いサーバーではスレッドが残らない
+ */
+public final class PlannerPool {
+
+    // 1 回の capture で新しく取るスナップショットの上限（足りない分は次回以降に取り、範囲全体が埋まるまで広げる）
+    private static final int MAX_CAPTURES_PER_CALL = 8;
+    // スナップショットを取り直すまでのティック数（古くても適用時に種類を確かめるので壊れない）
+    // 取り直す予算が無ければ古いまま使い、この間一度も使われなかったものは捨てる
+    private static final long SNAPSHOT_TTL_TICKS = 200;
+    // 待機できる計画の数（超えた分は捨てる）
+    private static final int QUEUE_CAPACITY = 64;
+
+    private final ThreadPoolExecutor executor;
+    // ワールドごとのスナップショット（メインスレッドからのみ触る）
+    private final Map<UUID, Map<Long, Cached>> cache = new HashMap<>();
+    private long lastSweep;
+
+    private static final class Cached {
+        final ChunkSnapshot snapshot;
+        final long tick;
+        long used;
+
+        Cached(ChunkSnapshot snapshot, long tick) {
+            this.snapshot = snapshot;
+            this.tick = tick;
+            this.used = tick;
+        }
+    }
+
+    public PlannerPool() {
+        // ワーカーから分類表とパレットを初めて作らないよう、ここ（メインスレッド）で作っておく
+        MaterialIndex.isUnbreakable(Material.STONE);
+        MaterialIndex.randomBlocks();
+
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger counter = new AtomicInteger(1);
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(QUEUE_CAPACITY), r -> {
+            Thread t = new Thread(r, "PEX-Disaster-Planner-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * チャンクのスナップショットを集める（メインスレッドから呼ぶこと）
+     * 読み込まれていないチャンクは含めない。新しく取るのは 1 回に MAX_CAPTURES_PER_CALL 個まで
+     * まだ無いチャンクを近い順に取り、予算が余れば古くなったものを近い順に取り直す
+     * （近いチャンクの取り直しで予算を使い切り、遠いチャンクがいつまでも入らないことがないように）
+     * @param chunks ChunkView#key で詰めたチャンク座標（優先する順）
+     */
+    public ChunkView capture(World world, long[] chunks) {
+        long now = JavaPlugin.getPlugin(Loader.class).getTickScheduler().getCurrentTick();
+        sweep(now);
+        Map<Long, Cached> worldCache = cache.computeIfAbsent(world.getUID(), k -> new HashMap<>());
+
+        int captured = 0;
+        for (int pass = 0; pass < 2 && captured < MAX_CAPTURES_PER_CALL; pass++) {
+            for (long key : chunks) {
+                if (captured >= MAX_CAPTURES_PER_CALL) break;
+                Cached cached = worldCache.get(key);
+                boolean take = pass == 0 ? cached == null : cached != null && now - cached.tick >= SNAPSHOT_TTL_TICKS;
+                if (!take) continue;
+                int cx = ChunkView.keyX(key);
+                int cz = ChunkView.keyZ(key);
+                if (!world.isChunkLoaded(cx, cz)) continue;
+                worldCache.put(key, new Cached(world.getChunkAt(cx, cz).getChunkSnapshot(true, false, false), now));
+                captured++;
+            }
+        }
+
+        long[] keys = new long[chunks.length];
+        ChunkSnapshot[] snapshots = new ChunkSnapshot[chunks.length];
+        int count = 0;
+        for (long key : chunks) {
+            Cached cached = worldCache.get(key);
+            if (cached == null) continue;
+            // 古いものは、チャンクが読み込まれている間だけ使う
+            if (now - cached.tick >= SNAPSHOT_TTL_TICKS && !world.isChunkLoaded(ChunkView.keyX(key), ChunkView.keyZ(key))) continue;
+            cached.used = now;
+            keys[count] = key;
+            snapshots[count] = cached.snapshot;
+            count++;
+        }
+        return new ChunkView(Arrays.copyOf(keys, count), Arrays.copyOf(snapshots, count), world.getMinHeight(), world.getMaxHeight());
+    }
+
+    /**
+     * ワーカーで計画する
+     * 失敗した場合やキューが一杯の場合は空の計画になる
+     */
+    public CompletableFuture<EffectPlan> submit(ChunkView view, Random random, Planner planner) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                EffectPlan.Builder builder = new EffectPlan.Builder();
+                planner.plan(view, random, builder);
+                return builder.build();
+            }, executor).exceptionally(t -> {
+                Bukkit.getLogger().warning("災害の計画でエラーが発生しました: " + t);
+                return EffectPlan.EMPTY;
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(EffectPlan.EMPTY);
+        }
+    }
+
+    /**
+     * キャッシュしたスナップショットを捨てる（メインスレッドから呼ぶこと）
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * アンロードされたワールドのスナップショットを捨てる（メインスレッドから呼ぶこと）
+     */
+    public void forget(UUID worldId) {
+        cache.remove(worldId);
+    }
+
+    /**
+     * ワーカーを止め、キャッシュを捨てる
+     */
+    public void close() {
+        executor.shutdownNow();
+        cache.clear();
+    }
+
+    /**
+     * ブロック座標 (x, z) から半径 radius の正方形にかかるチャンク（近い順）
+     */
+    public static long[] around(double x, double z, int radius) {
+        int cx = (int) Math.floor(x) >> 4;
+        int cz = (int) Math.floor(z) >> 4;
+        int minX = ((int) Math.floor(x) - radius) >> 4;
+        int maxX = ((int) Math.floor(x) + radius) >> 4;
+        int minZ = ((int) Math.floor(z) - radius) >> 4;
+        int maxZ = ((int) Math.floor(z) + radius) >> 4;
+        int w = maxX - minX + 1;
+        long[] keys = new long[w * (maxZ - minZ + 1)];
+        int[] dist = new int[keys.length];
+        int n = 0;
+        for (int i = minX; i <= maxX; i++) {
+            for (int j = minZ; j <= maxZ; j++) {
+                keys[n] = ChunkView.key(i, j);
+                dist[n] = Math.max(Math.abs(i - cx), Math.abs(j - cz));
+                n++;
+            }
+        }
+        // チャンクは多くても数十個なので単純な挿入ソート
+        for (int i = 1; i < n; i++) {
+            long k = keys[i];
+            int d = dist[i];
+            int j = i - 1;
+            while (j >= 0 && dist[j] > d) {
+                keys[j + 1] = keys[j];
+                dist[j + 1] = dist[j];
+                j--;
+            }
+            keys[j + 1] = k;
+            dist[j + 1] = d;
+        }
+        return keys;
+    }
+
+    /**
+     * from から direction の向きに distance ブロック進む線分が通るチャンク（近い順）
+     */
+    public static long[] along(Location from, Vector direction, double distance) {
+        // チャンクの角をかすめても取りこぼさないよう 4 ブロックずつ進む
+        Vector step = direction.clone().normalize().multiply(4.0);
+        Set<Long> keys = new LinkedHashSet<>();
+        double x = from.getX();
+        double z = from.getZ();
+        for (double d = 0; d <= distance + 4.0; d += 4.0) {
+            keys.add(ChunkView.key((int) Math.floor(x) >> 4, (int) Math.floor(z) >> 4));
+            x += step.getX();
+            z += step.getZ();
+        }
+        long[] result = new long[keys.size()];
+        Iterator<Long> it = keys.iterator();
+        for (int i = 0; i < result.length; i++) result[i] = it.next();
+        return result;
+    }
+
+    // TTL の間使われなかったスナップショットを捨てる（TTL に 1 回）
+    private void sweep(long now) {
+        if (now - lastSweep < SNAPSHOT_TTL_TICKS) return;
+        lastSweep = now;
+        for (Iterator<Map<Long, Cached>> worlds = cache.values().iterator(); worlds.hasNext(); ) {
+            Map<Long, Cached> worldCache = worlds.next();
+            worldCache.values().removeIf(c -> now - c.used >= SNAPSHOT_TTL_TICKS);
+            if (worldCache.isEmpty()) worlds.remove();
+        }
+    }
+}
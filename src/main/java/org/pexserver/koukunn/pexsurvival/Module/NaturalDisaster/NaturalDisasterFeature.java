@@ -1,57 +1,71 @@
 package org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster;
 
+import org.pexserver.koukunn.pexsurvival.Core.Bench.BenchContext;
+import org.pexserver.koukunn.pexsurvival.Core.Bench.BenchLoad;
+import org.pexserver.koukunn.pexsurvival.Core.Config.ConfigBinding;
+import org.pexserver.koukunn.pexsurvival.Core.Config.ConfigManager;
 import org.pexserver.koukunn.pexsurvival.Core.Feature.Feature;
+import org.pexserver.koukunn.pexsurvival.Core.Jfr.DisasterTickEvent;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.Counter;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.Histogram;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.MetricsRegistry;
+import org.pexserver.koukunn.pexsurvival.Core.Profiler.FeatureProfiler;
+import org.pexserver.koukunn.pexsurvival.Core.Scheduler.TickTask;
+import org.pexserver.koukunn.pexsurvival.Core.Scheduler.TimerWheel;
+import org.pexserver.koukunn.pexsurvival.Loader;
 import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Disasters.DisasterRegistry;
 import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Disasters.Disaster;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Disasters.DisasterScope;
+import org.pexserver.koukunn.pexsurvival.Module.NaturalDisaster.Effect.PlannerPool;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
-import org.bukkit.boss.BarColor;
-import org.bukkit.boss.BarStyle;
-import org.bukkit.boss.BossBar;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
-import com.google.gson.Gson;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 
 public class NaturalDisasterFeature implements Feature {
 
+    /** 機能名（災害側のタスクもこの名前で TickScheduler に登録する） */
+    public static final String FEATURE_NAME = "naturaldisaster";
+
     private boolean enabled = false;
     private final Random random = new Random();
-    private BukkitRunnable disasterTask;
+    private TickTask disasterTask;
+    private TickTask wheelTask;
     private Plugin plugin;
+    // 災害の効果を計画するワーカー（初回の災害で作り、無効化で止める）
+    private PlannerPool planners;
     
-    // ワールドごとのボスバー管理
-    private final Map<String, BossBar> bossBars = new HashMap<>();
-    private final Map<String, Disaster> currentDisasters = new HashMap<>();
-    private final Map<String, Integer> remainingTimes = new HashMap<>();
-    private final Map<String, Integer> maxDurations = new HashMap<>();
-    
-    // ワールドごとの災害の中心位置を管理
-    private final Map<String, org.bukkit.Location> disasterCenters = new HashMap<>();
-    // ワールドごとのターゲットプレイヤー(UUID)を管理（災害がこのプレイヤーを追尾する）
-    private final Map<String, UUID> disasterTargets = new HashMap<>();
-    
-    // ワールドごとの火災カウンター（5秒ごとに火を広げる）
-    private final Map<String, Integer> fireCounters = new HashMap<>();
+    // ワールド（UID）ごとの進行中の災害（ボスバー・終了ティック・中心・ターゲット）
+    private final Map<UUID, DisasterSession> sessions = new HashMap<>();
+
+    // 災害ごとの周期で onTick を呼ぶタイマー（進行中の災害がある間だけ毎ティック進める）
+    private final TimerWheel<DisasterSession> wheel = new TimerWheel<>(WHEEL_SLOTS);
     
-    // 災害の継続時間（ティック）：設定ファイルから読み込む
-    private int minDurationTicks = 600;  // デフォルト30秒
-    private int maxDurationTicks = 1200; // デフォルト60秒
-    private static final int DISASTER_INTERVAL = 20; // 1秒ごと（20ティック）
-    private static final int FIRE_SPREAD_INTERVAL = 100; // 5秒ごと（100ティック）
+    // 災害の種類ごとのメトリクス（初回実行時に一度だけ解決する）
+    private final Map<Disaster, DisasterMetrics> disasterMetrics = new IdentityHashMap<>();
+
+    // 設定ファイル（編集されると自動で読み直される）
+    private static final String CONFIG_PATH = "naturaldisaster.json";
+    private ConfigBinding<DisasterConfig> config;
+    private static final int DISASTER_INTERVAL = 20; // 開始・終了とボスバーの確認は1秒ごと（20ティック）
+    private static final int WHEEL_SLOTS = 128; // 災害の周期（最長 100 ティック）が一周に収まる数
 
     @Override
     public String getFeatureName() {
-        return "naturaldisaster";
+        return FEATURE_NAME;
     }
 
     @Override
@@ -65,9 +79,16 @@ public class NaturalDisasterFeature implements Feature {
     }
 
     @Override
-    public void enable() {
-        if (enabled) return;
-        
+    public long getTickBudgetMicros() {
+        // 災害はブロック操作やパーティクルが多いため他機能より多めに確保
+        return 5000;
+    }
+
+    /**
+     * 災害の生成と設定の束縛（初回の有効化の直前に一度だけ呼ばれる）
+     */
+    @Override
+    public void initialize() {
         // プラグインインスタンスを取得
         plugin = Bukkit.getPluginManager().getPlugin("pexsurvival");
         if (plugin == null) {
@@ -76,14 +97,24 @@ public class NaturalDisasterFeature implements Feature {
         }
         
         // DisasterRegistryを初期化
-        DisasterRegistry.initialize(plugin);
+        DisasterRegistry.initialize();
         
         // 設定を読み込む
         loadConfig();
+    }
+
+    @Override
+    public void enable() {
+        if (enabled) return;
+        if (config == null) {
+            Bukkit.getLogger().severe("自然災害機能が初期化されていません");
+            return;
+        }
         
         enabled = true;
         startDisasterTask();
-        Bukkit.getLogger().info("自然災害機能が有効になりました (持続時間: " + (minDurationTicks/20) + "-" + (maxDurationTicks/20) + "秒)");
+        DisasterConfig cfg = config.get();
+        Bukkit.getLogger().info("自然災害機能が有効になりました (持続時間: " + cfg.defaultMinSeconds() + "-" + cfg.defaultMaxSeconds() + "秒)");
     }
 
     @Override
@@ -93,16 +124,13 @@ public class NaturalDisasterFeature implements Feature {
         enabled = false;
         stopDisasterTask();
         
-        // ボスバーをすべてクリア
-        for (BossBar bossBar : bossBars.values()) {
-            bossBar.removeAll();
+        // 進行中の災害とボスバーをすべてクリア
+        for (DisasterSession session : sessions.values()) {
+            session.close();
         }
-        bossBars.clear();
-        currentDisasters.clear();
-        remainingTimes.clear();
-        maxDurations.clear();
-        disasterCenters.clear();
-        fireCounters.clear();
+        sessions.clear();
+        wheel.clear();
+        closePlanners();
         
         Bukkit.getLogger().info("自然災害機能が無効になりました");
     }
@@ -114,20 +142,124 @@ public class NaturalDisasterFeature implements Feature {
     }
 
     /**
-     * 災害タスクを開始
+     * 毎ティック intensity 回、登録済みの災害を順番に実行する（通常は災害ごとの getPeriodTicks() ティックに 1 回）
+     * 中心は負荷をかける領域の中からランダムに選び、災害ごとの時間は naturaldisaster/災害クラス名 に計上される
+     * 災害ごとに 1 つの scope で最初の実行時に onStart、終了時に onEnd を呼ぶ
      */
-    private void startDisasterTask() {
-        disasterTask = new BukkitRunnable() {
+    @Override
+    public BenchLoad createBenchLoad(BenchContext context) {
+        if (plugin == null) {
+            throw new IllegalStateException("自然災害機能が初期化されていません（一度有効にしてから実行してください）");
+        }
+        List<Disaster> disasters = DisasterRegistry.getAllDisasters();
+        if (disasters.isEmpty()) throw new IllegalStateException("災害が登録されていません");
+        return new BenchLoad() {
+            private final Map<Disaster, DisasterScope> scopes = new IdentityHashMap<>();
+            private int next = 0;
+
             @Override
-            public void run() {
-                for (World world : Bukkit.getWorlds()) {
-                    processWorld(world);
+            public int tick(int tick) {
+                for (int i = 0; i < context.intensity(); i++) {
+                    Disaster disaster = disasters.get(next++ % disasters.size());
+                    org.bukkit.Location center = context.cell(context.random().nextInt(1024), 8);
+                    DisasterScope scope = scopes.get(disaster);
+                    if (scope == null) {
+                        scope = new DisasterScope(context.world(), planners());
+                        scopes.put(disaster, scope);
+                        disaster.onStart(scope, center, random);
+                    }
+                    executeDisaster(disaster, scope, center);
                 }
+                return context.intensity();
+            }
+
+            @Override
+            public void close() {
+                for (Map.Entry<Disaster, DisasterScope> e : scopes.entrySet()) {
+                    try {
+                        e.getKey().onEnd(e.getValue());
+                    } finally {
+                        e.getValue().close();
+                    }
+                }
+                scopes.clear();
+                // 無効のまま計測した場合はワーカーを残さない
+                if (!enabled) closePlanners();
             }
         };
-        
-        // 1秒（20ティック）ごとに実行
-        disasterTask.runTaskTimer(plugin, 0, DISASTER_INTERVAL);
+    }
+
+    @Override
+    public int getStateSize() {
+        return sessions.size();
+    }
+
+    /**
+     * 災害タスクを開始
+     */
+    private void startDisasterTask() {
+        // 1秒（20ティック）ごとに実行（開始ティックは TickScheduler が他機能とずらす）
+        disasterTask = JavaPlugin.getPlugin(Loader.class).getTickScheduler().runTimer(FEATURE_NAME, DISASTER_INTERVAL, () -> {
+            // アンロードを見逃したワールドの災害を片付ける
+            sessions.keySet().removeIf(worldId -> {
+                if (Bukkit.getWorld(worldId) != null) return false;
+                sessions.get(worldId).close();
+                return true;
+            });
+            for (World world : Bukkit.getWorlds()) {
+                processWorld(world);
+            }
+            // 進行中の災害が無ければホイールを止める（待機中は 1 秒に 1 回の確認だけになる）
+            if (sessions.isEmpty() && wheelTask != null) {
+                wheelTask.cancel();
+                wheelTask = null;
+            }
+        });
+    }
+
+    /**
+     * アンロードされるワールドの災害を終わらせる（ボスバー・タスク・Mob の片付け）
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        UUID worldId = event.getWorld().getUID();
+        DisasterSession session = sessions.remove(worldId);
+        if (session != null) {
+            session.close();
+        }
+        if (planners != null) {
+            planners.forget(worldId);
+        }
+    }
+
+    /**
+     * 終わった災害の Mob などが、読み込まれていなかったチャンクごと戻ってきたら消す
+     */
+    @EventHandler
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        for (Entity entity : event.getEntities()) {
+            if (DisasterScope.orphaned(entity)) entity.remove();
+        }
+    }
+
+    private PlannerPool planners() {
+        if (planners == null) planners = new PlannerPool();
+        return planners;
+    }
+
+    private void closePlanners() {
+        if (planners != null) {
+            planners.close();
+            planners = null;
+        }
+    }
+
+    /**
+     * タイマーホイールを毎ティック進めるタスクを開始（動作中なら何もしない）
+     */
+    private void startWheel() {
+        if (wheelTask != null && !wheelTask.isCancelled()) return;
+        wheelTask = JavaPlugin.getPlugin(Loader.class).getTickScheduler().runTimer(FEATURE_NAME, 1, () -> wheel.advance(this::dispatch));
     }
 
     /**
@@ -138,166 +270,144 @@ public class NaturalDisasterFeature implements Feature {
             disasterTask.cancel();
             disasterTask = null;
         }
+        if (wheelTask != null) {
+            wheelTask.cancel();
+            wheelTask = null;
+        }
+        // 災害が登録したアニメーション等のタスクもまとめて停止
+        JavaPlugin.getPlugin(Loader.class).getTickScheduler().cancelAll(FEATURE_NAME);
     }
 
     /**
-     * ワールドの災害処理
+     * ワールドの災害処理（災害の開始と終了、ボスバーの更新）
+     * 災害の onTick はタイマーホイールが災害ごとの周期で呼ぶ
      */
     private void processWorld(World world) {
-        String worldName = world.getName();
-        
+        UUID worldId = world.getUID();
+        DisasterSession session = sessions.get(worldId);
+        long now = wheel.currentTick();
+
         // 新しい災害が必要か判定
-        if (!currentDisasters.containsKey(worldName)) {
+        if (session == null) {
+            List<Player> players = world.getPlayers();
             // プレイヤーが存在しない場合はスキップ
-            if (world.getPlayers().isEmpty()) {
+            if (players.isEmpty()) {
                 return;
             }
-            
-            // 新しい災害を開始
-            Disaster disaster = DisasterRegistry.getRandomDisaster(random);
-            int duration = random.nextInt(maxDurationTicks - minDurationTicks + 1) + minDurationTicks;
-            
-            currentDisasters.put(worldName, disaster);
-            remainingTimes.put(worldName, duration);
-            maxDurations.put(worldName, duration);
-            
-            // ターゲットプレイヤーをランダムに選択し、災害はこのプレイヤーを追尾する
-            Player targetPlayer = world.getPlayers().get(random.nextInt(world.getPlayers().size()));
-            disasterTargets.put(worldName, targetPlayer.getUniqueId());
-            org.bukkit.Location centerLocation = targetPlayer.getLocation().clone();
-            disasterCenters.put(worldName, centerLocation);
-            
-            // ボスバーを作成
-            BossBar bossBar = Bukkit.createBossBar(
-                    "【" + disaster.getName() + "】残り時間: " + (duration / 20) + "秒",
-                    BarColor.RED,
-                    BarStyle.SOLID
-            );
-            
-            // ワールドのすべてのプレイヤーをボスバーに追加
-            for (Player player : world.getPlayers()) {
-                bossBar.addPlayer(player);
-            }
-            
-            bossBars.put(worldName, bossBar);
-            fireCounters.put(worldName, 0); // 火災カウンター初期化
-        }
-        
-        int remaining = remainingTimes.get(worldName);
-        Disaster currentDisaster = currentDisasters.get(worldName);
-        org.bukkit.Location centerLocation = disasterCenters.get(worldName);
-
-        // ターゲットプレイヤーが存在する場合は常にその現在位置を中心にする（災害がプレイヤーを追尾する）
-        UUID targetUuid = disasterTargets.get(worldName);
-        if (targetUuid != null) {
-            Player target = Bukkit.getPlayer(targetUuid);
-            if (target != null && target.isOnline() && target.getWorld().equals(world)) {
-                centerLocation = target.getLocation().clone();
-                disasterCenters.put(worldName, centerLocation);
-            } else {
-                // ターゲットが見つからなければ新しいターゲットを選ぶ（オンラインプレイヤーからランダム）
-                if (!world.getPlayers().isEmpty()) {
-                    Player newTarget = world.getPlayers().get(random.nextInt(world.getPlayers().size()));
-                    disasterTargets.put(worldName, newTarget.getUniqueId());
-                    centerLocation = newTarget.getLocation().clone();
-                    disasterCenters.put(worldName, centerLocation);
-                }
+
+            // 新しい災害を開始（ターゲットプレイヤーをランダムに選択し、災害はこのプレイヤーを追尾する）
+            // 災害はワールドとターゲット位置のバイオームの重みで選び、開始条件を満たすものが無ければ次の確認まで待つ
+            Player target = players.get(random.nextInt(players.size()));
+            DisasterConfig cfg = config.get();
+            DisasterRegistry.configure(cfg);
+            Disaster disaster = DisasterRegistry.select(world, target.getLocation(), random);
+            if (disaster == null) {
+                return;
             }
+            int[] range = cfg.durationTicks(disaster.getId(), disaster.getName(), disaster.getDefaultDuration());
+            int duration = random.nextInt(range[1] - range[0] + 1) + range[0];
+            session = new DisasterSession(world, disaster, duration, now, target, players, planners());
+            sessions.put(worldId, session);
+            disaster.onStart(session.scope, session.center, random);
+            // 最初の onTick は次のティック
+            session.timer = wheel.schedule(session, 1);
+            startWheel();
         }
-        
-        // 火災の場合は5秒ごとに発動
-        if (currentDisaster.getName().equals("火災")) {
-            int fireCounter = fireCounters.getOrDefault(worldName, 0);
-            if (fireCounter >= FIRE_SPREAD_INTERVAL) {
-                currentDisaster.execute(world, centerLocation, random);
-                fireCounters.put(worldName, 0);
-            } else {
-                fireCounters.put(worldName, fireCounter + DISASTER_INTERVAL);
-            }
-        } else {
-            // 他の災害は毎秒実行
-            currentDisaster.execute(world, centerLocation, random);
+
+        // 残り時間でボスバーを更新し、終わっていれば片付ける（onEnd と scope の close）
+        if (session.update(now)) {
+            session.close();
+            sessions.remove(worldId);
         }
-        
-        // 残り時間を減らす
-        remaining -= DISASTER_INTERVAL;
-        remainingTimes.put(worldName, remaining);
-        
-        // ボスバーを更新
-        BossBar bossBar = bossBars.get(worldName);
-        if (bossBar != null) {
-            int maxDuration = maxDurations.getOrDefault(worldName, maxDurationTicks);
-            double progress = Math.max(0.0, (double) remaining / (double) maxDuration);
-            
-            bossBar.setProgress(progress);
-            bossBar.setTitle("【" + currentDisaster.getName() + "】残り時間: " + (remaining / 20) + "秒");
+    }
+
+    /**
+     * タイマーホイールから周期が来た災害を 1 回実行し、次の周期に登録し直す
+     */
+    private void dispatch(TimerWheel.Timer<DisasterSession> timer) {
+        DisasterSession session = timer.item();
+        // ワールドが無くなっていれば呼ばない（片付けは 20 ティックごとの確認で行う）
+        if (Bukkit.getWorld(session.scope.getWorld().getUID()) == null) {
+            timer.cancel();
+            return;
         }
-        
-        // 災害終了判定
-        if (remaining <= 0) {
-            if (bossBar != null) {
-                bossBar.removeAll();
-            }
-            bossBars.remove(worldName);
-            currentDisasters.remove(worldName);
-            remainingTimes.remove(worldName);
-            maxDurations.remove(worldName);
-            disasterCenters.remove(worldName);
-            disasterTargets.remove(worldName);
-            fireCounters.remove(worldName);
+        wheel.reschedule(timer, session.period);
+        try {
+            // ターゲットプレイヤーの現在位置を中心にする
+            session.follow(session.scope.getWorld(), random);
+            executeDisaster(session.disaster, session.scope, session.center);
+        } catch (Exception e) {
+            // 1 つの災害の失敗でホイール（他のワールドの災害）を止めない
+            Bukkit.getLogger().warning("災害の実行でエラーが発生しました (" + session.disaster.getName() + "): " + e.getMessage());
         }
     }
     
     /**
-     * 設定ファイルから災害の持続時間を読み込む
+     * 災害の onTick を 1 回呼び、実行回数と処理時間を記録する
+     * プロファイラには「naturaldisaster/災害クラス名」として計上する
      */
-    private void loadConfig() {
-        File configFile = new File(plugin.getDataFolder(), "PEXConfig/naturaldisaster.json");
-        
-        // 設定ファイルが存在しない場合はデフォルト設定で作成
-        if (!configFile.exists()) {
-            createDefaultConfig(configFile);
+    private void executeDisaster(Disaster disaster, DisasterScope scope, org.bukkit.Location center) {
+        World world = scope.getWorld();
+        Loader loader = JavaPlugin.getPlugin(Loader.class);
+        DisasterMetrics dm = disasterMetrics.get(disaster);
+        if (dm == null) {
+            dm = new DisasterMetrics(loader.getMetrics(), loader.getProfiler(), disaster);
+            disasterMetrics.put(disaster, dm);
         }
-        
-        // 設定ファイルを読み込む
-        try (FileReader reader = new FileReader(configFile)) {
-            Gson gson = new Gson();
-            DisasterConfig config = gson.fromJson(reader, DisasterConfig.class);
-            
-            if (config != null) {
-                // 秒をティックに変換（1秒 = 20ティック）
-                minDurationTicks = config.getDefaultMinSeconds() * 20;
-                maxDurationTicks = config.getDefaultMaxSeconds() * 20;
-                
-                Bukkit.getLogger().info("災害設定を読み込みました: " + config.getDefaultMinSeconds() + "-" + config.getDefaultMaxSeconds() + "秒");
+        FeatureProfiler profiler = loader.getProfiler();
+        DisasterTickEvent event = new DisasterTickEvent();
+        event.begin();
+        long start = System.nanoTime();
+        scope.resetAffected();
+        profiler.enter(dm.profileSlot);
+        try {
+            disaster.onTick(scope, center, random);
+        } finally {
+            profiler.exit();
+            dm.ticks.inc();
+            dm.time.recordSince(start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.disaster = disaster.getName();
+                event.world = world.getName();
+                event.players = scope.getAffectedPlayers();
+                event.commit();
             }
-        } catch (IOException e) {
-            Bukkit.getLogger().warning("災害設定の読み込みに失敗しました。デフォルト設定を使用します: " + e.getMessage());
         }
     }
-    
+
     /**
-     * デフォルト設定ファイルを作成
+     * 災害の種類ごとのメトリクス
      */
-    private void createDefaultConfig(File configFile) {
-        try {
-            // 親ディレクトリを作成
-            configFile.getParentFile().mkdirs();
-            
-            // デフォルト設定を作成
-            DisasterConfig defaultConfig = new DisasterConfig();
-            defaultConfig.setDefaultMinSeconds(30);
-            defaultConfig.setDefaultMaxSeconds(60);
-            
-            // JSONに書き込む
-            try (FileWriter writer = new FileWriter(configFile)) {
-                Gson gson = new com.google.gson.GsonBuilder().setPrettyPrinting().create();
-                gson.toJson(defaultConfig, writer);
-                Bukkit.getLogger().info("デフォルト災害設定ファイルを作成しました: " + configFile.getPath());
-            }
-        } catch (IOException e) {
-            Bukkit.getLogger().warning("デフォルト設定ファイルの作成に失敗しました: " + e.getMessage());
+    private static final class DisasterMetrics {
+        final Counter ticks;
+        final Histogram time;
+        final int profileSlot;
+
+        DisasterMetrics(MetricsRegistry registry, FeatureProfiler profiler, Disaster disaster) {
+            String id = disaster.getClass().getSimpleName();
+            this.profileSlot = profiler.slot(FEATURE_NAME + "/" + id);
+            this.ticks = registry.counter("pex_disaster_ticks_total", "災害の実行回数", "disaster", id);
+            this.time = registry.histogram("pex_disaster_tick_seconds", "災害 1 回あたりの処理時間", "disaster", id);
+        }
+    }
+
+    /**
+     * 設定ファイルを束縛する（初回のみ。以後の編集は ConfigManager が自動で反映する）
+     */
+    private void loadConfig() {
+        if (config != null) return;
+        ConfigManager configManager = JavaPlugin.getPlugin(Loader.class).getConfigManager();
+
+        // 設定ファイルが存在しない場合はデフォルト設定で作成
+        if (!configManager.exists(CONFIG_PATH)) {
+            configManager.saveConfig(CONFIG_PATH, DisasterConfig.DEFAULT);
+            Bukkit.getLogger().info("デフォルト災害設定ファイルを作成しました: " + CONFIG_PATH);
         }
+
+        config = configManager.bind(CONFIG_PATH, DisasterConfig.class, DisasterConfig.DEFAULT);
+        DisasterConfig cfg = config.get();
+        Bukkit.getLogger().info("災害設定を読み込みました: " + cfg.defaultMinSeconds() + "-" + cfg.defaultMaxSeconds() + "秒");
     }
     
     /**
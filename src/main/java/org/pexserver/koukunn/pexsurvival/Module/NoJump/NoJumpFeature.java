@@ -5,6 +5,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.GameMode;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.player.PlayerToggleFlightEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.util.Vector;
@@ -52,7 +53,7 @@ public class NoJumpFeature implements Feature {
     /**
      * ジャンプイベントのハンドル
      */
-    @EventHandler
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onPlayerToggleFlight(PlayerToggleFlightEvent event) {
         if (!enabled)
             return;
@@ -70,29 +71,30 @@ public class NoJumpFeature implements Feature {
     /**
      * PlayerMoveEvent を使ってジャンプの開始を検出し、上向き移動をキャンセルしてジャンプを抑止します
      */
-    @EventHandler
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent event) {
         if (!enabled)
             return;
 
         double fromY = event.getFrom().getY();
         double toY = event.getTo().getY();
+        // 上昇していない移動（大半の移動イベント）はここで打ち切る
+        if (toY <= fromY + 0.01) return;
+
         Player player = event.getPlayer();
 
         // クリエイティブとスペクテイターは対象外
         if (player.getGameMode() == GameMode.CREATIVE || player.getGameMode() == GameMode.SPECTATOR) return;
 
-        if (toY > fromY + 0.01) {
-            double vy = player.getVelocity().getY();
-            boolean upwardVelocity = vy > 0.05;
-            boolean wasOnGround = player.isOnGround() || isStandingOnSolid(player);
+        double vy = player.getVelocity().getY();
+        boolean upwardVelocity = vy > 0.05;
+        boolean wasOnGround = player.isOnGround() || isStandingOnSolid(player);
 
-            if (upwardVelocity && wasOnGround) {
-                event.setTo(event.getFrom());
-                Vector vel = player.getVelocity();
-                vel.setY(0);
-                player.setVelocity(vel);
-            }
+        if (upwardVelocity && wasOnGround) {
+            event.setTo(event.getFrom());
+            Vector vel = player.getVelocity();
+            vel.setY(0);
+            player.setVelocity(vel);
         }
     }
 
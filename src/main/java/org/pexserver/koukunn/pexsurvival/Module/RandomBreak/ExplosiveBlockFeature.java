@@ -7,8 +7,12 @@ import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.pexserver.koukunn.pexsurvival.Core.Jfr.BlockBatchEvent;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.FeatureMetrics;
+import org.pexserver.koukunn.pexsurvival.Loader;
 
 import java.util.*;
 
@@ -17,6 +21,13 @@ import java.util.*;
  */
 public class ExplosiveBlockFeature implements Feature {
 
+    private FeatureMetrics metrics;
+
+    private FeatureMetrics metrics() {
+        if (metrics == null) metrics = JavaPlugin.getPlugin(Loader.class).getMetrics().feature(getFeatureName());
+        return metrics;
+    }
+
     private boolean enabled = false;
     private final Random random = new Random();
 
@@ -48,7 +59,7 @@ public class ExplosiveBlockFeature implements Feature {
         // no-op
     }
 
-    @EventHandler
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
         if (!enabled) return;
         Player player = event.getPlayer();
@@ -65,7 +76,7 @@ public class ExplosiveBlockFeature implements Feature {
         Block block = event.getBlock();
         var pl = JavaPlugin.getPlugin(org.pexserver.koukunn.pexsurvival.Loader.class);
 
-        Bukkit.getScheduler().runTask(pl, () -> {
+        pl.getTickScheduler().runLater(getFeatureName(), 0L, () -> {
             try {
                 int mode = random.nextInt(3); // 0=爆発,1=ランダム置換,2=範囲破壊
                 Location loc = block.getLocation().add(0.5, 0.5, 0.5);
@@ -77,9 +88,13 @@ public class ExplosiveBlockFeature implements Feature {
                         Material[] pool = new Material[] {Material.STONE, Material.DIRT, Material.SAND, Material.COBBLESTONE, Material.GRAVEL, Material.OAK_LOG, Material.OAK_PLANKS};
                         Material m = pool[random.nextInt(pool.length)];
                         block.setType(m);
+                        metrics().blocksChanged.inc();
                     }
                     case 2 -> { // 範囲破壊（半径2）
                         int r = 2;
+                        int broken = 0;
+                        BlockBatchEvent batch = new BlockBatchEvent();
+                        batch.begin();
                         int bx = block.getX();
                         int by = block.getY();
                         int bz = block.getZ();
@@ -88,10 +103,16 @@ public class ExplosiveBlockFeature implements Feature {
                                 for (int z = bz - r; z <= bz + r; z++) {
                                     Block b = block.getWorld().getBlockAt(x, y, z);
                                     if (b.isEmpty()) continue;
-                                    try { b.breakNaturally(); } catch (Exception ignored) {}
+                                    try { b.breakNaturally(); metrics().blocksChanged.inc(); broken++; } catch (Exception ignored) {}
                                 }
                             }
                         }
+                        batch.end();
+                        if (batch.shouldCommit()) {
+                            batch.owner = getFeatureName();
+                            batch.blocks = broken;
+                            batch.commit();
+                        }
                     }
                 }
             } catch (Exception e) {
@@ -1,12 +1,12 @@
 package org.pexserver.koukunn.pexsurvival.Module.Shuffle;
 
 import org.pexserver.koukunn.pexsurvival.Core.Feature.Feature;
+import org.pexserver.koukunn.pexsurvival.Core.Scheduler.TickTask;
 import org.bukkit.boss.BossBar;
 import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BarStyle;
 import org.bukkit.entity.Player;
 import org.bukkit.Location;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.Bukkit;
 import java.util.*;
@@ -20,7 +20,7 @@ public class ShuffleFeature implements Feature {
 
     private boolean enabled = false;
     private BossBar bossBar = null;
-    private BukkitTask task = null;
+    private TickTask task = null;
     private int countdown = 0;
     private int currentInterval = 60;
     private final Random random = new Random();
@@ -67,6 +67,11 @@ public class ShuffleFeature implements Feature {
         if (enabled) startTask();
     }
 
+    @Override
+    public int getStateSize() {
+        return bossBar != null ? bossBar.getPlayers().size() : 0;
+    }
+
     private void startTask() {
         var pl = plugin();
         if (pl == null) return;
@@ -77,7 +82,8 @@ public class ShuffleFeature implements Feature {
 
         resetCountdown();
 
-        task = new org.bukkit.scheduler.BukkitRunnable() {
+        // 1秒ごとに実行（開始ティックは TickScheduler が他機能とずらす）
+        task = pl.getTickScheduler().runTimer(getFeatureName(), new TickTask() {
             @Override
             public void run() {
                 if (!enabled) return;
@@ -109,7 +115,7 @@ public class ShuffleFeature implements Feature {
                     resetCountdown();
                 }
             }
-        }.runTaskTimer(pl, 20L, 20L);
+        }, 20L);
     }
 
     private void stopTask() {
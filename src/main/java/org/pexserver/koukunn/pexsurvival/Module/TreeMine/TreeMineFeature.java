@@ -1,47 +1,53 @@
 package org.pexserver.koukunn.pexsurvival.Module.TreeMine;
 
+import org.pexserver.koukunn.pexsurvival.Core.Block.MaterialIndex;
+import org.pexserver.koukunn.pexsurvival.Core.Block.VeinSearch;
 import org.pexserver.koukunn.pexsurvival.Core.Feature.Feature;
+import org.pexserver.koukunn.pexsurvival.Loader;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.Sound;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.World;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.inventory.ItemStack;
+import org.pexserver.koukunn.pexsurvival.Core.Bench.BenchContext;
+import org.pexserver.koukunn.pexsurvival.Core.Bench.BenchLoad;
+import org.pexserver.koukunn.pexsurvival.Core.Jfr.VeinSearchEvent;
+import org.pexserver.koukunn.pexsurvival.Core.Metrics.FeatureMetrics;
+import org.pexserver.koukunn.pexsurvival.Core.Profiler.FeatureProfiler;
+import org.pexserver.koukunn.pexsurvival.Core.Scheduler.TickTask;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * 木を一撃でまとめて破壊する機能
  */
 public class TreeMineFeature implements Feature {
 
-    private boolean enabled = false;
-    private static final Set<Material> LOGS = new HashSet<>();
-    static {
-        for (Material m : Material.values()) {
-            String n = m.name();
-            if (n.endsWith("_LOG") || n.endsWith("_WOOD")) LOGS.add(m);
-        }
-    }
-    private static final Set<Material> AXES = new HashSet<>();
-    static {
-        AXES.addAll(Arrays.asList(
-            Material.WOODEN_AXE, Material.STONE_AXE, Material.IRON_AXE,
-            Material.GOLDEN_AXE, Material.DIAMOND_AXE, Material.NETHERITE_AXE
-        ));
+    private FeatureMetrics metrics;
+
+    private FeatureMetrics metrics() {
+        if (metrics == null) metrics = JavaPlugin.getPlugin(Loader.class).getMetrics().feature(getFeatureName());
+        return metrics;
     }
 
+    private boolean enabled = false;
+
     @Override public String getFeatureName() { return "treemine"; }
     @Override public String getDescription() { return "木を一撃で伐採します（接続するログをまとめて破壊）"; }
     @Override public boolean isEnabled() { return enabled; }
     @Override public void enable() { if (enabled) return; enabled = true; Bukkit.getLogger().info("[PEX] TreeMineFeature enabled"); }
-    @Override public void disable() { if (!enabled) return; enabled = false; Bukkit.getLogger().info("[PEX] TreeMineFeature disabled"); }
+    @Override public void disable() { if (!enabled) return; enabled = false; JavaPlugin.getPlugin(Loader.class).getTickScheduler().cancelAll(getFeatureName()); Bukkit.getLogger().info("[PEX] TreeMineFeature disabled"); }
     @Override public void reload() {}
 
-    @EventHandler
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
         if (!enabled) return;
         Player player = event.getPlayer();
@@ -55,68 +61,102 @@ public class TreeMineFeature implements Feature {
         // メインハンドが斧でない場合は処理しない
         var hand = player.getInventory().getItemInMainHand();
         if (hand == null || hand.getType() == Material.AIR) return;
-        boolean isAxe = false;
-        try {
-            isAxe = org.bukkit.Tag.ITEMS_AXES.isTagged(hand.getType());
-        } catch (Throwable ignored) {
-            isAxe = AXES.contains(hand.getType());
-        }
-        if (!isAxe) return;
+        if (!MaterialIndex.isAxe(hand.getType())) return;
         // 誤爆防止: スニーク(シフト)していない場合は動作しない
         if (!player.isSneaking()) {
             return;
         }
-        if (!LOGS.contains(b.getType())) return;
-
-        List<Block> toBreak = new ArrayList<>();
-        Deque<Block> stack = new ArrayDeque<>();
-        Set<Block> seen = new HashSet<>();
-        stack.push(b);
-        seen.add(b);
-        int limit = 300; // 上限
-
-        while (!stack.isEmpty() && toBreak.size() < limit) {
-            Block cur = stack.pop();
-            toBreak.add(cur);
-            for (int dx = -1; dx <= 1; dx++) for (int dy = -1; dy <= 1; dy++) for (int dz = -1; dz <= 1; dz++) {
-                if (dx == 0 && dy == 0 && dz == 0) continue;
-                Block nb = cur.getRelative(dx, dy, dz);
-                if (nb == null) continue;
-                if (seen.contains(nb)) continue;
-                if (LOGS.contains(nb.getType())) {
-                    seen.add(nb);
-                    stack.push(nb);
-                }
-            }
-        }
+        if (!MaterialIndex.isLog(b.getType())) return;
 
-        toBreak.removeIf(x -> x.equals(b));
+        fell(b, () -> player.getInventory().getItemInMainHand());
+    }
 
-        if (toBreak.isEmpty()) return;
+    /**
+     * 起点のログにつながるログを探し、数ティックに分けて破壊する
+     * @param tool 破壊に使う道具（ドロップの計算用、破壊のたびに取得する）
+     * @return 破壊を進めるタスク（破壊するものが無ければ null）
+     */
+    private TickTask fell(Block b, Supplier<ItemStack> tool) {
+        VeinSearchEvent search = new VeinSearchEvent();
+        search.begin();
+        World world = b.getWorld();
+        int limit = 300; // 上限（起点を含む）
+        // 座標だけで探索し、Block は破壊するときに作る
+        long[] found = VeinSearch.search(b.getX(), b.getY(), b.getZ(), limit,
+                (x, y, z) -> MaterialIndex.isLog(world.getType(x, y, z)));
+        List<Block> toBreak = new ArrayList<>(found.length);
+        for (long p : found) {
+            toBreak.add(world.getBlockAt(VeinSearch.unpackX(p), VeinSearch.unpackY(p), VeinSearch.unpackZ(p)));
+        }
+        search.end();
+        if (search.shouldCommit()) {
+            search.feature = getFeatureName();
+            search.material = b.getType().name();
+            search.blocks = toBreak.size();
+            search.commit();
+        }
 
-        var pl = JavaPlugin.getPlugin(org.pexserver.koukunn.pexsurvival.Loader.class);
+        if (toBreak.isEmpty()) return null;
 
         final int perTick = 6;
 
-        new BukkitRunnable() {
-            final Iterator<Block> it = toBreak.iterator();
+        // 1ティックあたり最大 perTick 個ずつ破壊（機能の予算を超えた分は次のティックへ持ち越し）
+        return JavaPlugin.getPlugin(Loader.class).getTickScheduler().drain(getFeatureName(), toBreak.iterator(), perTick, br -> {
+            try {
+                br.breakNaturally(tool.get());
+                metrics().blocksChanged.inc();
+                if (br.getWorld() != null) br.getWorld().playSound(br.getLocation(), Sound.BLOCK_WOOD_BREAK, 1.0f, 1.0f);
+            } catch (Exception ignored) {}
+        });
+    }
+
+    /**
+     * 毎ティック intensity 本の木（幹 6 + 枝 4 のログ）を建てて伐採する
+     * イベントの条件（斧・スニーク）の判定は省き、探索と破壊の部分だけに負荷をかける
+     */
+    @Override
+    public BenchLoad createBenchLoad(BenchContext context) {
+        ItemStack axe = new ItemStack(Material.NETHERITE_AXE);
+        // 破壊の処理はイベント経由ではないので、ここで機能の計測区間に入れる（ブロックの設置は含めない）
+        FeatureProfiler profiler = JavaPlugin.getPlugin(Loader.class).getProfiler();
+        int slot = profiler.slot(getFeatureName());
+        return new BenchLoad() {
+            private final List<TickTask> drains = new ArrayList<>();
+            private int next = 0;
 
             @Override
-            public void run() {
-                if (!enabled || !it.hasNext()) {
-                    cancel();
-                    return;
-                }
-                int i = 0;
-                while (i < perTick && it.hasNext()) {
-                    Block br = it.next();
+            public int tick(int tick) {
+                for (int i = 0; i < context.intensity(); i++) {
+                    Location base = context.cell(next++, 4);
+                    World world = base.getWorld();
+                    int x = base.getBlockX(), y = base.getBlockY(), z = base.getBlockZ();
+                    for (int dy = 0; dy < 6; dy++) world.getBlockAt(x, y + dy, z).setType(Material.OAK_LOG, false);
+                    world.getBlockAt(x + 1, y + 4, z).setType(Material.OAK_LOG, false);
+                    world.getBlockAt(x - 1, y + 4, z).setType(Material.OAK_LOG, false);
+                    world.getBlockAt(x, y + 5, z + 1).setType(Material.OAK_LOG, false);
+                    world.getBlockAt(x, y + 5, z - 1).setType(Material.OAK_LOG, false);
+                    profiler.enter(slot);
                     try {
-                        br.breakNaturally(player.getInventory().getItemInMainHand());
-                        if (br.getWorld() != null) br.getWorld().playSound(br.getLocation(), Sound.BLOCK_WOOD_BREAK, 1.0f, 1.0f);
-                    } catch (Exception ignored) {}
-                    i++;
+                        track(fell(world.getBlockAt(x, y, z), () -> axe));
+                    } finally {
+                        profiler.exit();
+                    }
                 }
+                return context.intensity();
+            }
+
+            private void track(TickTask drain) {
+                if (drain == null) return;
+                drains.removeIf(TickTask::isCancelled);
+                drains.add(drain);
+            }
+
+            @Override
+            public void close() {
+                // ワールドを閉じる前に、破壊しきれていない分を止める
+                for (TickTask drain : drains) drain.cancel();
+                drains.clear();
             }
-        }.runTaskTimer(pl, 1L, 1L);
+        };
     }
 }